@@ -0,0 +1,107 @@
+package com.github.chengyuxing.excel.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Run the benchmarks with the gc and peak heap profilers and print the summary table:
+ * rows per second, bytes allocated per row and peak heap of each benchmark.<br>
+ * The arguments are the same with the JMH command line, e.g. {@code java -jar benchmarks.jar Reader -p rows=100000},
+ * the summary table is also written to the file by system property {@code rabbit.bench.summary} if specified.
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListWithParams() || cmd.shouldListProfilers() || cmd.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+        Options options = new OptionsBuilder()
+                .parent(cmd)
+                .addProfiler(GCProfiler.class)
+                .addProfiler(PeakHeapProfiler.class)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+        String summary = summary(results);
+        System.out.println();
+        System.out.println(summary);
+        String file = System.getProperty("rabbit.bench.summary");
+        if (file != null) {
+            writeSummary(file, summary);
+        }
+    }
+
+    static String summary(Collection<RunResult> results) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("| benchmark | mode | shape | kind | rows | rows/s | bytes/row | peak heap (MB) |\n");
+        sb.append("|---|---|---|---|---:|---:|---:|---:|\n");
+        for (RunResult result : results) {
+            BenchmarkParams params = result.getParams();
+            String benchmark = params.getBenchmark();
+            int rows = Integer.parseInt(params.getParam("rows"));
+            Map<String, Result> secondary = result.getSecondaryResults();
+            sb.append("| ").append(benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1))
+                    .append(" | ").append(param(params, "mode"))
+                    .append(" | ").append(param(params, "shape"))
+                    .append(" | ").append(param(params, "kind"))
+                    .append(" | ").append(rows)
+                    .append(" | ").append(format(score(secondary, "rows"), 0))
+                    .append(" | ").append(format(score(secondary, "gc.alloc.rate.norm") / rows, 1))
+                    .append(" | ").append(format(score(secondary, PeakHeapProfiler.LABEL), 1))
+                    .append(" |\n");
+        }
+        return sb.toString();
+    }
+
+    private static String param(BenchmarkParams params, String key) {
+        String value = params.getParam(key);
+        return value == null ? "-" : value;
+    }
+
+    /**
+     * Get the secondary result score, the label may be prefixed by the profiler.
+     *
+     * @param secondary secondary results
+     * @param label     result label
+     * @return score or NaN if not exists
+     */
+    private static double score(Map<String, Result> secondary, String label) {
+        for (Map.Entry<String, Result> e : secondary.entrySet()) {
+            if (e.getKey().equals(label) || e.getKey().endsWith("." + label) || e.getKey().endsWith("·" + label)) {
+                return e.getValue().getScore();
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static String format(double value, int scale) {
+        if (Double.isNaN(value)) {
+            return "-";
+        }
+        return String.format("%,." + scale + "f", value);
+    }
+
+    private static void writeSummary(String file, String summary) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(Paths.get(file)), true, StandardCharsets.UTF_8.name())) {
+            out.print(summary);
+        }
+    }
+}
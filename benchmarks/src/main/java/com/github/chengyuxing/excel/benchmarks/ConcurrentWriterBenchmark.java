@@ -0,0 +1,82 @@
+package com.github.chengyuxing.excel.benchmarks;
+
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.excel.Excels;
+import com.github.chengyuxing.excel.io.BigExcelLineWriter;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write 12 sheets by 2 producers per sheet into a discarding output stream,
+ * the producers serialized on a single thread vs the concurrent line writer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class ConcurrentWriterBenchmark {
+    static final int SHEETS = 12;
+    static final int PRODUCERS = 2;
+
+    /**
+     * Producer modes.
+     */
+    public enum ProduceMode {
+        SEQUENTIAL,
+        CONCURRENT
+    }
+
+    // rows of each sheet
+    @Param({"20000"})
+    public int rows;
+
+    @Param({"SEQUENTIAL", "CONCURRENT"})
+    public ProduceMode mode;
+
+    private List<DataRow> pool;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        pool = Fixtures.rowPool(Fixtures.Shape.NARROW, Fixtures.Kind.MIXED);
+        executor = mode == ProduceMode.SEQUENTIAL ? Executors.newSingleThreadExecutor() : Executors.newFixedThreadPool(SHEETS * PRODUCERS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public long write(RowCounter counter) throws Exception {
+        WriterBenchmark.CountingOutputStream out = new WriterBenchmark.CountingOutputStream();
+        try (BigExcelLineWriter writer = mode == ProduceMode.SEQUENTIAL ? Excels.bigExcelLineWriter() : Excels.bigExcelLineWriter().concurrent(1024)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < SHEETS; i++) {
+                Sheet sheet = writer.createSheet("tenant" + i);
+                for (int p = 0; p < PRODUCERS; p++) {
+                    futures.add(executor.submit(() -> {
+                        for (int j = 0; j < rows / PRODUCERS; j++) {
+                            writer.writeRow(sheet, pool.get(j % pool.size()).values());
+                        }
+                    }));
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            writer.writeTo(out);
+        }
+        counter.rows += (long) SHEETS * rows;
+        return out.count;
+    }
+}
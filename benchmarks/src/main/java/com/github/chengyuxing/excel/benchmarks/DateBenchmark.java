@@ -0,0 +1,104 @@
+package com.github.chengyuxing.excel.benchmarks;
+
+import com.github.chengyuxing.excel.io.DateMode;
+import com.github.chengyuxing.excel.io.ExcelReader;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Convert the date formatted cells (16 columns per row) of the in memory workbook,
+ * the format string parsed per cell vs the date format detection cached per cell style by each date mode.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class DateBenchmark {
+    static final int COLUMNS = 16;
+
+    /**
+     * Date cell conversion modes.
+     */
+    public enum DateCellMode {
+        // DateUtil.isCellDateFormatted and getDateCellValue per cell
+        IS_CELL_DATE_FORMATTED,
+        DATE,
+        LOCAL_DATE_TIME,
+        JAVA_TIME
+    }
+
+    @Param({"10000", "62500"})
+    public int rows;
+
+    @Param({"IS_CELL_DATE_FORMATTED", "DATE", "LOCAL_DATE_TIME", "JAVA_TIME"})
+    public DateCellMode mode;
+
+    private Workbook workbook;
+    private List<Cell> cells;
+    private CellReader reader;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        workbook = new HSSFWorkbook();
+        CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+        CellStyle dateTimeStyle = workbook.createCellStyle();
+        dateTimeStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+        Sheet sheet = workbook.createSheet("dates");
+        Date date = new Date();
+        cells = new ArrayList<>(rows * COLUMNS);
+        for (int i = 0; i < rows; i++) {
+            Row row = sheet.createRow(i);
+            for (int j = 0; j < COLUMNS; j++) {
+                Cell cell = row.createCell(j);
+                cell.setCellValue(date);
+                cell.setCellStyle(j % 2 == 0 ? dateStyle : dateTimeStyle);
+                cells.add(cell);
+            }
+        }
+        if (mode != DateCellMode.IS_CELL_DATE_FORMATTED) {
+            reader = new CellReader();
+            reader.dates(DateMode.valueOf(mode.name()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        workbook.close();
+    }
+
+    @Benchmark
+    public void convert(RowCounter counter, Blackhole bh) {
+        if (mode == DateCellMode.IS_CELL_DATE_FORMATTED) {
+            for (Cell cell : cells) {
+                if (DateUtil.isCellDateFormatted(cell)) {
+                    bh.consume(cell.getDateCellValue());
+                }
+            }
+        } else {
+            for (Cell cell : cells) {
+                bh.consume(reader.value(cell));
+            }
+        }
+        counter.rows += rows;
+    }
+
+    /**
+     * Exposes the cell value conversion of the reader.
+     */
+    static final class CellReader extends ExcelReader {
+        Object value(Cell cell) {
+            return getValue(cell);
+        }
+    }
+}
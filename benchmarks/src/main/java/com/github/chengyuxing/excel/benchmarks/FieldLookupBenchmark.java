@@ -0,0 +1,96 @@
+package com.github.chengyuxing.excel.benchmarks;
+
+import com.github.chengyuxing.common.DataRow;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read the column fields of the data rows as the sheet writers do, the field name lookup of the {@code DataRow}
+ * vs the positional lookup by the data row indexes which are resolved once by the first row names
+ * (the row schema is verified per row by the names list or by the size and a sampled key).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx1g"})
+@State(Scope.Benchmark)
+public class FieldLookupBenchmark {
+    /**
+     * Lookup modes.
+     */
+    public enum LookupMode {
+        BY_NAME,
+        // row.names() equals the first row names, then row.get(int)
+        BY_INDEX_NAMES_CHECK,
+        // same size and first key, then row.get(int)
+        BY_INDEX_SAMPLED_CHECK,
+        // same size and first key, then the values array by index
+        BY_VALUES_SAMPLED_CHECK
+    }
+
+    @Param({"NARROW", "WIDE"})
+    public Fixtures.Shape shape;
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"BY_NAME", "BY_INDEX_NAMES_CHECK", "BY_INDEX_SAMPLED_CHECK", "BY_VALUES_SAMPLED_CHECK"})
+    public LookupMode mode;
+
+    private List<DataRow> pool;
+    private String[] fields;
+    private List<String> names;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        pool = Fixtures.rowPool(shape, Fixtures.Kind.MIXED);
+        fields = Fixtures.header(shape);
+        names = pool.get(0).names();
+    }
+
+    @Benchmark
+    public void lookup(RowCounter counter, Blackhole bh) {
+        Iterator<DataRow> data = Fixtures.cycle(pool, rows);
+        String firstName = names.get(0);
+        while (data.hasNext()) {
+            DataRow row = data.next();
+            switch (mode) {
+                case BY_NAME:
+                    for (String field : fields) {
+                        bh.consume(row.get(field));
+                    }
+                    break;
+                case BY_INDEX_NAMES_CHECK:
+                    if (row.names().equals(names)) {
+                        for (int i = 0; i < fields.length; i++) {
+                            bh.consume(row.get(i));
+                        }
+                    }
+                    break;
+                case BY_INDEX_SAMPLED_CHECK:
+                    if (row.size() == names.size() && row.keySet().iterator().next().equals(firstName)) {
+                        for (int i = 0; i < fields.length; i++) {
+                            bh.consume(row.get(i));
+                        }
+                    }
+                    break;
+                case BY_VALUES_SAMPLED_CHECK:
+                    if (row.size() == names.size() && row.keySet().iterator().next().equals(firstName)) {
+                        Object[] values = row.values().toArray();
+                        for (int i = 0; i < fields.length; i++) {
+                            bh.consume(values[i]);
+                        }
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("unknown mode: " + mode);
+            }
+        }
+        counter.rows += rows;
+    }
+}
@@ -0,0 +1,196 @@
+package com.github.chengyuxing.excel.benchmarks;
+
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.excel.Excels;
+import com.github.chengyuxing.excel.io.StreamingExcelLineWriter;
+import com.github.chengyuxing.excel.type.XSheet;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Generated fixture data and workbooks of the benchmarks, the data is deterministic,
+ * the fixture files are generated once and kept in {@code ${java.io.tmpdir}/rabbit-excel-benchmarks}
+ * (change it by system property {@code rabbit.bench.dir}).
+ */
+public final class Fixtures {
+    static final Path DIR = Paths.get(System.getProperty("rabbit.bench.dir", System.getProperty("java.io.tmpdir")), "rabbit-excel-benchmarks");
+    // in memory POI workbook modes are limited, 1M cells take about 1GB heap
+    static final long MAX_DOM_CELLS = 1_000_000;
+    private static final int POOL_SIZE = 1024;
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2020, 1, 1, 8, 0);
+
+    /**
+     * Columns count of the sheet.
+     */
+    public enum Shape {
+        NARROW(5),
+        WIDE(50);
+
+        final int columns;
+
+        Shape(int columns) {
+            this.columns = columns;
+        }
+    }
+
+    /**
+     * Value types of the cells.
+     */
+    public enum Kind {
+        STRING,
+        NUMERIC,
+        DATE,
+        // string, number and date columns in turn
+        MIXED
+    }
+
+    private Fixtures() {
+    }
+
+    static String[] header(Shape shape) {
+        String[] names = new String[shape.columns];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "c" + i;
+        }
+        return names;
+    }
+
+    static Object value(Kind kind, int row, int col) {
+        switch (kind) {
+            case STRING:
+                return col % 4 == 0 ? "昆明市" + row : "cyx_" + row + "_" + col;
+            case NUMERIC:
+                return col % 2 == 0 ? (Object) row : (Object) (row * 0.25 + col);
+            case DATE:
+                return col % 2 == 0 ? (Object) BASE_TIME.toLocalDate().plusDays(row % 10000) : (Object) BASE_TIME.plusMinutes(row);
+            default:
+                return value(Kind.values()[col % 3], row, col);
+        }
+    }
+
+    static Object[] values(Shape shape, Kind kind, int row) {
+        Object[] values = new Object[shape.columns];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = value(kind, row, i);
+        }
+        return values;
+    }
+
+    /**
+     * Pre-generated rows which are cycled by the writer benchmarks,
+     * so the data generation is not measured.
+     *
+     * @param shape shape
+     * @param kind  kind
+     * @return rows pool
+     */
+    static List<DataRow> rowPool(Shape shape, Kind kind) {
+        String[] names = header(shape);
+        List<DataRow> pool = new ArrayList<>(POOL_SIZE);
+        for (int i = 0; i < POOL_SIZE; i++) {
+            pool.add(DataRow.of(names, values(shape, kind, i)));
+        }
+        return pool;
+    }
+
+    /**
+     * Cycle the rows pool.
+     *
+     * @param pool  rows pool
+     * @param count rows count
+     * @return rows iterator
+     */
+    static Iterator<DataRow> cycle(List<DataRow> pool, int count) {
+        return new Iterator<DataRow>() {
+            int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < count;
+            }
+
+            @Override
+            public DataRow next() {
+                if (i >= count) {
+                    throw new NoSuchElementException();
+                }
+                return pool.get(i++ % pool.size());
+            }
+        };
+    }
+
+    static void checkDomSize(Shape shape, int rows) {
+        if ((long) shape.columns * rows > MAX_DOM_CELLS) {
+            throw new IllegalStateException("skipped: " + shape + " x " + rows + " rows is too big for the in memory workbook.");
+        }
+    }
+
+    /**
+     * Get the fixture workbook (header row and data rows), generate it if not exists.
+     *
+     * @param shape shape
+     * @param kind  kind
+     * @param rows  data rows count
+     * @return workbook file path
+     * @throws IOException if io error
+     */
+    static synchronized Path xlsx(Shape shape, Kind kind, int rows) throws IOException {
+        Path file = DIR.resolve(shape + "_" + kind + "_" + rows + ".xlsx");
+        if (Files.exists(file)) {
+            return file;
+        }
+        Files.createDirectories(DIR);
+        Path temp = Files.createTempFile(DIR, "fixture", ".tmp");
+        try (StreamingExcelLineWriter writer = Excels.streamingLineWriter(temp.toFile()).typedCells()) {
+            StreamingExcelLineWriter.LineSheet sheet = writer.createSheet("data");
+            writer.writeRow(sheet, (Object[]) header(shape));
+            for (int i = 0; i < rows; i++) {
+                writer.writeRow(sheet, values(shape, kind, i));
+            }
+        }
+        return Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Get the fixture csv file (header line and data lines), generate it if not exists.
+     *
+     * @param shape shape
+     * @param kind  kind
+     * @param rows  data rows count
+     * @return csv file path
+     * @throws IOException if io error
+     */
+    static synchronized Path csv(Shape shape, Kind kind, int rows) throws IOException {
+        Path file = DIR.resolve(shape + "_" + kind + "_" + rows + ".csv");
+        if (Files.exists(file)) {
+            return file;
+        }
+        Files.createDirectories(DIR);
+        Path temp = Files.createTempFile(DIR, "fixture", ".tmp");
+        String[] names = header(shape);
+        Iterator<DataRow> data = new Iterator<DataRow>() {
+            int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < rows;
+            }
+
+            @Override
+            public DataRow next() {
+                return DataRow.of(names, values(shape, kind, i++));
+            }
+        };
+        Excels.csvWriter().write(XSheet.of("data", data)).writeTo(temp);
+        return Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
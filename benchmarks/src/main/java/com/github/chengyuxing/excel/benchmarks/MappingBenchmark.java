@@ -0,0 +1,121 @@
+package com.github.chengyuxing.excel.benchmarks;
+
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.excel.Excels;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Map the rows of the narrow mixed fixture file to objects by the streaming reader,
+ * the usual reflective mapping of the {@code DataRow} vs {@code stream(Class)} vs the row visitor.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+    /**
+     * Mapping modes.
+     */
+    public enum MapMode {
+        // DataRow only, no mapping
+        DATA_ROW,
+        DATA_ROW_REFLECTION,
+        TYPED_STREAM,
+        VISITOR
+    }
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    @Param({"DATA_ROW", "DATA_ROW_REFLECTION", "TYPED_STREAM", "VISITOR"})
+    public MapMode mode;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Fixtures.xlsx(Fixtures.Shape.NARROW, Fixtures.Kind.MIXED, rows);
+    }
+
+    @Benchmark
+    public void map(RowCounter counter, Blackhole bh) throws IOException {
+        switch (mode) {
+            case DATA_ROW:
+                try (Stream<DataRow> stream = Excels.streamingReader(file).stream()) {
+                    stream.skip(1).forEach(bh::consume);
+                }
+                break;
+            case DATA_ROW_REFLECTION:
+                try (Stream<DataRow> stream = Excels.streamingReader(file).stream()) {
+                    stream.skip(1).map(MappingBenchmark::reflectMap).forEach(bh::consume);
+                }
+                break;
+            case TYPED_STREAM:
+                try (Stream<Item> stream = Excels.streamingReader(file).stream(Item.class)) {
+                    stream.forEach(bh::consume);
+                }
+                break;
+            case VISITOR:
+                Excels.streamingReader(file).read(row -> {
+                    Item item = new Item();
+                    item.c0 = row.getString(0);
+                    item.c1 = row.getDouble(1);
+                    item.c2 = row.getLocalDateTime(2);
+                    item.c3 = row.getString(3);
+                    item.c4 = row.getDouble(4);
+                    bh.consume(item);
+                });
+                break;
+            default:
+                throw new IllegalStateException("unknown mode: " + mode);
+        }
+        counter.rows += rows;
+    }
+
+    /**
+     * The usual per row reflective mapping of the DataRow.
+     */
+    static Item reflectMap(DataRow row) {
+        try {
+            Item item = new Item();
+            for (String name : row.names()) {
+                Object value = row.get(name);
+                if (value == null || "".equals(value)) {
+                    continue;
+                }
+                Field field = Item.class.getDeclaredField(name);
+                if (field.getType() == LocalDateTime.class) {
+                    field.set(item, LocalDateTime.ofInstant(((Date) value).toInstant(), ZoneId.systemDefault()));
+                } else {
+                    field.set(item, value);
+                }
+            }
+            return item;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Object of the narrow mixed fixture row: string, number and date columns in turn.
+     */
+    public static class Item {
+        String c0;
+        double c1;
+        LocalDateTime c2;
+        String c3;
+        double c4;
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.chengyuxing.excel.benchmarks;
+
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.excel.Excels;
+import com.github.chengyuxing.excel.io.ColumnBatch;
+import org.apache.poi.ss.usermodel.CellType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Read the fixture file by each reader mode, a benchmark operation reads the whole sheet.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class ReaderBenchmark {
+    /**
+     * Reader modes.
+     */
+    public enum ReadMode {
+        // in memory POI workbook
+        READER_STREAM,
+        STREAMING_READER_STREAM,
+        STREAMING_READER_VISITOR,
+        STREAMING_READER_BATCHES,
+        CSV_READER_STREAM
+    }
+
+    @Param({"NARROW", "WIDE"})
+    public Fixtures.Shape shape;
+
+    @Param({"STRING", "NUMERIC", "DATE", "MIXED"})
+    public Fixtures.Kind kind;
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"READER_STREAM", "STREAMING_READER_STREAM", "STREAMING_READER_VISITOR", "STREAMING_READER_BATCHES", "CSV_READER_STREAM"})
+    public ReadMode mode;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        if (mode == ReadMode.READER_STREAM) {
+            Fixtures.checkDomSize(shape, rows);
+        }
+        file = mode == ReadMode.CSV_READER_STREAM ? Fixtures.csv(shape, kind, rows) : Fixtures.xlsx(shape, kind, rows);
+    }
+
+    @Benchmark
+    public void read(RowCounter counter, Blackhole bh) throws IOException {
+        switch (mode) {
+            case READER_STREAM:
+                try (Stream<DataRow> stream = Excels.reader(file).stream()) {
+                    stream.forEach(bh::consume);
+                }
+                break;
+            case STREAMING_READER_STREAM:
+                try (Stream<DataRow> stream = Excels.streamingReader(file).stream()) {
+                    stream.forEach(bh::consume);
+                }
+                break;
+            case STREAMING_READER_VISITOR:
+                Excels.streamingReader(file).read(row -> {
+                    for (int i = 0, j = row.names().length; i < j; i++) {
+                        if (row.getCellType(i) == CellType.NUMERIC) {
+                            bh.consume(row.getDouble(i));
+                        } else {
+                            bh.consume(row.getString(i));
+                        }
+                    }
+                });
+                break;
+            case STREAMING_READER_BATCHES:
+                try (Stream<ColumnBatch> stream = Excels.streamingReader(file).batches(4096)) {
+                    stream.forEach(bh::consume);
+                }
+                break;
+            case CSV_READER_STREAM:
+                try (Stream<DataRow> stream = Excels.csvReader(file).stream()) {
+                    stream.forEach(bh::consume);
+                }
+                break;
+            default:
+                throw new IllegalStateException("unknown mode: " + mode);
+        }
+        counter.rows += rows;
+    }
+}
@@ -0,0 +1,152 @@
+package com.github.chengyuxing.excel.benchmarks;
+
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.excel.Excels;
+import com.github.chengyuxing.excel.io.ExcelWriter;
+import com.github.chengyuxing.excel.style.XStyle;
+import com.github.chengyuxing.excel.style.props.Border;
+import com.github.chengyuxing.excel.style.props.FillGround;
+import com.github.chengyuxing.excel.type.CellAttr;
+import com.github.chengyuxing.excel.type.XSheet;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write the narrow mixed rows by the {@link ExcelWriter} features into a discarding output stream,
+ * each pair of modes is the previous way vs the optimized way of the same output.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class SheetWriterBenchmark {
+    static final int SHEETS = 20;
+
+    /**
+     * Writer feature modes.
+     */
+    public enum FeatureMode {
+        // 20 sheets
+        SEQUENTIAL_SHEETS,
+        PARALLEL_SHEETS,
+        // in memory POI workbook
+        AUTO_SIZE_COLUMNS,
+        ESTIMATE_COLUMN_WIDTHS,
+        // no style vs the same styles by cell attr callback and style rules
+        NO_STYLE,
+        CELL_ATTR_STYLES,
+        STYLE_RULES,
+        // merge each 2 rows of the first column
+        VALIDATED_MERGES,
+        BATCHED_MERGES
+    }
+
+    // rows of each sheet
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"SEQUENTIAL_SHEETS", "PARALLEL_SHEETS", "AUTO_SIZE_COLUMNS", "ESTIMATE_COLUMN_WIDTHS",
+            "NO_STYLE", "CELL_ATTR_STYLES", "STYLE_RULES", "VALIDATED_MERGES", "BATCHED_MERGES"})
+    public FeatureMode mode;
+
+    private List<DataRow> pool;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if (mode == FeatureMode.AUTO_SIZE_COLUMNS || mode == FeatureMode.ESTIMATE_COLUMN_WIDTHS) {
+            Fixtures.checkDomSize(Fixtures.Shape.NARROW, rows);
+        }
+        pool = Fixtures.rowPool(Fixtures.Shape.NARROW, Fixtures.Kind.MIXED);
+    }
+
+    @Benchmark
+    public long write(RowCounter counter) throws Exception {
+        WriterBenchmark.CountingOutputStream out = new WriterBenchmark.CountingOutputStream();
+        switch (mode) {
+            case SEQUENTIAL_SHEETS:
+            case PARALLEL_SHEETS:
+                try (ExcelWriter writer = Excels.bigExcelWriter().parallel(mode == FeatureMode.SEQUENTIAL_SHEETS ? 1 : 4)) {
+                    List<XSheet> sheets = new ArrayList<>();
+                    for (int i = 0; i < SHEETS; i++) {
+                        sheets.add(XSheet.of("data" + i, Fixtures.cycle(pool, rows)));
+                    }
+                    writer.write(sheets).writeTo(out);
+                }
+                counter.rows += (long) SHEETS * rows;
+                return out.count;
+            case AUTO_SIZE_COLUMNS:
+                try (ExcelWriter writer = Excels.writer()) {
+                    writer.write(XSheet.of("data", Fixtures.cycle(pool, rows))).writeTo(out);
+                }
+                break;
+            case ESTIMATE_COLUMN_WIDTHS:
+                try (ExcelWriter writer = Excels.writer().estimateColumnWidths()) {
+                    writer.write(XSheet.of("data", Fixtures.cycle(pool, rows))).writeTo(out);
+                }
+                break;
+            case NO_STYLE:
+                try (ExcelWriter writer = Excels.bigExcelWriter().estimateColumnWidths()) {
+                    writer.write(XSheet.of("data", Fixtures.cycle(pool, rows))).writeTo(out);
+                }
+                break;
+            case CELL_ATTR_STYLES:
+                try (ExcelWriter writer = Excels.bigExcelWriter().estimateColumnWidths()) {
+                    XStyle gray = writer.createStyle();
+                    gray.setForeground(new FillGround(IndexedColors.GREY_25_PERCENT, FillPatternType.SOLID_FOREGROUND));
+                    XStyle bordered = writer.createStyle();
+                    bordered.setBorder(new Border(BorderStyle.THIN, IndexedColors.BLACK));
+                    XSheet sheet = XSheet.of("data", Fixtures.cycle(pool, rows));
+                    sheet.setCellAttr((row, field, coord) -> {
+                        CellAttr attr = new CellAttr();
+                        if (field.equals("c0")) {
+                            attr.setCellStyle(bordered);
+                        } else if (coord.getX() % 2 == 1) {
+                            attr.setCellStyle(gray);
+                        }
+                        return attr;
+                    });
+                    writer.write(sheet).writeTo(out);
+                }
+                break;
+            case STYLE_RULES:
+                try (ExcelWriter writer = Excels.bigExcelWriter().estimateColumnWidths()) {
+                    XStyle gray = new XStyle();
+                    gray.setForeground(new FillGround(IndexedColors.GREY_25_PERCENT, FillPatternType.SOLID_FOREGROUND));
+                    XStyle bordered = new XStyle();
+                    bordered.setBorder(new Border(BorderStyle.THIN, IndexedColors.BLACK));
+                    writer.write(XSheet.of("data", Fixtures.cycle(pool, rows))
+                            .columnStyle("c0", bordered)
+                            .rowStyle(i -> i % 2 == 1, gray)).writeTo(out);
+                }
+                break;
+            case VALIDATED_MERGES:
+            case BATCHED_MERGES:
+                try (ExcelWriter writer = mode == FeatureMode.BATCHED_MERGES ? Excels.bigExcelWriter().batchMergedRegions() : Excels.bigExcelWriter()) {
+                    XSheet sheet = XSheet.of("data", Fixtures.cycle(pool, rows));
+                    sheet.setCellAttr((row, field, coord) -> {
+                        if (field.equals("c0") && coord.getX() % 2 == 0 && coord.getX() + 2 <= rows) {
+                            CellAttr attr = new CellAttr();
+                            attr.setCellRangeAddress(new CellRangeAddress(coord.getX() + 1, coord.getX() + 2, 0, 0));
+                            return attr;
+                        }
+                        return null;
+                    });
+                    writer.write(sheet).writeTo(out);
+                }
+                break;
+            default:
+                throw new IllegalStateException("unknown mode: " + mode);
+        }
+        counter.rows += rows;
+        return out.count;
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.chengyuxing.excel.benchmarks;
+
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.excel.Excels;
+import com.github.chengyuxing.excel.io.BigExcelLineWriter;
+import com.github.chengyuxing.excel.io.ExcelWriter;
+import com.github.chengyuxing.excel.io.StreamingExcelLineWriter;
+import com.github.chengyuxing.excel.type.XSheet;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write the generated rows by each writer mode into a discarding output stream,
+ * a benchmark operation writes the whole sheet, the rows are cycled from a pre-generated pool.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class WriterBenchmark {
+    /**
+     * Writer modes, all write typed cells except csv.
+     */
+    public enum WriteMode {
+        // in memory POI workbook
+        WRITER,
+        BIG_EXCEL_WRITER,
+        BIG_EXCEL_LINE_WRITER,
+        STREAMING_LINE_WRITER,
+        CSV_WRITER
+    }
+
+    @Param({"NARROW", "WIDE"})
+    public Fixtures.Shape shape;
+
+    @Param({"STRING", "NUMERIC", "DATE", "MIXED"})
+    public Fixtures.Kind kind;
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"WRITER", "BIG_EXCEL_WRITER", "BIG_EXCEL_LINE_WRITER", "STREAMING_LINE_WRITER", "CSV_WRITER"})
+    public WriteMode mode;
+
+    private List<DataRow> pool;
+    private Object[] header;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if (mode == WriteMode.WRITER) {
+            Fixtures.checkDomSize(shape, rows);
+        }
+        pool = Fixtures.rowPool(shape, kind);
+        header = Fixtures.header(shape);
+    }
+
+    @Benchmark
+    public long write(RowCounter counter) throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        switch (mode) {
+            case WRITER:
+                try (ExcelWriter writer = Excels.writer().typedCells()) {
+                    writer.write(XSheet.of("data", Fixtures.cycle(pool, rows))).writeTo(out);
+                }
+                break;
+            case BIG_EXCEL_WRITER:
+                try (ExcelWriter writer = Excels.bigExcelWriter().typedCells()) {
+                    writer.write(XSheet.of("data", Fixtures.cycle(pool, rows))).writeTo(out);
+                }
+                break;
+            case BIG_EXCEL_LINE_WRITER:
+                try (BigExcelLineWriter writer = Excels.bigExcelLineWriter().typedCells()) {
+                    Sheet sheet = writer.createSheet("data");
+                    writer.writeRow(sheet, header);
+                    for (int i = 0; i < rows; i++) {
+                        writer.writeRow(sheet, pool.get(i % pool.size()).values());
+                    }
+                    writer.writeTo(out);
+                }
+                break;
+            case STREAMING_LINE_WRITER:
+                try (StreamingExcelLineWriter writer = Excels.streamingLineWriter(out).typedCells()) {
+                    StreamingExcelLineWriter.LineSheet sheet = writer.createSheet("data");
+                    writer.writeRow(sheet, header);
+                    for (int i = 0; i < rows; i++) {
+                        writer.writeRow(sheet, pool.get(i % pool.size()).values());
+                    }
+                }
+                break;
+            case CSV_WRITER:
+                Excels.csvWriter().write(XSheet.of("data", Fixtures.cycle(pool, rows))).writeTo(out);
+                break;
+            default:
+                throw new IllegalStateException("unknown mode: " + mode);
+        }
+        counter.rows += rows;
+        return out.count;
+    }
+
+    /**
+     * Discarding output stream which counts the written bytes.
+     */
+    static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package com.github.chengyuxing.excel;
 
 import com.github.chengyuxing.excel.io.BigExcelLineWriter;
+import com.github.chengyuxing.excel.io.CsvReader;
+import com.github.chengyuxing.excel.io.CsvWriter;
+import com.github.chengyuxing.excel.io.ExcelPipeline;
 import com.github.chengyuxing.excel.io.ExcelReader;
+import com.github.chengyuxing.excel.io.ExcelTemplate;
 import com.github.chengyuxing.excel.io.ExcelWriter;
+import com.github.chengyuxing.excel.io.ParallelSXSSFWorkbook;
+import com.github.chengyuxing.excel.io.StreamingExcelLineWriter;
+import com.github.chengyuxing.excel.io.StreamingExcelReader;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
@@ -70,6 +77,68 @@ public final class Excels {
         return reader(new ByteArrayInputStream(fileBytes));
     }
 
+    /**
+     * Returns a streaming ExcelReader (.xlsx only) with InputStream, the stream is spooled to a temp file
+     * which is deleted while the reader closed.
+     *
+     * @param stream excel file inputStream
+     * @return streaming ExcelReader
+     * @throws IOException ex
+     * @see StreamingExcelReader
+     */
+    public static ExcelReader streamingReader(InputStream stream) throws IOException {
+        return new StreamingExcelReader(stream);
+    }
+
+    /**
+     * Returns a streaming ExcelReader (.xlsx only) with full file name.
+     *
+     * @param name file name
+     * @return streaming ExcelReader
+     * @throws IOException ex
+     * @see StreamingExcelReader
+     */
+    public static ExcelReader streamingReader(String name) throws IOException {
+        return streamingReader(new File(name));
+    }
+
+    /**
+     * Returns a streaming ExcelReader (.xlsx only) with Path.
+     *
+     * @param path file path
+     * @return streaming ExcelReader
+     * @throws IOException ex
+     * @see StreamingExcelReader
+     */
+    public static ExcelReader streamingReader(Path path) throws IOException {
+        return streamingReader(path.toFile());
+    }
+
+    /**
+     * Returns a streaming ExcelReader (.xlsx only) with File.
+     *
+     * @param file file
+     * @return streaming ExcelReader
+     * @throws IOException ex
+     * @see StreamingExcelReader
+     */
+    public static ExcelReader streamingReader(File file) throws IOException {
+        return new StreamingExcelReader(file);
+    }
+
+    /**
+     * Returns a streaming ExcelReader (.xlsx only) with bytes, the bytes are spooled to a temp file
+     * which is deleted while the reader closed.
+     *
+     * @param fileBytes file bytes
+     * @return streaming ExcelReader
+     * @throws IOException ex
+     * @see StreamingExcelReader
+     */
+    public static ExcelReader streamingReader(byte[] fileBytes) throws IOException {
+        return streamingReader(new ByteArrayInputStream(fileBytes));
+    }
+
     /**
      * Returns an ExcelWriter.
      *
@@ -79,13 +148,58 @@ public final class Excels {
         return new ExcelWriter(new XSSFWorkbook());
     }
 
+    /**
+     * Returns an ExcelWriter which fills the report template,
+     * the template is opened as a new streaming workbook.
+     *
+     * @param template report template
+     * @return ExcelWriter
+     * @see ExcelTemplate
+     */
+    public static ExcelWriter writer(ExcelTemplate template) {
+        return new ExcelWriter(template);
+    }
+
+    /**
+     * Returns a report template with InputStream, parse it once and reuse it for the reports.
+     *
+     * @param stream template file inputStream, not closed
+     * @return ExcelTemplate
+     * @throws IOException ex
+     */
+    public static ExcelTemplate template(InputStream stream) throws IOException {
+        return new ExcelTemplate(stream);
+    }
+
+    /**
+     * Returns a report template with Path, parse it once and reuse it for the reports.
+     *
+     * @param path template file path
+     * @return ExcelTemplate
+     * @throws IOException ex
+     */
+    public static ExcelTemplate template(Path path) throws IOException {
+        return new ExcelTemplate(path);
+    }
+
+    /**
+     * Returns a report template with File, parse it once and reuse it for the reports.
+     *
+     * @param file template file
+     * @return ExcelTemplate
+     * @throws IOException ex
+     */
+    public static ExcelTemplate template(File file) throws IOException {
+        return new ExcelTemplate(file.toPath());
+    }
+
     /**
      * Returns a big ExcelWriter.
      *
      * @return big ExcelWriter
      */
     public static ExcelWriter bigExcelWriter() {
-        SXSSFWorkbook workbook = new SXSSFWorkbook(18);
+        SXSSFWorkbook workbook = new ParallelSXSSFWorkbook(18);
         return new ExcelWriter(workbook);
     }
 
@@ -97,4 +211,95 @@ public final class Excels {
     public static BigExcelLineWriter bigExcelLineWriter() {
         return new BigExcelLineWriter(false);
     }
+
+    /**
+     * Returns a streaming Excel (.xlsx) line-mode Writer with OutputStream,
+     * the sheet xml is written into the output stream directly as the rows arrive.
+     *
+     * @param out output stream, not closed by the writer
+     * @return streaming Excel line-mode Writer
+     * @see StreamingExcelLineWriter
+     */
+    public static StreamingExcelLineWriter streamingLineWriter(OutputStream out) {
+        return new StreamingExcelLineWriter(out);
+    }
+
+    /**
+     * Returns a streaming Excel (.xlsx) line-mode Writer with File,
+     * the sheet xml is written into the file directly as the rows arrive.
+     *
+     * @param file excel file
+     * @return streaming Excel line-mode Writer
+     * @throws IOException if create file failed
+     * @see StreamingExcelLineWriter
+     */
+    public static StreamingExcelLineWriter streamingLineWriter(File file) throws IOException {
+        return new StreamingExcelLineWriter(file);
+    }
+
+    /**
+     * Returns a CSV/TSV reader with full file name.
+     *
+     * @param name file name
+     * @return CsvReader
+     * @see CsvReader
+     */
+    public static CsvReader csvReader(String name) {
+        return csvReader(Paths.get(name));
+    }
+
+    /**
+     * Returns a CSV/TSV reader with Path.
+     *
+     * @param path file path
+     * @return CsvReader
+     * @see CsvReader
+     */
+    public static CsvReader csvReader(Path path) {
+        return new CsvReader(path);
+    }
+
+    /**
+     * Returns a CSV/TSV reader with File.
+     *
+     * @param file file
+     * @return CsvReader
+     * @see CsvReader
+     */
+    public static CsvReader csvReader(File file) {
+        return new CsvReader(file);
+    }
+
+    /**
+     * Returns a CSV/TSV reader with InputStream, the stream could be read only once.
+     *
+     * @param stream csv inputStream
+     * @return CsvReader
+     * @see CsvReader
+     */
+    public static CsvReader csvReader(InputStream stream) {
+        return new CsvReader(stream);
+    }
+
+    /**
+     * Returns a CSV/TSV writer.
+     *
+     * @return CsvWriter
+     * @see CsvWriter
+     */
+    public static CsvWriter csvWriter() {
+        return new CsvWriter();
+    }
+
+    /**
+     * Returns an Excel to Excel transform pipeline with the source reader,
+     * use the streaming reader to transform the big Excel file in constant memory.
+     *
+     * @param reader source reader
+     * @return ExcelPipeline
+     * @see ExcelPipeline
+     */
+    public static ExcelPipeline pipeline(ExcelReader reader) {
+        return new ExcelPipeline(reader);
+    }
 }
@@ -4,22 +4,40 @@ import com.github.chengyuxing.common.io.IOutput;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Big Excel file line-mode data writer.
+ * Big Excel file line-mode data writer.<br>
+ * By default the rows are written by the caller thread, in {@link #concurrent(int) concurrent} mode
+ * each sheet is written by its own thread from a bounded queue, so the sheets could be filled
+ * by multiple producers in parallel.
  */
 public class BigExcelLineWriter implements IOutput, AutoCloseable {
     private final ConcurrentHashMap<String, AtomicInteger> sheetRowNumber = new ConcurrentHashMap<>();
-    private final SXSSFWorkbook workbook = new SXSSFWorkbook(1);
+    private final ConcurrentHashMap<String, CellValues.Columns> sheetColumns = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, SheetPipeline> sheetPipelines = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, SheetCounter> sheetCounters = new ConcurrentHashMap<>();
+    private final ParallelSXSSFWorkbook workbook = new ParallelSXSSFWorkbook(1);
+    private CellValues cellValues;
+    private CellValueWriter cellValueWriter;
+    private int queueCapacity = 0;
+    private ThreadFactory threadFactory;
+    private ExcelListener listener = ExcelListener.NOOP;
 
     /**
      * Constructs a BigExcelLineWriter with enableGzipTempFiles flag.
@@ -30,6 +48,83 @@ public class BigExcelLineWriter implements IOutput, AutoCloseable {
         workbook.setCompressTempFiles(enableGzipTempFiles);
     }
 
+    /**
+     * Write the numbers, booleans and dates as typed cells by the default converters instead of the strings.
+     *
+     * @return BigExcelLineWriter
+     * @see #typedCells(CellValues)
+     */
+    public BigExcelLineWriter typedCells() {
+        return typedCells(new CellValues());
+    }
+
+    /**
+     * Write the cells as typed cells by the converters instead of the strings, the null values are blank cells.
+     *
+     * @param cellValues cell value converters
+     * @return BigExcelLineWriter
+     */
+    public BigExcelLineWriter typedCells(CellValues cellValues) {
+        if (!sheetRowNumber.isEmpty()) {
+            throw new IllegalStateException("typed cells must be set before create sheet.");
+        }
+        this.cellValues = cellValues;
+        this.cellValueWriter = new CellValueWriter(workbook);
+        return this;
+    }
+
+    /**
+     * Write each sheet by its own daemon thread, the rows are written into the sheet
+     * from a bounded queue in the order they are put.
+     *
+     * @param queueCapacity max queued rows of each sheet, the producers are blocked when the queue is full
+     * @return BigExcelLineWriter
+     * @see #concurrent(int, ThreadFactory)
+     */
+    public BigExcelLineWriter concurrent(int queueCapacity) {
+        return concurrent(queueCapacity, r -> {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Write each sheet by its own thread, the rows are written into the sheet
+     * from a bounded queue in the order they are put, the rows of different sheets are
+     * written in parallel.<br>
+     * The row data collection must not be modified after written,
+     * all producers must be finished before {@link #writeTo(OutputStream) writeTo},
+     * the producers blocked by the full queue fail with {@link IllegalStateException} while the writer closed.
+     *
+     * @param queueCapacity max queued rows of each sheet, the producers are blocked when the queue is full
+     * @param threadFactory sheet writer thread factory (e.g. virtual threads factory)
+     * @return BigExcelLineWriter
+     */
+    public BigExcelLineWriter concurrent(int queueCapacity, ThreadFactory threadFactory) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queue capacity must be greater than 0.");
+        }
+        if (!sheetRowNumber.isEmpty()) {
+            throw new IllegalStateException("concurrent mode must be set before create sheet.");
+        }
+        this.queueCapacity = queueCapacity;
+        this.threadFactory = threadFactory;
+        return this;
+    }
+
+    /**
+     * Set the listener of the write phases timings, rows, cells, bytes written and temp files bytes,
+     * the rows and cells of each sheet are reported while {@link #writeTo(OutputStream) writeTo}.
+     *
+     * @param listener listener
+     * @return BigExcelLineWriter
+     */
+    public BigExcelLineWriter listener(ExcelListener listener) {
+        this.listener = Objects.requireNonNull(listener, "listener must not be null.");
+        return this;
+    }
+
     /**
      * Create a sheet.
      *
@@ -37,11 +132,23 @@ public class BigExcelLineWriter implements IOutput, AutoCloseable {
      * @return sheet
      */
     public Sheet createSheet(String name) {
-        if (sheetRowNumber.containsKey(name)) {
+        if (sheetRowNumber.putIfAbsent(name, new AtomicInteger(0)) != null) {
             throw new IllegalStateException("sheet name '" + name + "' already exists.");
         }
-        sheetRowNumber.put(name, new AtomicInteger(0));
-        return workbook.createSheet(name);
+        if (cellValues != null) {
+            sheetColumns.put(name, cellValues.columns());
+        }
+        sheetCounters.put(name, new SheetCounter());
+        Sheet sheet;
+        synchronized (workbook) {
+            sheet = workbook.createSheet(name);
+        }
+        if (queueCapacity > 0) {
+            SheetPipeline pipeline = new SheetPipeline(sheet);
+            sheetPipelines.put(name, pipeline);
+            pipeline.thread.start();
+        }
+        return sheet;
     }
 
     /**
@@ -51,21 +158,44 @@ public class BigExcelLineWriter implements IOutput, AutoCloseable {
      * @param rowData row data
      */
     public void writeRow(Sheet sheet, Collection<Object> rowData) {
+        SheetPipeline pipeline = sheetPipelines.get(sheet.getSheetName());
+        if (pipeline != null) {
+            pipeline.put(rowData);
+            return;
+        }
+        writeSheetRow(sheet, rowData);
+    }
+
+    private void writeSheetRow(Sheet sheet, Collection<Object> rowData) {
         String sheetName = sheet.getSheetName();
         if (sheetRowNumber.containsKey(sheetName)) {
+            // the row time is measured only if listened
+            boolean timed = listener != ExcelListener.NOOP;
+            long start = timed ? System.nanoTime() : 0;
             Row row = sheet.createRow(sheetRowNumber.get(sheetName).getAndIncrement());
             Iterator<Object> iterator = rowData.iterator();
+            CellValues.Columns columns = sheetColumns.get(sheetName);
             int i = 0;
             while (iterator.hasNext()) {
                 Cell cell = row.createCell(i);
                 Object value = iterator.next();
-                if (value == null) {
+                if (columns != null) {
+                    value = columns.convert(i, value);
+                    if (value != null) {
+                        cellValueWriter.setCellValue(cell, value);
+                    }
+                } else if (value == null) {
                     cell.setCellValue("");
                 } else {
                     cell.setCellValue(value.toString());
                 }
                 i++;
             }
+            SheetCounter counter = sheetCounters.get(sheetName);
+            counter.cells.add(i);
+            if (timed) {
+                counter.nanos.add(System.nanoTime() - start);
+            }
             return;
         }
         throw new IllegalStateException("sheet '" + sheetName + "' not exists.");
@@ -81,9 +211,29 @@ public class BigExcelLineWriter implements IOutput, AutoCloseable {
         writeRow(sheet, Arrays.asList(rowData));
     }
 
+    /**
+     * Write the workbook, the queued rows of the concurrent mode are written first.
+     *
+     * @param out output stream
+     * @throws IOException if io error
+     */
     @Override
     public void writeTo(OutputStream out) throws IOException {
-        workbook.write(out);
+        for (SheetPipeline pipeline : sheetPipelines.values()) {
+            pipeline.finish();
+        }
+        sheetCounters.forEach((name, counter) -> {
+            listener.phase(ExcelListener.Phase.ROWS, name, counter.nanos.sum());
+            listener.rows(name, sheetRowNumber.get(name).get());
+            listener.cells(name, counter.cells.sum());
+        });
+        long start = System.nanoTime();
+        CountingOutputStream counting = new CountingOutputStream(out);
+        workbook.write(counting);
+        counting.flush();
+        listener.phase(ExcelListener.Phase.WRITE, null, System.nanoTime() - start);
+        listener.bytesWritten(counting.getCount());
+        listener.tempFileBytes(workbook.getTempFileBytes());
     }
 
     @Override
@@ -95,9 +245,128 @@ public class BigExcelLineWriter implements IOutput, AutoCloseable {
         IOutput.super.writeTo(path + suffix);
     }
 
+    /**
+     * Close the writer, the sheet writer threads of the concurrent mode are stopped (the queued rows are discarded)
+     * and waited before the workbook disposed.
+     *
+     * @throws Exception if close failed
+     */
     @Override
     public void close() throws Exception {
+        for (SheetPipeline pipeline : sheetPipelines.values()) {
+            pipeline.close();
+        }
         workbook.close();
         workbook.dispose();
     }
+
+    /**
+     * Written cells and rows time of the sheet.
+     */
+    private static final class SheetCounter {
+        private final LongAdder cells = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+    }
+
+    /**
+     * Sheet writer thread of the concurrent mode.
+     */
+    private final class SheetPipeline implements Runnable {
+        private final Collection<Object> end = new ArrayList<>(0);
+        private final Sheet sheet;
+        private final BlockingQueue<Collection<Object>> queue;
+        private final Thread thread;
+        private volatile boolean finished = false;
+        private volatile boolean closed = false;
+        private volatile Throwable failure;
+
+        SheetPipeline(Sheet sheet) {
+            this.sheet = sheet;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = threadFactory.newThread(this);
+            this.thread.setName("excel-sheet-" + sheet.getSheetName());
+        }
+
+        void put(Collection<Object> rowData) {
+            if (finished) {
+                throw new IllegalStateException("sheet '" + sheet.getSheetName() + "' is finished.");
+            }
+            checkFailure();
+            try {
+                // the queue is not drained after closed, so the blocked producers check it
+                while (!queue.offer(rowData, 100, TimeUnit.MILLISECONDS)) {
+                    if (closed) {
+                        throw new IllegalStateException("writer is closed, sheet '" + sheet.getSheetName() + "' is not writable.");
+                    }
+                    checkFailure();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while writing row into sheet '" + sheet.getSheetName() + "'.", e);
+            }
+        }
+
+        void finish() throws IOException {
+            if (!finished) {
+                finished = true;
+                try {
+                    queue.put(end);
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("interrupted while finishing sheet '" + sheet.getSheetName() + "'.");
+                }
+            }
+            checkFailure();
+        }
+
+        /**
+         * Stop the thread and wait until it is stopped, the current row is completed.
+         */
+        void close() {
+            closed = true;
+            finished = true;
+            thread.interrupt();
+            boolean interrupted = false;
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    // the workbook must not be disposed while the sheet is written
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void checkFailure() {
+            if (failure != null) {
+                throw new IllegalStateException("write sheet '" + sheet.getSheetName() + "' failed.", failure);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed) {
+                    Collection<Object> rowData = queue.take();
+                    if (rowData == end) {
+                        return;
+                    }
+                    // keep draining after failed, the producers are not blocked
+                    if (failure == null) {
+                        try {
+                            writeSheetRow(sheet, rowData);
+                        } catch (Throwable e) {
+                            failure = e;
+                        }
+                    }
+                }
+            } catch (InterruptedException ignored) {
+                // writer closed
+            }
+        }
+    }
 }
@@ -0,0 +1,20 @@
+package com.github.chengyuxing.excel.io;
+
+/**
+ * Cell value converter of the typed cells writing.
+ *
+ * @param <T> value type
+ * @see CellValues
+ */
+@FunctionalInterface
+public interface CellConverter<T> {
+    /**
+     * Convert the value to the cell value.
+     *
+     * @param value not null value
+     * @return {@link String}, {@link Number}, {@link Boolean}, {@link java.util.Date},
+     * {@link java.time.LocalDate}, {@link java.time.LocalDateTime},
+     * or null for blank cell, the other values are written by {@code toString()}
+     */
+    Object convert(T value);
+}
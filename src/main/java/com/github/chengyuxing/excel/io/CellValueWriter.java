@@ -0,0 +1,85 @@
+package com.github.chengyuxing.excel.io;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * Typed cell values writer of the workbook, the date styles are created once (under the workbook lock)
+ * and shared by all date cells, the sheets could be written by different threads.
+ */
+final class CellValueWriter {
+    static final String DATE_FORMAT = "yyyy-mm-dd";
+    static final String DATE_TIME_FORMAT = "yyyy-mm-dd hh:mm:ss";
+
+    private final Workbook workbook;
+    private volatile CellStyle dateStyle;
+    private volatile CellStyle dateTimeStyle;
+
+    CellValueWriter(Workbook workbook) {
+        this.workbook = workbook;
+    }
+
+    /**
+     * Set the converted cell value.
+     *
+     * @param cell  cell
+     * @param value not null value converted by {@link CellValues}
+     */
+    void setCellValue(Cell cell, Object value) {
+        if (value instanceof String) {
+            cell.setCellValue((String) value);
+        } else if (value instanceof Number) {
+            cell.setCellValue(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            cell.setCellValue((Boolean) value);
+        } else if (value instanceof LocalDateTime) {
+            cell.setCellValue((LocalDateTime) value);
+            cell.setCellStyle(dateTimeStyle());
+        } else if (value instanceof LocalDate) {
+            cell.setCellValue((LocalDate) value);
+            cell.setCellStyle(dateStyle());
+        } else if (value instanceof Date) {
+            cell.setCellValue((Date) value);
+            cell.setCellStyle(dateTimeStyle());
+        } else {
+            cell.setCellValue(value.toString());
+        }
+    }
+
+    private CellStyle dateStyle() {
+        CellStyle style = dateStyle;
+        if (style == null) {
+            synchronized (workbook) {
+                if (dateStyle == null) {
+                    dateStyle = createStyle(DATE_FORMAT);
+                }
+                style = dateStyle;
+            }
+        }
+        return style;
+    }
+
+    private CellStyle dateTimeStyle() {
+        CellStyle style = dateTimeStyle;
+        if (style == null) {
+            synchronized (workbook) {
+                if (dateTimeStyle == null) {
+                    dateTimeStyle = createStyle(DATE_TIME_FORMAT);
+                }
+                style = dateTimeStyle;
+            }
+        }
+        return style;
+    }
+
+    private CellStyle createStyle(String format) {
+        CellStyle style = workbook.createCellStyle();
+        style.setDataFormat(workbook.createDataFormat().getFormat(format));
+        return style;
+    }
+}
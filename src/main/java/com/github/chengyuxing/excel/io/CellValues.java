@@ -0,0 +1,157 @@
+package com.github.chengyuxing.excel.io;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Typed cells writing converters, the numbers, booleans and dates are written as the typed cells
+ * instead of the strings: {@link Number}, {@link Boolean}, {@link Date}, {@link Calendar},
+ * {@link LocalDate}, {@link LocalDateTime}, {@link Instant}, {@link ZonedDateTime}, {@link OffsetDateTime}
+ * (the {@link Long}, {@link AtomicLong}, {@link BigDecimal} and {@link BigInteger} with more than 15 significant digits
+ * are written as strings, because excel numbers are doubles), the other values are written by {@code toString()}.<br>
+ * The converter of the value class is resolved by the class hierarchy (the registered converters first)
+ * once per column and reused while the values class of the column not changed.
+ */
+public final class CellValues {
+    private static final int MAX_DIGITS = 15;
+    // 10^15, the integral numbers less than it have at most 15 digits
+    private static final long MAX_INTEGRAL = 1_000_000_000_000_000L;
+    private static final CellConverter<Object> TO_STRING = Object::toString;
+    private static final CellConverter<Object> IDENTITY = v -> v;
+
+    private final Map<Class<?>, CellConverter<Object>> converters = new HashMap<>();
+    private final Map<Class<?>, CellConverter<Object>> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a CellValues with the default converters.
+     */
+    public CellValues() {
+        register(String.class, IDENTITY);
+        register(Boolean.class, IDENTITY);
+        register(Number.class, IDENTITY);
+        register(Float.class, v -> Double.parseDouble(v.toString()));
+        register(Long.class, CellValues::integral);
+        register(AtomicLong.class, v -> integral(v.get()));
+        register(BigDecimal.class, CellValues::decimal);
+        register(BigInteger.class, v -> decimal(new BigDecimal(v)));
+        register(Date.class, IDENTITY);
+        register(Calendar.class, Calendar::getTime);
+        register(LocalDate.class, IDENTITY);
+        register(LocalDateTime.class, IDENTITY);
+        register(Instant.class, v -> LocalDateTime.ofInstant(v, ZoneId.systemDefault()));
+        register(ZonedDateTime.class, ZonedDateTime::toLocalDateTime);
+        register(OffsetDateTime.class, OffsetDateTime::toLocalDateTime);
+    }
+
+    /**
+     * Register a converter of the class and its subclasses.
+     *
+     * @param type      value class
+     * @param converter converter
+     * @param <T>       value type
+     * @return CellValues
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CellValues register(Class<T> type, CellConverter<? super T> converter) {
+        converters.put(type, (CellConverter<Object>) converter);
+        resolved.clear();
+        return this;
+    }
+
+    /**
+     * Convert the value to the cell value by the resolved converter.
+     *
+     * @param value value
+     * @return cell value or null
+     */
+    public Object convert(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return converterOf(value.getClass()).convert(value);
+    }
+
+    CellConverter<Object> converterOf(Class<?> type) {
+        return resolved.computeIfAbsent(type, this::resolve);
+    }
+
+    private CellConverter<Object> resolve(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            CellConverter<Object> converter = converters.get(c);
+            if (converter != null) {
+                return converter;
+            }
+        }
+        Deque<Class<?>> interfaces = new ArrayDeque<>();
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            interfaces.addAll(Arrays.asList(c.getInterfaces()));
+        }
+        while (!interfaces.isEmpty()) {
+            Class<?> i = interfaces.poll();
+            CellConverter<Object> converter = converters.get(i);
+            if (converter != null) {
+                return converter;
+            }
+            interfaces.addAll(Arrays.asList(i.getInterfaces()));
+        }
+        return TO_STRING;
+    }
+
+    private static Object integral(long value) {
+        if (value > -MAX_INTEGRAL && value < MAX_INTEGRAL) {
+            return value;
+        }
+        return Long.toString(value);
+    }
+
+    private static Object decimal(BigDecimal value) {
+        if (value.precision() <= MAX_DIGITS || value.stripTrailingZeros().precision() <= MAX_DIGITS) {
+            return value.doubleValue();
+        }
+        return value.toPlainString();
+    }
+
+    /**
+     * Creates the converters cache of the sheet columns.
+     *
+     * @return columns converters
+     */
+    Columns columns() {
+        return new Columns(this);
+    }
+
+    /**
+     * Converters of the sheet columns, the converter of each column is resolved again only if the value class changed.
+     */
+    static final class Columns {
+        private final CellValues values;
+        private Class<?>[] types = new Class<?>[16];
+        private Object[] converters = new Object[16];
+
+        Columns(CellValues values) {
+            this.values = values;
+        }
+
+        @SuppressWarnings("unchecked")
+        Object convert(int column, Object value) {
+            if (value == null) {
+                return null;
+            }
+            if (column >= types.length) {
+                int size = Math.max(column + 1, types.length * 2);
+                types = Arrays.copyOf(types, size);
+                converters = Arrays.copyOf(converters, size);
+            }
+            Class<?> type = value.getClass();
+            if (types[column] != type) {
+                converters[column] = values.converterOf(type);
+                types[column] = type;
+            }
+            return ((CellConverter<Object>) converters[column]).convert(value);
+        }
+    }
+}
@@ -0,0 +1,454 @@
+package com.github.chengyuxing.excel.io;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Columnar batch of the sheet rows, each column is a primitive vector
+ * ({@code long[]}, {@code double[]}, {@code boolean[]}) or a dictionary encoded string vector ({@code int[]} codes).<br>
+ * The column types are inferred from the first batch:
+ * <ul>
+ *     <li>integral numbers: {@link Type#LONG}</li>
+ *     <li>numbers: {@link Type#DOUBLE}</li>
+ *     <li>date formatted numbers: {@link Type#DATE} (epoch millis in {@code long[]})</li>
+ *     <li>booleans: {@link Type#BOOLEAN}</li>
+ *     <li>others (strings, mixed types or all blank): {@link Type#STRING}, the dates of the column are
+ *     ISO local date time texts (e.g. {@code 2024-01-01T08:30})</li>
+ * </ul>
+ * If a value of the next batches does not fit the column type, the column is widened
+ * ({@link Type#LONG} to {@link Type#DOUBLE}, the others to {@link Type#STRING}) from the batch
+ * which contains the value, the column type is never narrowed, so check the type per batch.<br>
+ * Notice: the same batch instance and vectors are refilled by the next batch, copy out the values to keep.
+ */
+public final class ColumnBatch {
+    /**
+     * Column vector type.
+     */
+    public enum Type {
+        LONG,
+        DOUBLE,
+        DATE,
+        BOOLEAN,
+        STRING
+    }
+
+    private final String[] names;
+    private final int capacity;
+    private Type[] types;
+    private long[][] longs;
+    private double[][] doubles;
+    private boolean[][] booleans;
+    private int[][] codes;
+    private boolean[][] nulls;
+    private Dictionary[] dictionaries;
+    private int size = 0;
+
+    ColumnBatch(String[] names, int capacity) {
+        this.names = names;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Fill the batch with the next rows of view.
+     *
+     * @param view row view
+     * @return false if there is no more row
+     */
+    boolean fill(RowView view) {
+        if (types == null) {
+            return fillFirst(view);
+        }
+        size = 0;
+        while (size < capacity && view.next()) {
+            for (int col = 0; col < names.length; col++) {
+                put(view, col);
+            }
+            size++;
+        }
+        return size > 0;
+    }
+
+    private void put(RowView view, int col) {
+        Type type = types[col];
+        if (view.isBlank(col)) {
+            nulls[col][size] = true;
+            switch (type) {
+                case LONG:
+                case DATE:
+                    longs[col][size] = 0;
+                    break;
+                case DOUBLE:
+                    doubles[col][size] = 0;
+                    break;
+                case BOOLEAN:
+                    booleans[col][size] = false;
+                    break;
+                default:
+                    codes[col][size] = -1;
+                    break;
+            }
+            return;
+        }
+        nulls[col][size] = false;
+        if (type != Type.STRING) {
+            CellType cellType = view.getCellType(col);
+            boolean fit = type == Type.BOOLEAN
+                    ? cellType == CellType.BOOLEAN
+                    : cellType == CellType.NUMERIC && view.isDate(col) == (type == Type.DATE);
+            if (!fit) {
+                type = widen(col, Type.STRING);
+            } else if (type == Type.LONG) {
+                double d = view.getDouble(col);
+                if (isLong(d)) {
+                    longs[col][size] = (long) d;
+                    return;
+                }
+                widen(col, Type.DOUBLE);
+                doubles[col][size] = d;
+                return;
+            }
+        }
+        switch (type) {
+            case DOUBLE:
+                doubles[col][size] = view.getDouble(col);
+                break;
+            case DATE:
+                longs[col][size] = view.getDate(col).getTime();
+                break;
+            case BOOLEAN:
+                booleans[col][size] = view.getBoolean(col);
+                break;
+            default:
+                codes[col][size] = dictionaries[col].encode(text(view, col));
+                break;
+        }
+    }
+
+    /**
+     * String of the cell, the date is formatted as the date values of the batches, so the equal cells have the same code.
+     */
+    private static String text(RowView view, int col) {
+        if (view.getCellType(col) == CellType.NUMERIC && view.isDate(col)) {
+            return dateText(view.getDate(col).getTime());
+        }
+        return view.getString(col);
+    }
+
+    private static String dateText(long time) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault()).toString();
+    }
+
+    /**
+     * Widen the column type, the values of the current batch before the current row are converted.
+     *
+     * @param col  column index
+     * @param type {@link Type#DOUBLE} (from {@link Type#LONG}) or {@link Type#STRING}
+     * @return the new type
+     */
+    private Type widen(int col, Type type) {
+        Type from = types[col];
+        if (type == Type.DOUBLE) {
+            double[] vector = new double[capacity];
+            for (int i = 0; i < size; i++) {
+                vector[i] = longs[col][i];
+            }
+            doubles[col] = vector;
+        } else {
+            int[] vector = new int[capacity];
+            Dictionary dictionary = new Dictionary();
+            for (int i = 0; i < size; i++) {
+                vector[i] = nulls[col][i] ? -1 : dictionary.encode(text(col, i, from));
+            }
+            codes[col] = vector;
+            dictionaries[col] = dictionary;
+            doubles[col] = null;
+            booleans[col] = null;
+        }
+        longs[col] = null;
+        types[col] = type;
+        return type;
+    }
+
+    private String text(int col, int row, Type type) {
+        switch (type) {
+            case LONG:
+                return RowView.toText(longs[col][row]);
+            case DOUBLE:
+                return RowView.toText(doubles[col][row]);
+            case DATE:
+                return dateText(longs[col][row]);
+            default:
+                return String.valueOf(booleans[col][row]);
+        }
+    }
+
+    /**
+     * Buffer the first batch values to infer the column types, then fill the vectors.
+     *
+     * @param view row view
+     * @return false if there is no row
+     */
+    private boolean fillFirst(RowView view) {
+        int columnCount = names.length;
+        List<Object[]> rows = new ArrayList<>();
+        while (rows.size() < capacity && view.next()) {
+            Object[] values = new Object[columnCount];
+            for (int col = 0; col < columnCount; col++) {
+                if (view.isBlank(col)) {
+                    continue;
+                }
+                CellType type = view.getCellType(col);
+                if (type == CellType.NUMERIC) {
+                    values[col] = view.isDate(col) ? view.getDate(col) : (Object) view.getDouble(col);
+                } else if (type == CellType.BOOLEAN) {
+                    values[col] = view.getBoolean(col);
+                } else {
+                    values[col] = view.getString(col);
+                }
+            }
+            rows.add(values);
+        }
+        types = new Type[columnCount];
+        longs = new long[columnCount][];
+        doubles = new double[columnCount][];
+        booleans = new boolean[columnCount][];
+        codes = new int[columnCount][];
+        nulls = new boolean[columnCount][capacity];
+        dictionaries = new Dictionary[columnCount];
+        for (int col = 0; col < columnCount; col++) {
+            types[col] = infer(rows, col);
+            switch (types[col]) {
+                case LONG:
+                case DATE:
+                    longs[col] = new long[capacity];
+                    break;
+                case DOUBLE:
+                    doubles[col] = new double[capacity];
+                    break;
+                case BOOLEAN:
+                    booleans[col] = new boolean[capacity];
+                    break;
+                default:
+                    codes[col] = new int[capacity];
+                    dictionaries[col] = new Dictionary();
+                    break;
+            }
+        }
+        for (size = 0; size < rows.size(); size++) {
+            Object[] values = rows.get(size);
+            for (int col = 0; col < columnCount; col++) {
+                Object value = values[col];
+                nulls[col][size] = value == null;
+                if (value == null) {
+                    if (types[col] == Type.STRING) {
+                        codes[col][size] = -1;
+                    }
+                    continue;
+                }
+                switch (types[col]) {
+                    case LONG:
+                        longs[col][size] = ((Double) value).longValue();
+                        break;
+                    case DOUBLE:
+                        doubles[col][size] = (Double) value;
+                        break;
+                    case DATE:
+                        longs[col][size] = ((Date) value).getTime();
+                        break;
+                    case BOOLEAN:
+                        booleans[col][size] = (Boolean) value;
+                        break;
+                    default:
+                        codes[col][size] = dictionaries[col].encode(toString(value));
+                        break;
+                }
+            }
+        }
+        return size > 0;
+    }
+
+    private static Type infer(List<Object[]> rows, int col) {
+        Type type = null;
+        for (Object[] values : rows) {
+            Object value = values[col];
+            Type t;
+            if (value == null) {
+                continue;
+            } else if (value instanceof Double) {
+                double d = (Double) value;
+                t = isLong(d) ? Type.LONG : Type.DOUBLE;
+            } else if (value instanceof Date) {
+                t = Type.DATE;
+            } else if (value instanceof Boolean) {
+                t = Type.BOOLEAN;
+            } else {
+                return Type.STRING;
+            }
+            if (type == null || (type == Type.LONG && t == Type.DOUBLE)) {
+                type = t;
+            } else if (type != t && !(type == Type.DOUBLE && t == Type.LONG)) {
+                return Type.STRING;
+            }
+        }
+        return type == null ? Type.STRING : type;
+    }
+
+    private static boolean isLong(double d) {
+        return d == Math.rint(d) && Math.abs(d) < 0x1p53;
+    }
+
+    private static String toString(Object value) {
+        if (value instanceof Double) {
+            return RowView.toText((Double) value);
+        }
+        if (value instanceof Date) {
+            return dateText(((Date) value).getTime());
+        }
+        return value.toString();
+    }
+
+    /**
+     * Rows count of the batch.
+     *
+     * @return rows count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Columns count.
+     *
+     * @return columns count
+     */
+    public int getColumnCount() {
+        return names.length;
+    }
+
+    /**
+     * Column name.
+     *
+     * @param col column index
+     * @return column name
+     */
+    public String getName(int col) {
+        return names[col];
+    }
+
+    /**
+     * Column vector type.
+     *
+     * @param col column index
+     * @return column type
+     */
+    public Type getType(int col) {
+        return types[col];
+    }
+
+    /**
+     * Check the value is null (blank cell).
+     *
+     * @param col column index
+     * @param row row index of the batch
+     * @return true if null
+     */
+    public boolean isNull(int col, int row) {
+        return nulls[col][row];
+    }
+
+    /**
+     * Long vector of {@link Type#LONG} or {@link Type#DATE} (epoch millis) column, only the first {@link #size()} items are valid.
+     *
+     * @param col column index
+     * @return long vector
+     */
+    public long[] getLongs(int col) {
+        return vector(longs, col, "long");
+    }
+
+    /**
+     * Double vector of {@link Type#DOUBLE} column, only the first {@link #size()} items are valid.
+     *
+     * @param col column index
+     * @return double vector
+     */
+    public double[] getDoubles(int col) {
+        return vector(doubles, col, "double");
+    }
+
+    /**
+     * Boolean vector of {@link Type#BOOLEAN} column, only the first {@link #size()} items are valid.
+     *
+     * @param col column index
+     * @return boolean vector
+     */
+    public boolean[] getBooleans(int col) {
+        return vector(booleans, col, "boolean");
+    }
+
+    /**
+     * Dictionary codes vector of {@link Type#STRING} column, only the first {@link #size()} items are valid,
+     * null value is {@code -1}.
+     *
+     * @param col column index
+     * @return codes vector
+     * @see #getDictionary(int)
+     */
+    public int[] getCodes(int col) {
+        return vector(codes, col, "string");
+    }
+
+    /**
+     * Dictionary of {@link Type#STRING} column, the codes are stable for all batches since the column is
+     * {@link Type#STRING} (the dictionary is created while the column is widened).
+     *
+     * @param col column index
+     * @return dictionary (code -&gt; string)
+     */
+    public List<String> getDictionary(int col) {
+        vector(codes, col, "string");
+        return Collections.unmodifiableList(dictionaries[col].items);
+    }
+
+    /**
+     * Get string value of {@link Type#STRING} column.
+     *
+     * @param col column index
+     * @param row row index of the batch
+     * @return string or null
+     */
+    public String getString(int col, int row) {
+        int code = getCodes(col)[row];
+        return code == -1 ? null : dictionaries[col].items.get(code);
+    }
+
+    private <V> V vector(V[] vectors, int col, String type) {
+        V vector = vectors[col];
+        if (vector == null) {
+            throw new IllegalStateException("column '" + names[col] + "' is " + types[col] + ", not a " + type + " vector.");
+        }
+        return vector;
+    }
+
+    /**
+     * String dictionary of a column.
+     */
+    private static final class Dictionary {
+        final Map<String, Integer> codes = new HashMap<>();
+        final List<String> items = new ArrayList<>();
+
+        int encode(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = items.size();
+                codes.put(value, code);
+                items.add(value);
+            }
+            return code;
+        }
+    }
+}
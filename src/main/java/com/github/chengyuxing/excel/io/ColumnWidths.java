@@ -0,0 +1,136 @@
+package com.github.chengyuxing.excel.io;
+
+import org.apache.poi.ss.usermodel.Sheet;
+
+import java.time.LocalDate;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Approximate column widths tracked while the cells are written, the widths are measured by characters
+ * (the CJK and full-width characters are counted as 2) instead of the font metrics,
+ * so the widths could be set in O(columns) at the end.
+ */
+final class ColumnWidths {
+    // excel max column width is 255 characters
+    private static final int MAX_CHARS = 255;
+    private static final int PADDING = 2;
+    // General format shows at most 11 characters of the numbers
+    private static final int MAX_NUMBER_CHARS = 11;
+
+    private int[] chars = new int[16];
+    private int columnCount = 0;
+
+    /**
+     * Track the written cell value.
+     *
+     * @param column column index
+     * @param value  cell value
+     */
+    void track(int column, Object value) {
+        if (value == null) {
+            return;
+        }
+        int width = Math.min(width(value), MAX_CHARS);
+        if (column >= chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(column + 1, chars.length * 2));
+        }
+        if (width > chars[column]) {
+            chars[column] = width;
+        }
+        if (column >= columnCount) {
+            columnCount = column + 1;
+        }
+    }
+
+    /**
+     * Set the tracked widths to sheet.
+     *
+     * @param sheet sheet
+     */
+    void apply(Sheet sheet) {
+        for (int i = 0; i < columnCount; i++) {
+            if (chars[i] > 0) {
+                sheet.setColumnWidth(i, Math.min(chars[i] + PADDING, MAX_CHARS) * 256);
+            }
+        }
+    }
+
+    static int width(Object value) {
+        if (value instanceof String) {
+            return width((String) value);
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return digits(((Number) value).longValue());
+        }
+        if (value instanceof Number) {
+            double d = ((Number) value).doubleValue();
+            if (d == Math.rint(d) && Math.abs(d) < 1e11) {
+                return digits((long) d);
+            }
+            return Math.min(Double.toString(d).length(), MAX_NUMBER_CHARS);
+        }
+        if (value instanceof Boolean) {
+            return 5;
+        }
+        if (value instanceof LocalDate) {
+            return CellValueWriter.DATE_FORMAT.length();
+        }
+        if (value instanceof Date || value instanceof TemporalAccessor) {
+            return CellValueWriter.DATE_TIME_FORMAT.length();
+        }
+        return width(value.toString());
+    }
+
+    /**
+     * Width of the longest line.
+     *
+     * @param s string
+     * @return characters width
+     */
+    static int width(String s) {
+        int max = 0;
+        int width = 0;
+        for (int i = 0, j = s.length(); i < j; i++) {
+            char c = s.charAt(i);
+            if (c == '\n') {
+                max = Math.max(max, width);
+                width = 0;
+            } else {
+                width += width(c);
+            }
+        }
+        return Math.max(max, width);
+    }
+
+    private static int width(char c) {
+        if (c < 0x1100) {
+            return 1;
+        }
+        if (Character.isLowSurrogate(c)) {
+            return 0;
+        }
+        if (Character.isHighSurrogate(c)
+                || c <= 0x115F
+                || (c >= 0x2E80 && c <= 0xA4CF)
+                || (c >= 0xAC00 && c <= 0xD7A3)
+                || (c >= 0xF900 && c <= 0xFAFF)
+                || (c >= 0xFE30 && c <= 0xFE4F)
+                || (c >= 0xFF00 && c <= 0xFF60)
+                || (c >= 0xFFE0 && c <= 0xFFE6)) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private static int digits(long value) {
+        int n = value < 0 ? 2 : 1;
+        long v = Math.abs(value);
+        while (v >= 10) {
+            v /= 10;
+            n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,444 @@
+package com.github.chengyuxing.excel.io;
+
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.common.UncheckedCloseable;
+import com.github.chengyuxing.excel.type.SheetInfo;
+import org.apache.poi.ss.usermodel.CellType;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * CSV/TSV file reader, the file is read as a single sheet by the same header, fields and rows settings with {@link ExcelReader},
+ * the records are tokenized from the file channel by a direct buffer, only the current record is kept.<br>
+ * All values are strings (the empty fields are empty strings), the empty lines are skipped,
+ * the date properties of {@link #stream(Class)} are parsed from the ISO dates ({@code yyyy-MM-dd})
+ * and date times ({@code yyyy-MM-dd HH:mm:ss} or {@code yyyy-MM-ddTHH:mm:ss}).<br>
+ * Notice: the csv input stream could be read only once, and the rows count of it is unknown.
+ */
+public class CsvReader extends ExcelReader {
+    static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+    private final Path path;
+    private InputStream inputStream;
+    private char delimiter = ',';
+    private Charset charset = StandardCharsets.UTF_8;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    /**
+     * Constructs a CsvReader with File.
+     *
+     * @param file csv file
+     */
+    public CsvReader(File file) {
+        this(file.toPath());
+    }
+
+    /**
+     * Constructs a CsvReader with Path.
+     *
+     * @param path csv file path
+     */
+    public CsvReader(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Constructs a CsvReader with InputStream.
+     *
+     * @param inputStream csv inputStream
+     */
+    public CsvReader(InputStream inputStream) {
+        this.path = null;
+        this.inputStream = inputStream;
+    }
+
+    /**
+     * Specify the fields delimiter, default {@code ,} (use {@code \t} for tsv).
+     *
+     * @param delimiter ASCII delimiter
+     * @return CsvReader
+     */
+    public CsvReader delimiter(char delimiter) {
+        this.delimiter = checkDelimiter(delimiter);
+        return this;
+    }
+
+    /**
+     * Specify the file charset, default UTF-8 (the BOM is skipped).
+     *
+     * @param charset ASCII compatible charset (e.g. UTF-8, GBK)
+     * @return CsvReader
+     */
+    public CsvReader charset(Charset charset) {
+        this.charset = checkCharset(charset);
+        return this;
+    }
+
+    /**
+     * Specify the direct read buffer size, default 1MB.
+     *
+     * @param bufferSize buffer size in bytes
+     * @return CsvReader
+     */
+    public CsvReader bufferSize(int bufferSize) {
+        if (bufferSize < 1024) {
+            throw new IllegalArgumentException("buffer size must not be less than 1024.");
+        }
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if sheet index is not 0
+     */
+    @Override
+    public CsvReader sheetAt(int sheetIndex) {
+        checkSheetIndex(sheetIndex);
+        super.sheetAt(sheetIndex);
+        return this;
+    }
+
+    /**
+     * Csv file has no formulas, the mode is ignored, so the reader could be used as the other readers.
+     *
+     * @param mode formula mode
+     * @return CsvReader
+     */
+    @Override
+    public CsvReader formulas(FormulaMode mode) {
+        return this;
+    }
+
+    /**
+     * Csv values are strings, there is no date formatted cell to convert, the mode is ignored,
+     * so the reader could be used as the other readers.
+     *
+     * @param mode date mode
+     * @return CsvReader
+     */
+    @Override
+    public CsvReader dates(DateMode mode) {
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}<br>
+     * The size of the csv input stream is {@code -1} (unknown), the input stream could be read only once.
+     */
+    @Override
+    public @Unmodifiable List<SheetInfo> getSheets() {
+        if (path == null) {
+            return Collections.singletonList(SheetInfo.of(0, sheetName(0), -1));
+        }
+        int size = 0;
+        try (CsvTokenizer tokenizer = openTokenizer()) {
+            while (tokenizer.skip()) {
+                size++;
+            }
+            bytesRead.add(tokenizer.getBytesRead());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (size == 0) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(SheetInfo.of(0, sheetName(0), size));
+    }
+
+    @Override
+    protected Stream<DataRow> readSheet(int sheetIndex) {
+        checkSheetIndex(sheetIndex);
+        // the file is opened while the first row is requested
+        class LazyRows extends Spliterators.AbstractSpliterator<DataRow> implements AutoCloseable {
+            CsvRows rows;
+
+            LazyRows() {
+                super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super DataRow> action) {
+                if (rows == null) {
+                    rows = new CsvRows();
+                }
+                if (!rows.next()) {
+                    return false;
+                }
+                action.accept(rows.toDataRow());
+                return true;
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (rows != null) {
+                    rows.close();
+                }
+            }
+        }
+        LazyRows spliterator = new LazyRows();
+        return StreamSupport.stream(spliterator, false).onClose(UncheckedCloseable.wrap(spliterator));
+    }
+
+    @Override
+    RowView openRows(int sheetIndex) {
+        checkSheetIndex(sheetIndex);
+        return new CsvRows();
+    }
+
+    @Override
+    protected void closeWorkbook() throws IOException {
+        // the unread input stream
+        if (inputStream != null) {
+            inputStream.close();
+        }
+    }
+
+    private CsvTokenizer openTokenizer() throws IOException {
+        ReadableByteChannel channel;
+        if (path != null) {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } else {
+            if (inputStream == null) {
+                throw new IllegalStateException("csv input stream has been read.");
+            }
+            channel = Channels.newChannel(inputStream);
+            inputStream = null;
+        }
+        return new CsvTokenizer(channel, bufferSize, delimiter, charset);
+    }
+
+    @Override
+    protected String sheetName(int sheetIndex) {
+        checkSheetIndex(sheetIndex);
+        if (path == null) {
+            return "csv";
+        }
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private static void checkSheetIndex(int sheetIndex) {
+        if (sheetIndex != 0) {
+            throw new IllegalArgumentException("csv file has only one sheet, invalid sheet index: " + sheetIndex + ".");
+        }
+    }
+
+    static char checkDelimiter(char delimiter) {
+        if (delimiter >= 0x80 || delimiter == '"' || delimiter == '\r' || delimiter == '\n') {
+            throw new IllegalArgumentException("invalid csv delimiter: '" + delimiter + "'.");
+        }
+        return delimiter;
+    }
+
+    static Charset checkCharset(Charset charset) {
+        byte[] ascii = "\",\t\r\n".getBytes(charset);
+        if (!Arrays.equals(ascii, "\",\t\r\n".getBytes(StandardCharsets.US_ASCII))) {
+            throw new IllegalArgumentException("csv charset must be ASCII compatible: " + charset + ".");
+        }
+        return charset;
+    }
+
+    /**
+     * Csv records view, the records before range are skipped without keeping the fields.
+     */
+    private final class CsvRows extends RowView {
+        private final CsvTokenizer tokenizer;
+        private final String[] names;
+        private final int[] columns;
+        private final int from = rowFrom;
+        private final int to = rowTo;
+        private boolean pending;
+        private int index = 0;
+
+        CsvRows() {
+            try {
+                this.tokenizer = openTokenizer();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            try {
+                // skip the no-need rows
+                int skip = headerIndex;
+                while (skip > 0) {
+                    if (tokenizer.skip()) {
+                        skip--;
+                    } else {
+                        break;
+                    }
+                }
+                boolean isCustomFieldMap = fields != null;
+                // if fields customized, skip the default csv header row.
+                if (isCustomFieldMap) {
+                    if (skip >= 0) {
+                        tokenizer.skip();
+                    }
+                }
+                if (!tokenizer.next()) {
+                    this.names = new String[0];
+                    this.columns = null;
+                    return;
+                }
+                String[] names = isCustomFieldMap ? fields : createDataHeader(tokenizer);
+                this.columns = selectColumns(names);
+                if (columns != null) {
+                    names = selectNames(names, columns);
+                }
+                this.names = names;
+                this.pending = true;
+            } catch (IOException | RuntimeException e) {
+                try {
+                    tokenizer.close();
+                } catch (IOException ex) {
+                    e.addSuppressed(ex);
+                }
+                if (e instanceof IOException) {
+                    throw new UncheckedIOException((IOException) e);
+                }
+                throw (RuntimeException) e;
+            }
+        }
+
+        private String[] createDataHeader(CsvTokenizer tokenizer) {
+            String[] columns = new String[tokenizer.getFieldCount()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = tokenizer.getString(i);
+            }
+            return CsvReader.this.createDataHeader(columns);
+        }
+
+        @Override
+        public String[] names() {
+            return names;
+        }
+
+        @Override
+        boolean next() {
+            if (index >= to) {
+                return false;
+            }
+            try {
+                if (pending) {
+                    pending = false;
+                    if (index++ >= from) {
+                        return true;
+                    }
+                }
+                // skip the rows before range without keeping fields
+                while (index < from) {
+                    if (!tokenizer.skip()) {
+                        return false;
+                    }
+                    index++;
+                }
+                if (!tokenizer.next()) {
+                    return false;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            index++;
+            return true;
+        }
+
+        @Override
+        public int getRowNum() {
+            return tokenizer.getRecordNum();
+        }
+
+        private int column(int col) {
+            return columns == null ? col : columns[col];
+        }
+
+        @Override
+        public CellType getCellType(int col) {
+            return tokenizer.isEmpty(column(col)) ? CellType.BLANK : CellType.STRING;
+        }
+
+        @Override
+        public boolean isDate(int col) {
+            return false;
+        }
+
+        @Override
+        public boolean isBlank(int col) {
+            return tokenizer.isEmpty(column(col));
+        }
+
+        @Override
+        public double getDouble(int col) {
+            return parseDouble(getString(col));
+        }
+
+        @Override
+        public boolean getBoolean(int col) {
+            return parseBoolean(getString(col));
+        }
+
+        @Override
+        public String getString(int col) {
+            return tokenizer.getString(column(col));
+        }
+
+        @Override
+        public Date getDate(int col) {
+            LocalDateTime dateTime = getLocalDateTime(col);
+            return dateTime == null ? null : Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+        }
+
+        @Override
+        public LocalDateTime getLocalDateTime(int col) {
+            if (isBlank(col)) {
+                return null;
+            }
+            String value = getString(col).trim();
+            try {
+                if (value.length() == 10) {
+                    return LocalDate.parse(value).atStartOfDay();
+                }
+                if (value.length() > 10 && value.charAt(10) == ' ') {
+                    return LocalDateTime.parse(value.substring(0, 10) + 'T' + value.substring(11));
+                }
+                return LocalDateTime.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new IllegalStateException("cannot parse date value '" + value + "' at row " + (getRowNum() + 1) + ", ISO date or date time expected.", e);
+            }
+        }
+
+        @Override
+        public Object getValue(int col) {
+            return getString(col);
+        }
+
+        DataRow toDataRow() {
+            Object[] values = new Object[names.length];
+            for (int x = 0, y = names.length; x < y; x++) {
+                values[x] = getString(x);
+            }
+            return DataRow.of(names, values);
+        }
+
+        @Override
+        void close() throws IOException {
+            bytesRead.add(tokenizer.getBytesRead());
+            tokenizer.close();
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.github.chengyuxing.excel.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * CSV (RFC 4180) records tokenizer over the bytes channel, the bytes are read into a direct buffer
+ * and tokenized without decoding (the delimiter, quote and line breaks are single bytes of the ASCII compatible charsets),
+ * the unescaped field bytes of the current record are kept in one array and decoded to string on demand.<br>
+ * Notice: the empty lines are skipped, but counted by the record number.
+ */
+final class CsvTokenizer implements Closeable {
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    // field states
+    private static final int START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_IN_QUOTED = 3;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte delimiter;
+    private final Charset charset;
+    private boolean eof = false;
+    private boolean skipLf = false;
+    private boolean bomChecked;
+    private int recordNum = -1;
+    private long bytesRead = 0;
+    // current record fields
+    private byte[] data = new byte[256];
+    private int size = 0;
+    private int[] ends = new int[16];
+    private int count = 0;
+    private String[] strings = new String[16];
+
+    CsvTokenizer(ReadableByteChannel channel, int bufferSize, char delimiter, Charset charset) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.buffer.limit(0);
+        this.delimiter = (byte) delimiter;
+        this.charset = charset;
+        this.bomChecked = !charset.equals(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read the next record.
+     *
+     * @return false if there is no more record
+     * @throws IOException if io error
+     */
+    boolean next() throws IOException {
+        return read(true);
+    }
+
+    /**
+     * Skip the next record without keeping the fields.
+     *
+     * @return false if there is no more record
+     * @throws IOException if io error
+     */
+    boolean skip() throws IOException {
+        return read(false);
+    }
+
+    private boolean read(boolean keep) throws IOException {
+        size = 0;
+        count = 0;
+        int state = START;
+        boolean touched = false;
+        while (true) {
+            if (!buffer.hasRemaining() && !fill()) {
+                if (!touched) {
+                    return false;
+                }
+                endField(keep);
+                recordNum++;
+                return true;
+            }
+            int pos = buffer.position();
+            int limit = buffer.limit();
+            if (skipLf) {
+                skipLf = false;
+                if (buffer.get(pos) == LF) {
+                    pos++;
+                }
+            }
+            while (pos < limit) {
+                byte b = buffer.get(pos++);
+                switch (state) {
+                    case QUOTED:
+                        if (b == QUOTE) {
+                            state = QUOTE_IN_QUOTED;
+                        } else if (keep) {
+                            append(b);
+                        }
+                        continue;
+                    case QUOTE_IN_QUOTED:
+                        if (b == QUOTE) {
+                            // escaped quote
+                            state = QUOTED;
+                            if (keep) {
+                                append(b);
+                            }
+                            continue;
+                        }
+                        // the closing quote, the chars after are kept as is
+                        state = UNQUOTED;
+                        break;
+                    case START:
+                        if (b == QUOTE) {
+                            state = QUOTED;
+                            touched = true;
+                            continue;
+                        }
+                        state = UNQUOTED;
+                        break;
+                    default:
+                        break;
+                }
+                if (b == delimiter) {
+                    endField(keep);
+                    state = START;
+                    touched = true;
+                } else if (b == LF || b == CR) {
+                    if (b == CR) {
+                        if (pos < limit) {
+                            if (buffer.get(pos) == LF) {
+                                pos++;
+                            }
+                        } else {
+                            skipLf = true;
+                        }
+                    }
+                    recordNum++;
+                    if (touched) {
+                        buffer.position(pos);
+                        endField(keep);
+                        return true;
+                    }
+                    // empty line
+                    state = START;
+                } else {
+                    touched = true;
+                    if (keep) {
+                        append(b);
+                    }
+                }
+            }
+            buffer.position(pos);
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        buffer.clear();
+        int n;
+        do {
+            n = channel.read(buffer);
+        } while (n == 0);
+        buffer.flip();
+        if (n < 0) {
+            eof = true;
+            return false;
+        }
+        bytesRead += n;
+        if (!bomChecked) {
+            bomChecked = true;
+            if (buffer.remaining() >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF) {
+                buffer.position(3);
+                return buffer.hasRemaining() || fill();
+            }
+        }
+        return true;
+    }
+
+    private void append(byte b) {
+        if (size == data.length) {
+            data = Arrays.copyOf(data, size * 2);
+        }
+        data[size++] = b;
+    }
+
+    private void endField(boolean keep) {
+        if (!keep) {
+            return;
+        }
+        if (count == ends.length) {
+            ends = Arrays.copyOf(ends, count * 2);
+            strings = Arrays.copyOf(strings, count * 2);
+        }
+        strings[count] = null;
+        ends[count++] = size;
+    }
+
+    /**
+     * Current record number (0-based), the empty lines are counted.
+     *
+     * @return record number
+     */
+    int getRecordNum() {
+        return recordNum;
+    }
+
+    /**
+     * Fields count of the current record.
+     *
+     * @return fields count
+     */
+    int getFieldCount() {
+        return count;
+    }
+
+    /**
+     * Check the field is empty or not exists.
+     *
+     * @param field field index
+     * @return true if empty
+     */
+    boolean isEmpty(int field) {
+        return field >= count || ends[field] == start(field);
+    }
+
+    /**
+     * Get the decoded field value.
+     *
+     * @param field field index
+     * @return field value or empty string if not exists
+     */
+    String getString(int field) {
+        if (field >= count) {
+            return "";
+        }
+        String s = strings[field];
+        if (s == null) {
+            int start = start(field);
+            s = start == ends[field] ? "" : new String(data, start, ends[field] - start, charset);
+            strings[field] = s;
+        }
+        return s;
+    }
+
+    /**
+     * Get the bytes read from the channel.
+     *
+     * @return bytes count
+     */
+    long getBytesRead() {
+        return bytesRead;
+    }
+
+    private int start(int field) {
+        return field == 0 ? 0 : ends[field - 1];
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,298 @@
+package com.github.chengyuxing.excel.io;
+
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.common.io.IOutput;
+import com.github.chengyuxing.excel.type.HeaderPlan;
+import com.github.chengyuxing.excel.type.XCell;
+import com.github.chengyuxing.excel.type.XHeader;
+import com.github.chengyuxing.excel.type.XSheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.*;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * CSV/TSV file writer, the sheet is written by the same header fields mapping with {@link ExcelWriter},
+ * the header rows are written as the leading lines (the merged header cell text is at its first cell),
+ * the data is pulled lazily and encoded into a direct buffer which is flushed to the channel when full.<br>
+ * The fields are quoted only if contain the delimiter, quote or line breaks, the lines are separated by {@code \r\n}.
+ */
+public class CsvWriter implements IOutput {
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    private XSheet xSheet;
+    private char delimiter = ',';
+    private Charset charset = StandardCharsets.UTF_8;
+    private boolean bom = false;
+
+    /**
+     * Specify the fields delimiter, default {@code ,} (use {@code \t} for tsv).
+     *
+     * @param delimiter ASCII delimiter
+     * @return CsvWriter
+     */
+    public CsvWriter delimiter(char delimiter) {
+        this.delimiter = CsvReader.checkDelimiter(delimiter);
+        return this;
+    }
+
+    /**
+     * Specify the file charset, default UTF-8.
+     *
+     * @param charset ASCII compatible charset (e.g. UTF-8, GBK)
+     * @return CsvWriter
+     */
+    public CsvWriter charset(Charset charset) {
+        this.charset = CsvReader.checkCharset(charset);
+        return this;
+    }
+
+    /**
+     * Write the UTF-8 BOM at the beginning, so that Microsoft Excel could detect the charset while open the file.
+     *
+     * @return CsvWriter
+     */
+    public CsvWriter bom() {
+        this.bom = true;
+        return this;
+    }
+
+    /**
+     * Set the sheet ready to save.
+     *
+     * @param xSheet sheet
+     * @return CsvWriter
+     * @throws IllegalStateException if the sheet has been set
+     */
+    public CsvWriter write(XSheet xSheet) {
+        if (this.xSheet != null) {
+            throw new IllegalStateException("csv file contains only one sheet.");
+        }
+        this.xSheet = xSheet;
+        return this;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        writeTo(Channels.newChannel(out));
+    }
+
+    @Override
+    public void writeTo(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeTo(channel);
+        }
+    }
+
+    /**
+     * Write the sheet to the channel, the channel is not closed.
+     *
+     * @param channel channel
+     * @throws IOException if io error
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        if (xSheet == null) {
+            throw new IllegalStateException("there is nothing to write! don't you invoke method write(...) to add sheet data?");
+        }
+        Sink sink = new Sink(channel, charset, delimiter);
+        if (bom && charset.equals(StandardCharsets.UTF_8)) {
+            sink.writeBytes(UTF8_BOM);
+        }
+        XHeader xHeader = xSheet.getXHeader();
+        String emptyColumn = xSheet.getEmptyColumn();
+        Iterator<DataRow> data = xSheet.getDataIterator();
+        DataRow item = data.hasNext() ? data.next() : null;
+        String[] fields = writeHeader(sink, xHeader, item == null ? null : item.names());
+        while (item != null) {
+            for (int j = 0; j < fields.length; j++) {
+                if (j > 0) {
+                    sink.delimiter();
+                }
+                Object value = item.get(fields[j]);
+                if (value == null || value.equals("")) {
+                    sink.field(emptyColumn);
+                } else {
+                    sink.field(value.toString());
+                }
+            }
+            sink.newLine();
+            item = data.hasNext() ? data.next() : null;
+        }
+        sink.flush();
+    }
+
+    /**
+     * Write the header lines and resolve the data fields of the columns.
+     *
+     * @param sink       output
+     * @param xHeader    header
+     * @param dataFields data fields of the first row, null if there is no data
+     * @return data fields of the columns
+     * @throws IOException if io error
+     */
+    protected String[] writeHeader(Sink sink, XHeader xHeader, List<String> dataFields) throws IOException {
+        String[] defaultFields = dataFields == null ? new String[0] : dataFields.toArray(new String[0]);
+        HeaderPlan plan = xHeader.compile();
+        if (plan.isEmpty()) {
+            if (defaultFields.length > 0) {
+                sink.line(defaultFields);
+            }
+            return defaultFields;
+        }
+        // if has no field mapping relation, the data fields line is added
+        plan = plan.bind(Arrays.asList(defaultFields));
+        // header cells texts at the first cell of the cell address
+        String[][] lines = new String[plan.getRowCount()][plan.getColumnCount()];
+        for (XCell xCell : plan.getCells()) {
+            CellRangeAddress address = xCell.getAddress();
+            lines[address.getFirstRow()][address.getFirstColumn()] = xCell.getText();
+        }
+        for (String[] line : lines) {
+            sink.line(line);
+        }
+        return plan.getFields().toArray(new String[0]);
+    }
+
+    /**
+     * Csv text output over the channel.
+     */
+    protected static final class Sink {
+        private static final int BUFFER_SIZE = CsvReader.DEFAULT_BUFFER_SIZE;
+        private final WritableByteChannel channel;
+        private final CharsetEncoder encoder;
+        private final char delimiter;
+        private final CharBuffer chars = CharBuffer.allocate(8192);
+        private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        Sink(WritableByteChannel channel, Charset charset, char delimiter) {
+            this.channel = channel;
+            this.encoder = charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.delimiter = delimiter;
+        }
+
+        /**
+         * Write a line of fields, the null fields are empty.
+         *
+         * @param fields fields
+         * @throws IOException if io error
+         */
+        public void line(String[] fields) throws IOException {
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    delimiter();
+                }
+                if (fields[i] != null) {
+                    field(fields[i]);
+                }
+            }
+            newLine();
+        }
+
+        /**
+         * Write a field, the field is quoted if necessary.
+         *
+         * @param value field value
+         * @throws IOException if io error
+         */
+        public void field(String value) throws IOException {
+            if (!needsQuote(value)) {
+                write(value, 0, value.length());
+                return;
+            }
+            write('"');
+            int start = 0;
+            for (int i = 0, j = value.length(); i < j; i++) {
+                if (value.charAt(i) == '"') {
+                    // escape quote by double quotes
+                    write(value, start, i + 1);
+                    start = i;
+                }
+            }
+            write(value, start, value.length());
+            write('"');
+        }
+
+        private boolean needsQuote(String value) {
+            for (int i = 0, j = value.length(); i < j; i++) {
+                char c = value.charAt(i);
+                if (c == delimiter || c == '"' || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public void delimiter() throws IOException {
+            write(delimiter);
+        }
+
+        public void newLine() throws IOException {
+            write('\r');
+            write('\n');
+        }
+
+        private void write(char c) throws IOException {
+            if (!chars.hasRemaining()) {
+                encode();
+            }
+            chars.put(c);
+        }
+
+        private void write(String s, int start, int end) throws IOException {
+            while (start < end) {
+                if (!chars.hasRemaining()) {
+                    encode();
+                }
+                int n = Math.min(end - start, chars.remaining());
+                chars.put(s, start, start + n);
+                start += n;
+            }
+        }
+
+        void writeBytes(byte[] b) throws IOException {
+            encode();
+            bytes.put(b);
+        }
+
+        private void encode() throws IOException {
+            chars.flip();
+            while (encoder.encode(chars, bytes, false).isOverflow()) {
+                drain();
+            }
+            // keep the unmapped high surrogate for the next chars
+            chars.compact();
+        }
+
+        private void drain() throws IOException {
+            bytes.flip();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            bytes.clear();
+        }
+
+        void flush() throws IOException {
+            chars.flip();
+            while (encoder.encode(chars, bytes, true).isOverflow()) {
+                drain();
+            }
+            while (encoder.flush(bytes).isOverflow()) {
+                drain();
+            }
+            chars.clear();
+            drain();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.chengyuxing.excel.io;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cell number format date detection and date value conversion.
+ */
+final class DateFormats {
+    /**
+     * Not computed yet.
+     */
+    static final byte UNKNOWN = 0;
+    /**
+     * Not a date format.
+     */
+    static final byte NONE = 1;
+    /**
+     * Date format without time part.
+     */
+    static final byte DATE = 2;
+    /**
+     * Date format with time part.
+     */
+    static final byte DATE_TIME = 3;
+
+    private DateFormats() {
+    }
+
+    /**
+     * Classify the number format.
+     *
+     * @param formatIndex  format index
+     * @param formatString format string
+     * @return {@link #NONE}, {@link #DATE} or {@link #DATE_TIME}
+     */
+    static byte classify(int formatIndex, String formatString) {
+        if (!DateUtil.isADateFormat(formatIndex, formatString)) {
+            return NONE;
+        }
+        return hasTime(formatString) ? DATE_TIME : DATE;
+    }
+
+    /**
+     * Check the date format has time part (hours or seconds), the quoted text,
+     * escaped chars and brackets (except elapsed time e.g. {@code [h]}) are ignored.
+     *
+     * @param format date format
+     * @return true if has time part
+     */
+    static boolean hasTime(String format) {
+        if (format == null) {
+            return true;
+        }
+        for (int i = 0, j = format.length(); i < j; i++) {
+            char c = format.charAt(i);
+            switch (c) {
+                case '"':
+                    int end = format.indexOf('"', i + 1);
+                    i = end == -1 ? j : end;
+                    break;
+                case '\\':
+                case '_':
+                case '*':
+                    i++;
+                    break;
+                case '[':
+                    int close = format.indexOf(']', i + 1);
+                    if (close == -1) {
+                        return false;
+                    }
+                    char first = Character.toLowerCase(format.charAt(i + 1));
+                    if (first == 'h' || first == 'm' || first == 's') {
+                        return true;
+                    }
+                    i = close;
+                    break;
+                case 'h':
+                case 'H':
+                case 's':
+                case 'S':
+                    return true;
+                case 'A':
+                case 'a':
+                    if (format.regionMatches(true, i, "am/pm", 0, 5) || format.regionMatches(true, i, "a/p", 0, 3)) {
+                        return true;
+                    }
+                    break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Convert the excel date number to the date value by the date mode.
+     *
+     * @param value    excel date number
+     * @param date1904 the workbook uses 1904 date windowing
+     * @param kind     format kind
+     * @param mode     date mode
+     * @return date value
+     */
+    static Object toDate(double value, boolean date1904, byte kind, DateMode mode) {
+        switch (mode) {
+            case LOCAL_DATE_TIME:
+                return DateUtil.getLocalDateTime(value, date1904);
+            case JAVA_TIME:
+                LocalDateTime dateTime = DateUtil.getLocalDateTime(value, date1904);
+                return kind == DATE ? dateTime.toLocalDate() : dateTime;
+            default:
+                return DateUtil.getJavaDate(value, date1904);
+        }
+    }
+}
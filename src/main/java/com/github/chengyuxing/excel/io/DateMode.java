@@ -0,0 +1,22 @@
+package com.github.chengyuxing.excel.io;
+
+/**
+ * Date formatted numeric cell value conversion mode.
+ *
+ * @see ExcelReader#dates(DateMode)
+ */
+public enum DateMode {
+    /**
+     * Returns {@link java.util.Date}.
+     */
+    DATE,
+    /**
+     * Returns {@link java.time.LocalDateTime}.
+     */
+    LOCAL_DATE_TIME,
+    /**
+     * Returns {@link java.time.LocalDate} if the format has no time part (e.g. {@code yyyy-mm-dd}),
+     * otherwise returns {@link java.time.LocalDateTime}.
+     */
+    JAVA_TIME
+}
@@ -0,0 +1,101 @@
+package com.github.chengyuxing.excel.io;
+
+/**
+ * Read/write operation listener of the readers and writers, all methods are no-op by default,
+ * so the adapter (e.g. to the metrics registry) overrides the needed methods only.<br>
+ * The counters and timings are reported once per sheet (or workbook) instead of per row or cell.<br>
+ * Notice: the listener must be thread-safe if the sheets are read or written concurrently.
+ *
+ * @see ExcelReader#listener(ExcelListener)
+ * @see ExcelWriter#listener(ExcelListener)
+ * @see BigExcelLineWriter#listener(ExcelListener)
+ */
+public interface ExcelListener {
+    /**
+     * No-op listener.
+     */
+    ExcelListener NOOP = new ExcelListener() {
+    };
+
+    /**
+     * Read/write phases.
+     */
+    enum Phase {
+        /**
+         * Open the workbook (or file).
+         */
+        OPEN,
+        /**
+         * Build the sheet header.
+         */
+        HEADER,
+        /**
+         * Read or write the data rows, include the cell values conversion, exclude the {@link #STYLE} phase.
+         */
+        ROWS,
+        /**
+         * Apply the style rules and cell attributes of the data cells.
+         */
+        STYLE,
+        /**
+         * Estimate, auto size or set the column widths.
+         */
+        COLUMN_WIDTH,
+        /**
+         * Write the workbook package (zip) to the output.
+         */
+        WRITE
+    }
+
+    /**
+     * Phase finished.
+     *
+     * @param phase phase
+     * @param sheet sheet name or null if the phase is for the workbook
+     * @param nanos elapsed nanos
+     */
+    default void phase(Phase phase, String sheet, long nanos) {
+    }
+
+    /**
+     * Data rows processed of the sheet.
+     *
+     * @param sheet sheet name
+     * @param rows  rows count
+     */
+    default void rows(String sheet, long rows) {
+    }
+
+    /**
+     * Data cells processed (read or written) of the sheet.
+     *
+     * @param sheet sheet name
+     * @param cells cells count
+     */
+    default void cells(String sheet, long cells) {
+    }
+
+    /**
+     * Bytes read from the input.
+     *
+     * @param bytes bytes count
+     */
+    default void bytesRead(long bytes) {
+    }
+
+    /**
+     * Bytes written to the output.
+     *
+     * @param bytes bytes count
+     */
+    default void bytesWritten(long bytes) {
+    }
+
+    /**
+     * Bytes spilled to the temp files by the streaming workbook.
+     *
+     * @param bytes bytes count
+     */
+    default void tempFileBytes(long bytes) {
+    }
+}
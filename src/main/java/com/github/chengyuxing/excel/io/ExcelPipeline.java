@@ -0,0 +1,233 @@
+package com.github.chengyuxing.excel.io;
+
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.common.io.IOutput;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.WorkbookUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Excel to Excel transform pipeline, the sheet data rows (exclude the header row) are read by the reader's
+ * {@link ExcelReader#read(RowVisitor) row visitor}, transformed row by row and written by the {@link BigExcelLineWriter},
+ * only the current row (and the buffered rows) is kept in memory while read with the streaming reader.<br>
+ * The cells are written as typed cells by default, so the numbers, dates and booleans keep their types.
+ * <blockquote>
+ * <pre>
+ * Excels.pipeline(Excels.streamingReader(file))
+ *       .filter(row -&gt; ...)
+ *       .map(row -&gt; ...)
+ *       .header("name", "Name")
+ *       .buffer(1000)
+ *       .writeTo("out.xlsx");
+ * </pre>
+ * </blockquote>
+ */
+public class ExcelPipeline implements IOutput {
+    private final ExcelReader reader;
+    private final List<Function<DataRow, DataRow>> transforms = new ArrayList<>();
+    private final Map<String, String> header = new LinkedHashMap<>();
+    private String sheetName = "Sheet1";
+    private CellValues cellValues = new CellValues();
+    private int bufferSize = 0;
+    private boolean enableGzipTempFiles = false;
+    private long readRows = 0;
+    private long writtenRows = 0;
+
+    /**
+     * Constructs an ExcelPipeline with the source reader.
+     *
+     * @param reader source reader, the sheet, header and rows settings of the reader are used
+     */
+    public ExcelPipeline(ExcelReader reader) {
+        this.reader = Objects.requireNonNull(reader, "reader must not be null.");
+    }
+
+    /**
+     * Keep the rows which match the predicate.
+     *
+     * @param predicate row predicate
+     * @return ExcelPipeline
+     */
+    public ExcelPipeline filter(Predicate<DataRow> predicate) {
+        transforms.add(row -> predicate.test(row) ? row : null);
+        return this;
+    }
+
+    /**
+     * Transform the rows in order of adding, the row is dropped if the mapper returns null.
+     *
+     * @param mapper row mapper
+     * @return ExcelPipeline
+     */
+    public ExcelPipeline map(Function<DataRow, DataRow> mapper) {
+        transforms.add(mapper);
+        return this;
+    }
+
+    /**
+     * Map the transformed row field to the output column header name,
+     * if any field mapped, only the mapped fields are written in order of mapping,
+     * otherwise all fields of the first transformed row are written with the field names as header.
+     *
+     * @param field transformed row field
+     * @param name  output header name
+     * @return ExcelPipeline
+     */
+    public ExcelPipeline header(String field, String name) {
+        header.put(field, name);
+        return this;
+    }
+
+    /**
+     * Map the transformed row fields to the output column header names.
+     *
+     * @param header fields and header names
+     * @return ExcelPipeline
+     * @see #header(String, String)
+     */
+    public ExcelPipeline header(Map<String, String> header) {
+        this.header.putAll(header);
+        return this;
+    }
+
+    /**
+     * Specify the output sheet name, default {@code Sheet1}.
+     *
+     * @param sheetName sheet name
+     * @return ExcelPipeline
+     */
+    public ExcelPipeline sheetName(String sheetName) {
+        WorkbookUtil.validateSheetName(sheetName);
+        this.sheetName = sheetName;
+        return this;
+    }
+
+    /**
+     * Specify the cell value converters of the output typed cells.
+     *
+     * @param cellValues cell value converters
+     * @return ExcelPipeline
+     */
+    public ExcelPipeline typedCells(CellValues cellValues) {
+        this.cellValues = Objects.requireNonNull(cellValues, "cell values must not be null.");
+        return this;
+    }
+
+    /**
+     * Buffer the transformed rows and write them by another thread, so the reading and writing are overlapped,
+     * the reading is blocked when the buffer is full, default 0 (written by the caller thread).
+     *
+     * @param rows max buffered rows
+     * @return ExcelPipeline
+     */
+    public ExcelPipeline buffer(int rows) {
+        if (rows < 0) {
+            throw new IllegalArgumentException("buffer size must not be negative.");
+        }
+        this.bufferSize = rows;
+        return this;
+    }
+
+    /**
+     * Compress the temp files of the output sheet.
+     *
+     * @return ExcelPipeline
+     */
+    public ExcelPipeline gzipTempFiles() {
+        this.enableGzipTempFiles = true;
+        return this;
+    }
+
+    /**
+     * Read, transform and write the rows, the reader is closed after written.
+     *
+     * @param out output stream, not closed
+     * @throws IOException if io error
+     */
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        try (BigExcelLineWriter writer = new BigExcelLineWriter(enableGzipTempFiles)) {
+            writer.typedCells(cellValues);
+            if (bufferSize > 0) {
+                writer.concurrent(bufferSize);
+            }
+            Sheet sheet = writer.createSheet(sheetName);
+            String[] fields = header.isEmpty() ? null : header.keySet().toArray(new String[0]);
+            if (fields != null) {
+                writer.writeRow(sheet, header.values().toArray());
+            }
+            readRows = 0;
+            writtenRows = 0;
+            Object[][] columns = new Object[1][];
+            reader.read(view -> {
+                readRows++;
+                DataRow row = transform(toDataRow(view));
+                if (row == null) {
+                    return;
+                }
+                if (columns[0] == null) {
+                    if (fields == null) {
+                        // header by the first transformed row
+                        columns[0] = row.names().toArray();
+                        writer.writeRow(sheet, columns[0]);
+                    } else {
+                        columns[0] = fields;
+                    }
+                }
+                Object[] values = new Object[columns[0].length];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = row.get((String) columns[0][i]);
+                }
+                writer.writeRow(sheet, values);
+                writtenRows++;
+            });
+            writer.writeTo(out);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("close writer failed.", e);
+        }
+    }
+
+    private DataRow transform(DataRow row) {
+        for (Function<DataRow, DataRow> transform : transforms) {
+            row = transform.apply(row);
+            if (row == null) {
+                return null;
+            }
+        }
+        return row;
+    }
+
+    private static DataRow toDataRow(RowView view) {
+        String[] names = view.names();
+        Object[] values = new Object[names.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = view.getValue(i);
+        }
+        return DataRow.of(names, values);
+    }
+
+    /**
+     * Read data rows count of the last written.
+     *
+     * @return rows count
+     */
+    public long getReadRows() {
+        return readRows;
+    }
+
+    /**
+     * Written data rows count (exclude the header row) of the last written.
+     *
+     * @return rows count
+     */
+    public long getWrittenRows() {
+        return writtenRows;
+    }
+}
@@ -4,13 +4,19 @@ import com.github.chengyuxing.common.DataRow;
 import com.github.chengyuxing.common.UncheckedCloseable;
 import com.github.chengyuxing.common.util.StringUtils;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFCell;
 import com.github.chengyuxing.excel.type.SheetInfo;
 import org.jetbrains.annotations.Unmodifiable;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -19,10 +25,35 @@ import java.util.stream.StreamSupport;
  */
 public class ExcelReader {
     private final Workbook workbook;
-    private int sheetIndex = 0;
-    private int headerIndex = 0;
-    private boolean skipBlankHeaderCol = true;
-    private String[] fields;
+    protected int sheetIndex = 0;
+    protected int headerIndex = 0;
+    protected boolean skipBlankHeaderCol = true;
+    protected String[] fields;
+    protected String[] selectedNames;
+    protected int[] selectedColumns;
+    protected int rowFrom = 0;
+    protected int rowTo = Integer.MAX_VALUE;
+    protected FormulaMode formulaMode = FormulaMode.TEXT;
+    protected final FormulaMetrics formulaMetrics = new FormulaMetrics();
+    protected DateMode dateMode = DateMode.DATE;
+    protected ExcelListener listener = ExcelListener.NOOP;
+    /**
+     * Elapsed nanos of opening the workbook, 0 if the file is opened lazily.
+     */
+    protected long openNanos = 0;
+    /**
+     * Bytes read from the input, reported while the reader closed.
+     */
+    protected final LongAdder bytesRead = new LongAdder();
+    private volatile byte[] dateFormats = new byte[64];
+    private FormulaEvaluator evaluator;
+
+    /**
+     * Constructs an ExcelReader without workbook, for the subclass which parses the file by itself.
+     */
+    protected ExcelReader() {
+        workbook = null;
+    }
 
     /**
      * Constructs an ExcelReader with InputStream.
@@ -31,7 +62,11 @@ public class ExcelReader {
      * @throws IOException if io error
      */
     public ExcelReader(InputStream inputStream) throws IOException {
-        workbook = WorkbookFactory.create(inputStream);
+        long start = System.nanoTime();
+        CountingInputStream counting = new CountingInputStream(inputStream);
+        workbook = WorkbookFactory.create(counting);
+        openNanos = System.nanoTime() - start;
+        bytesRead.add(counting.getCount());
     }
 
     /**
@@ -96,6 +131,102 @@ public class ExcelReader {
         return this;
     }
 
+    /**
+     * Specify the formula cell value read mode, default {@link FormulaMode#TEXT}.<br>
+     * The evaluator is created once and shared by all streams of the reader,
+     * the evaluated results (include the dependent cells) are memoized by the evaluator.
+     *
+     * @param mode formula mode
+     * @return ExcelReader
+     * @see #getFormulaMetrics()
+     */
+    public ExcelReader formulas(FormulaMode mode) {
+        this.formulaMode = Objects.requireNonNull(mode, "formula mode must not be null.");
+        return this;
+    }
+
+    /**
+     * Specify the date formatted numeric cell value conversion mode, default {@link DateMode#DATE}.
+     *
+     * @param mode date mode
+     * @return ExcelReader
+     */
+    public ExcelReader dates(DateMode mode) {
+        this.dateMode = Objects.requireNonNull(mode, "date mode must not be null.");
+        return this;
+    }
+
+    /**
+     * Set the listener of the read phases timings, rows, cells and bytes read,
+     * the rows and cells are reported while the stream closed, the open phase and bytes read
+     * are reported while the reader closed.<br>
+     * Notice: the data rows stream of {@link #stream()} includes the header row.
+     *
+     * @param listener listener
+     * @return ExcelReader
+     */
+    public ExcelReader listener(ExcelListener listener) {
+        this.listener = Objects.requireNonNull(listener, "listener must not be null.");
+        return this;
+    }
+
+    /**
+     * Get the formula cells read metrics (evaluations vs cache hits) of the reader.
+     *
+     * @return formula metrics
+     */
+    public FormulaMetrics getFormulaMetrics() {
+        return formulaMetrics;
+    }
+
+    /**
+     * Only read the specified columns by data header names (or custom fields),
+     * the other columns are skipped without value conversion.
+     *
+     * @param names column names, empty to read all columns
+     * @return ExcelReader
+     */
+    public ExcelReader columns(String... names) {
+        this.selectedNames = names.length == 0 ? null : names;
+        this.selectedColumns = null;
+        return this;
+    }
+
+    /**
+     * Only read the specified columns by column index (0-based),
+     * the other columns are skipped without value conversion.
+     *
+     * @param indexes column indexes, empty to read all columns
+     * @return ExcelReader
+     */
+    public ExcelReader columns(int... indexes) {
+        for (int index : indexes) {
+            if (index < 0) {
+                throw new IllegalArgumentException("column index must not be negative.");
+            }
+        }
+        this.selectedColumns = indexes.length == 0 ? null : indexes;
+        this.selectedNames = null;
+        return this;
+    }
+
+    /**
+     * Only read the specified range of rows, the index is the row position in the data stream (0-based),
+     * the rows before are skipped without value conversion, and the reading stops after the range.
+     *
+     * @param from from row index (inclusive)
+     * @param to   to row index (exclusive)
+     * @return ExcelReader
+     */
+    public ExcelReader rows(int from, int to) {
+        if (from < 0 || to < from) {
+            throw new IllegalArgumentException("invalid rows range: [" + from + ", " + to + ").");
+        }
+        this.rowFrom = from;
+        this.rowTo = to;
+        return this;
+    }
+
     /**
      * Lazy read excel to stream.<br>
      * Use {@code try-with-resource} wrap to auto close the stream while read to end.
@@ -103,14 +234,247 @@ public class ExcelReader {
      * @return data stream
      */
     public Stream<DataRow> stream() {
+        Stream<DataRow> stream;
+        try {
+            stream = readSheet(sheetIndex);
+        } catch (RuntimeException e) {
+            closeReader(e);
+            throw e;
+        }
+        return metered(stream, sheetIndex).onClose(UncheckedCloseable.wrap(this::closeReader));
+    }
+
+    /**
+     * Lazy read all sheets to independent streams which share the same workbook,
+     * the streams could be consumed concurrently (e.g. on a thread pool),
+     * the workbook will be closed after all streams closed.<br>
+     * Use {@code try-with-resource} wrap each stream to auto close it while read to end.
+     *
+     * @return sheet and data stream
+     */
+    public @Unmodifiable Map<SheetInfo, Stream<DataRow>> streams() {
+        List<SheetInfo> sheets = getSheets();
+        UncheckedCloseable close = UncheckedCloseable.wrap(this::closeReader);
+        if (sheets.isEmpty()) {
+            close.run();
+            return Collections.emptyMap();
+        }
+        AtomicInteger opened = new AtomicInteger(sheets.size());
+        Map<SheetInfo, Stream<DataRow>> streams = new LinkedHashMap<>();
+        for (SheetInfo sheet : sheets) {
+            AtomicBoolean closed = new AtomicBoolean(false);
+            Stream<DataRow> stream;
+            try {
+                stream = readSheet(sheet.getIndex());
+            } catch (RuntimeException e) {
+                streams.values().forEach(Stream::close);
+                closeReader(e);
+                throw e;
+            }
+            streams.put(sheet, metered(stream, sheet.getIndex()).onClose(() -> {
+                if (closed.compareAndSet(false, true) && opened.decrementAndGet() == 0) {
+                    close.run();
+                }
+            }));
+        }
+        return Collections.unmodifiableMap(streams);
+    }
+
+    /**
+     * Lazy read the sheet to stream, the workbook is not closed while the stream closed.<br>
+     * The stream is splittable by row ranges, so it could be processed by {@link Stream#parallel()}.
+     *
+     * @param sheetIndex sheet index
+     * @return data stream
+     */
+    protected Stream<DataRow> readSheet(int sheetIndex) {
+        SheetRange range = sheetRange(sheetIndex);
+        if (range == null) {
+            return Stream.empty();
+        }
+        return StreamSupport.stream(new RowRangeSpliterator(range.sheet, range.names, range.columns, range.from, range.to, range.sized), false);
+    }
+
+    /**
+     * Open the sheet rows view, the workbook is not closed while the view closed.
+     *
+     * @param sheetIndex sheet index
+     * @return sheet rows view
+     */
+    RowView openRows(int sheetIndex) {
+        return new SheetRowView(sheetRange(sheetIndex));
+    }
+
+    /**
+     * Lazy read the sheet to objects stream, the data header names are bound to the fields
+     * (by setter method or field, name matched exactly, ignore case or underscore to camel case) once,
+     * the cell value is converted to the field type directly, the blank cells are ignored.<br>
+     * Supported field types: primitives and their wrappers, String, BigDecimal, Date, LocalDateTime, LocalDate,
+     * enum (by constant name), Object (the cell value).<br>
+     * Notice: the header row is not mapped to object.<br>
+     * Use {@code try-with-resource} wrap to auto close the stream while read to end.
+     *
+     * @param type object type which has a no-args constructor
+     * @param <T>  object type
+     * @return objects stream
+     * @throws IllegalArgumentException if a column is bound to the field of unsupported type
+     */
+    public <T> Stream<T> stream(Class<T> type) {
+        return readRows(view -> {
+            RowMapper<T> mapper = RowMapper.of(type, view.names());
+            return v -> v.next() ? mapper.map(v) : null;
+        });
+    }
+
+    /**
+     * Read the sheet data rows (exclude the header row) by the visitor, a single mutable row view
+     * is reused for every row, no {@code DataRow} and cell value objects are created unless requested
+     * by {@link RowView#getValue(int)} or {@link RowView#getString(int)}.<br>
+     * The workbook is closed after read.
+     *
+     * @param visitor row visitor
+     */
+    public void read(RowVisitor visitor) {
+        try (Stream<RowView> rows = readRows(view -> v -> v.next() ? v : null)) {
+            rows.forEach(visitor::visit);
+        }
+    }
+
+    /**
+     * Lazy read the sheet to columnar batches, the column types are inferred from the first batch
+     * and widened by the next batches if the values do not fit,
+     * the numbers, dates and booleans are stored in primitive vectors, the strings are dictionary encoded.<br>
+     * Notice: the same batch instance is refilled by the next batch, the header row is not included.<br>
+     * Use {@code try-with-resource} wrap to auto close the stream while read to end.
+     *
+     * @param batchSize max rows count of each batch
+     * @return batches stream
+     * @see ColumnBatch
+     */
+    public Stream<ColumnBatch> batches(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batch size must be greater than 0.");
+        }
+        return readRows(view -> {
+            ColumnBatch batch = new ColumnBatch(view.names(), batchSize);
+            return v -> batch.fill(v) ? batch : null;
+        });
+    }
+
+    /**
+     * Lazy read the sheet data rows (exclude the header row) by the row view.
+     *
+     * @param reader row view reader factory, the reader returns null if there is no more data
+     * @param <T>    result type
+     * @return result stream
+     */
+    private <T> Stream<T> readRows(Function<RowView, Function<RowView, T>> reader) {
+        RowView opened = null;
+        Function<RowView, T> read;
+        try {
+            // the header and the projected columns are checked while opened
+            opened = openRows(sheetIndex);
+            read = reader.apply(opened);
+        } catch (RuntimeException e) {
+            if (opened != null) {
+                try {
+                    opened.close();
+                } catch (Exception ex) {
+                    e.addSuppressed(ex);
+                }
+            }
+            closeReader(e);
+            throw e;
+        }
+        RowView view = opened;
+        boolean timed = listener != ExcelListener.NOOP;
+        int cells = view.names().length;
+        long[] counters = new long[2];
+        Stream<T> stream = StreamSupport.stream(new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            // the first row of range is the header row if fields not customized
+            boolean header = fields == null && rowFrom == 0;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (header) {
+                    header = false;
+                    if (!view.next()) {
+                        return false;
+                    }
+                }
+                long start = timed ? System.nanoTime() : 0;
+                T next = read.apply(view);
+                if (next == null) {
+                    return false;
+                }
+                if (timed) {
+                    counters[0] += System.nanoTime() - start;
+                    // a batch contains many rows
+                    counters[1] += next instanceof ColumnBatch ? ((ColumnBatch) next).size() : 1;
+                }
+                action.accept(next);
+                return true;
+            }
+        }, false).onClose(UncheckedCloseable.wrap(view::close));
+        if (timed) {
+            String sheet = sheetName(sheetIndex);
+            stream = stream.onClose(() -> {
+                listener.phase(ExcelListener.Phase.ROWS, sheet, counters[0]);
+                listener.rows(sheet, counters[1]);
+                listener.cells(sheet, counters[1] * cells);
+            });
+        }
+        return stream.onClose(UncheckedCloseable.wrap(this::closeReader));
+    }
+
+    /**
+     * Count the rows and cells and measure the read time of the sheet data stream if listened,
+     * they are reported while the stream closed.
+     *
+     * @param stream     sheet data stream
+     * @param sheetIndex sheet index
+     * @return metered stream
+     */
+    private Stream<DataRow> metered(Stream<DataRow> stream, int sheetIndex) {
+        if (listener == ExcelListener.NOOP) {
+            return stream;
+        }
+        String sheet = sheetName(sheetIndex);
+        MeteredSpliterator spliterator = new MeteredSpliterator(stream.spliterator());
+        return StreamSupport.stream(spliterator, false).onClose(stream::close).onClose(() -> {
+            listener.phase(ExcelListener.Phase.ROWS, sheet, spliterator.nanos.sum());
+            listener.rows(sheet, spliterator.rows.sum());
+            listener.cells(sheet, spliterator.cells.sum());
+        });
+    }
+
+    /**
+     * Get the sheet name by index.
+     *
+     * @param sheetIndex sheet index
+     * @return sheet name
+     */
+    protected String sheetName(int sheetIndex) {
+        return workbook.getSheetAt(sheetIndex).getSheetName();
+    }
+
+    /**
+     * Locate the data rows range of the sheet by the header and rows settings.
+     *
+     * @param sheetIndex sheet index
+     * @return data rows range or null if there is no data row
+     */
+    private SheetRange sheetRange(int sheetIndex) {
         Sheet sheet = workbook.getSheetAt(sheetIndex);
-        UncheckedCloseable close = UncheckedCloseable.wrap(workbook);
         Iterator<Row> iterator = sheet.rowIterator();
+        int skipped = 0;
         // skip the no-need rows
-        while (headerIndex > 0) {
+        int skip = headerIndex;
+        while (skip > 0) {
             if (iterator.hasNext()) {
                 iterator.next();
-                headerIndex--;
+                skip--;
+                skipped++;
             } else {
                 break;
             }
@@ -118,32 +482,442 @@ public class ExcelReader {
         boolean isCustomFieldMap = fields != null;
         // if fields customized, skip the default excel header row.
         if (isCustomFieldMap) {
-            if (headerIndex >= 0) {
+            if (skip >= 0) {
                 if (iterator.hasNext()) {
                     iterator.next();
+                    skipped++;
+                }
+            }
+        }
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        Row first = iterator.next();
+        String[] names = isCustomFieldMap ? fields : createDataHeader(first);
+        int[] columns = selectColumns(names);
+        if (columns != null) {
+            names = selectNames(names, columns);
+        }
+        int from = first.getRowNum();
+        int to = sheet.getLastRowNum() + 1;
+        // no missing rows between, the row count of any range is exactly known
+        boolean sized = sheet.getPhysicalNumberOfRows() - skipped == to - from;
+        if (rowFrom > 0 || rowTo < Integer.MAX_VALUE) {
+            if (sized) {
+                to = (int) Math.min(to, (long) from + rowTo);
+                from = (int) Math.min(to, (long) from + rowFrom);
+            } else {
+                // walk the physical rows to find the row numbers of the range
+                int start = to;
+                int end = to;
+                int i = 0;
+                Row row = first;
+                while (true) {
+                    if (i == rowFrom) {
+                        start = row.getRowNum();
+                    }
+                    if (i == rowTo) {
+                        end = row.getRowNum();
+                        break;
+                    }
+                    if (!iterator.hasNext()) {
+                        break;
+                    }
+                    row = iterator.next();
+                    i++;
+                }
+                from = start;
+                to = end;
+            }
+        }
+        return new SheetRange(sheet, names, columns, from, to, sized);
+    }
+
+    /**
+     * Data rows range of the sheet.
+     */
+    private static final class SheetRange {
+        final Sheet sheet;
+        final String[] names;
+        final int[] columns;
+        final int from;
+        final int to;
+        final boolean sized;
+
+        SheetRange(Sheet sheet, String[] names, int[] columns, int from, int to, boolean sized) {
+            this.sheet = sheet;
+            this.names = names;
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.sized = sized;
+        }
+    }
+
+    /**
+     * Sheet rows view by the data rows range.
+     */
+    private class SheetRowView extends RowView {
+        private final SheetRange range;
+        private int next;
+        private Row row;
+        private Cell resolved;
+
+        SheetRowView(SheetRange range) {
+            this.range = range;
+            this.next = range == null ? 0 : range.from;
+        }
+
+        @Override
+        public String[] names() {
+            return range == null ? new String[0] : range.names;
+        }
+
+        @Override
+        boolean next() {
+            if (range == null) {
+                return false;
+            }
+            while (next < range.to) {
+                row = range.sheet.getRow(next++);
+                if (row != null) {
+                    return true;
                 }
             }
+            row = null;
+            return false;
         }
-        return StreamSupport.stream(new Spliterators.AbstractSpliterator<DataRow>(Long.MAX_VALUE, Spliterator.ORDERED) {
-            String[] names = null;
 
-            @Override
-            public boolean tryAdvance(Consumer<? super DataRow> action) {
-                if (!iterator.hasNext()) {
+        @Override
+        public int getRowNum() {
+            return row.getRowNum();
+        }
+
+        private Cell cell(int col) {
+            return row.getCell(range.columns == null ? col : range.columns[col]);
+        }
+
+        private CellType type(Cell cell) {
+            if (cell == null) {
+                return CellType.BLANK;
+            }
+            CellType type = cell.getCellType();
+            if (type != CellType.FORMULA) {
+                return type;
+            }
+            // resolve the formula result once per cell
+            if (cell != resolved) {
+                resolveFormula(cell);
+                resolved = cell;
+            }
+            return cell.getCachedFormulaResultType();
+        }
+
+        @Override
+        public CellType getCellType(int col) {
+            return type(cell(col));
+        }
+
+        @Override
+        public boolean isDate(int col) {
+            Cell cell = cell(col);
+            return type(cell) == CellType.NUMERIC
+                    && getDateFormat(cell.getCellStyle()) != DateFormats.NONE
+                    && DateUtil.isValidExcelDate(cell.getNumericCellValue());
+        }
+
+        @Override
+        public boolean isBlank(int col) {
+            Cell cell = cell(col);
+            CellType type = type(cell);
+            return type == CellType.BLANK || (type == CellType.STRING && cell.getStringCellValue().isEmpty());
+        }
+
+        @Override
+        public double getDouble(int col) {
+            Cell cell = cell(col);
+            switch (type(cell)) {
+                case NUMERIC:
+                    return cell.getNumericCellValue();
+                case STRING:
+                    return parseDouble(cell.getStringCellValue());
+                case BOOLEAN:
+                    return cell.getBooleanCellValue() ? 1 : 0;
+                case BLANK:
+                    return 0;
+                default:
+                    return Double.NaN;
+            }
+        }
+
+        @Override
+        public boolean getBoolean(int col) {
+            Cell cell = cell(col);
+            switch (type(cell)) {
+                case BOOLEAN:
+                    return cell.getBooleanCellValue();
+                case NUMERIC:
+                    return cell.getNumericCellValue() != 0;
+                case STRING:
+                    return parseBoolean(cell.getStringCellValue());
+                default:
                     return false;
+            }
+        }
+
+        @Override
+        public String getString(int col) {
+            Cell cell = cell(col);
+            switch (type(cell)) {
+                case STRING:
+                    return cell.getStringCellValue();
+                case NUMERIC:
+                    return toText(cell.getNumericCellValue());
+                case BOOLEAN:
+                    return String.valueOf(cell.getBooleanCellValue());
+                case ERROR:
+                    return FormulaError.forInt(cell.getErrorCellValue()).getString();
+                default:
+                    return "";
+            }
+        }
+
+        @Override
+        public Date getDate(int col) {
+            Cell cell = cell(col);
+            CellType type = type(cell);
+            if (type == CellType.BLANK) {
+                return null;
+            }
+            if (type != CellType.NUMERIC) {
+                throw new IllegalStateException("cannot get a date value from a " + type + " cell at row " + (row.getRowNum() + 1) + ".");
+            }
+            return cell.getDateCellValue();
+        }
+
+        @Override
+        public LocalDateTime getLocalDateTime(int col) {
+            Cell cell = cell(col);
+            CellType type = type(cell);
+            if (type == CellType.BLANK) {
+                return null;
+            }
+            if (type != CellType.NUMERIC) {
+                throw new IllegalStateException("cannot get a date value from a " + type + " cell at row " + (row.getRowNum() + 1) + ".");
+            }
+            return cell.getLocalDateTimeCellValue();
+        }
+
+        @Override
+        public Object getValue(int col) {
+            Cell cell = cell(col);
+            if (cell == null) {
+                return "";
+            }
+            if (formulaMode != FormulaMode.TEXT && cell.getCellType() == CellType.FORMULA) {
+                type(cell);
+                return getCachedValue(cell);
+            }
+            return ExcelReader.this.getValue(cell);
+        }
+
+        @Override
+        void close() {
+        }
+    }
+
+    /**
+     * Resolve the selected column indexes by the data header.
+     *
+     * @param names data header names
+     * @return selected column indexes or null if read all columns
+     * @see #columns(String...)
+     * @see #columns(int...)
+     */
+    protected int[] selectColumns(String[] names) {
+        if (selectedColumns != null) {
+            for (int column : selectedColumns) {
+                if (column >= names.length) {
+                    throw new IllegalArgumentException("column index " + column + " out of header range: " + names.length + ".");
                 }
-                Row row = iterator.next();
-                if (names == null) {
-                    if (isCustomFieldMap) {
-                        names = fields;
+            }
+            return selectedColumns;
+        }
+        if (selectedNames != null) {
+            List<String> header = Arrays.asList(names);
+            int[] columns = new int[selectedNames.length];
+            for (int i = 0; i < selectedNames.length; i++) {
+                columns[i] = header.indexOf(selectedNames[i]);
+                if (columns[i] == -1) {
+                    throw new IllegalArgumentException("column '" + selectedNames[i] + "' not found in header: " + header + ".");
+                }
+            }
+            return columns;
+        }
+        return null;
+    }
+
+    /**
+     * Get the selected column names.
+     *
+     * @param names   data header names
+     * @param columns selected column indexes
+     * @return selected column names
+     */
+    protected String[] selectNames(String[] names, int[] columns) {
+        String[] selected = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            selected[i] = names[columns[i]];
+        }
+        return selected;
+    }
+
+    /**
+     * Sheet rows spliterator by row number range.
+     */
+    private class RowRangeSpliterator implements Spliterator<DataRow> {
+        private static final int MIN_SPLIT_SIZE = 512;
+        private final Sheet sheet;
+        private final String[] names;
+        private final int[] columns;
+        private final boolean sized;
+        private int from;
+        private final int to;
+
+        RowRangeSpliterator(Sheet sheet, String[] names, int[] columns, int from, int to, boolean sized) {
+            this.sheet = sheet;
+            this.names = names;
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.sized = sized;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super DataRow> action) {
+            while (from < to) {
+                Row row = sheet.getRow(from++);
+                if (row != null) {
+                    if (columns == null) {
+                        action.accept(createDataBody(names, row));
                     } else {
-                        names = createDataHeader(row);
+                        action.accept(createDataBody(names, columns, row));
                     }
+                    return true;
                 }
-                action.accept(createDataBody(names, row));
-                return true;
             }
-        }, false).onClose(close);
+            return false;
+        }
+
+        @Override
+        public Spliterator<DataRow> trySplit() {
+            int size = to - from;
+            if (size < MIN_SPLIT_SIZE * 2) {
+                return null;
+            }
+            int mid = from + (size >>> 1);
+            Spliterator<DataRow> prefix = new RowRangeSpliterator(sheet, names, columns, from, mid, sized);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            int characteristics = ORDERED | NONNULL;
+            if (sized) {
+                characteristics |= SIZED | SUBSIZED;
+            }
+            return characteristics;
+        }
+    }
+
+    /**
+     * Close the workbook.
+     *
+     * @throws IOException if io error
+     */
+    protected void closeWorkbook() throws IOException {
+        workbook.close();
+    }
+
+    /**
+     * Close the reader while the stream is failed to open, the close error is suppressed by the failure.
+     *
+     * @param failure open failure
+     */
+    private void closeReader(RuntimeException failure) {
+        try {
+            closeReader();
+        } catch (Exception e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private void closeReader() throws IOException {
+        try {
+            closeWorkbook();
+        } finally {
+            listener.phase(ExcelListener.Phase.OPEN, null, openNanos);
+            listener.bytesRead(bytesRead.sum());
+        }
+    }
+
+    /**
+     * Rows counting spliterator, the splits share the counters, the downstream time is not measured.
+     */
+    private static final class MeteredSpliterator implements Spliterator<DataRow> {
+        private final Spliterator<DataRow> source;
+        private final LongAdder rows;
+        private final LongAdder cells;
+        private final LongAdder nanos;
+        private DataRow current;
+
+        MeteredSpliterator(Spliterator<DataRow> source) {
+            this(source, new LongAdder(), new LongAdder(), new LongAdder());
+        }
+
+        private MeteredSpliterator(Spliterator<DataRow> source, LongAdder rows, LongAdder cells, LongAdder nanos) {
+            this.source = source;
+            this.rows = rows;
+            this.cells = cells;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super DataRow> action) {
+            long start = System.nanoTime();
+            if (!source.tryAdvance(row -> current = row)) {
+                return false;
+            }
+            nanos.add(System.nanoTime() - start);
+            DataRow row = current;
+            current = null;
+            rows.increment();
+            cells.add(row.size());
+            action.accept(row);
+            return true;
+        }
+
+        @Override
+        public Spliterator<DataRow> trySplit() {
+            Spliterator<DataRow> prefix = source.trySplit();
+            return prefix == null ? null : new MeteredSpliterator(prefix, rows, cells, nanos);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics();
+        }
     }
 
     /**
@@ -153,17 +927,34 @@ public class ExcelReader {
      * @return header columns
      */
     protected String[] createDataHeader(Row row) {
-        List<String> names = new ArrayList<>();
-        for (int i = 0, j = row.getLastCellNum(); i < j; i++) {
+        String[] columns = new String[Math.max(row.getLastCellNum(), 0)];
+        for (int i = 0; i < columns.length; i++) {
             Cell cell = row.getCell(i);
+            if (cell != null) {
+                columns[i] = cell.toString();
+            }
+        }
+        return createDataHeader(columns);
+    }
+
+    /**
+     * Create data header by header row cell texts.
+     *
+     * @param columns header cell texts, null if cell not exists
+     * @return header columns
+     */
+    protected String[] createDataHeader(String[] columns) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < columns.length; i++) {
+            String text = columns[i];
             if (skipBlankHeaderCol) {
-                if (cell == null || StringUtils.isEmpty(cell.toString())) {
+                if (StringUtils.isEmpty(text)) {
                     continue;
                 }
             }
             String name;
-            if (cell != null && !StringUtils.isBlank(cell.toString())) {
-                name = cell.toString().replace("#", "");
+            if (!StringUtils.isBlank(text)) {
+                name = text.replace("#", "");
             } else {
                 name = "#" + i + "#";
             }
@@ -191,6 +982,27 @@ public class ExcelReader {
         return DataRow.of(names, values);
     }
 
+    /**
+     * Create data body of the selected columns.
+     *
+     * @param names   selected column names
+     * @param columns selected column indexes
+     * @param row     row data
+     * @return 1 row of data
+     */
+    protected DataRow createDataBody(String[] names, int[] columns, Row row) {
+        Object[] values = new Object[columns.length];
+        for (int x = 0, y = columns.length; x < y; x++) {
+            Cell cell = row.getCell(columns[x]);
+            if (cell != null) {
+                values[x] = getValue(cell);
+            } else {
+                values[x] = "";
+            }
+        }
+        return DataRow.of(names, values);
+    }
+
     /**
      * Get cell value.
      *
@@ -204,15 +1016,118 @@ public class ExcelReader {
             case BOOLEAN:
                 return cell.getBooleanCellValue();
             case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getDateCellValue();
-                }
-                return cell.getNumericCellValue();
+                return getNumericValue(cell);
             case FORMULA:
-                return cell.getCellFormula();
+                if (formulaMode == FormulaMode.TEXT) {
+                    return cell.getCellFormula();
+                }
+                resolveFormula(cell);
+                return getCachedValue(cell);
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * Get numeric cell value, returns the date value by the date mode if the cell is date formatted,
+     * the date format detection is cached by the cell style index.
+     *
+     * @param cell numeric cell or formula cell with numeric result
+     * @return number or date value
+     */
+    protected Object getNumericValue(Cell cell) {
+        double value = cell.getNumericCellValue();
+        byte kind = getDateFormat(cell.getCellStyle());
+        if (kind == DateFormats.NONE || !DateUtil.isValidExcelDate(value)) {
+            return value;
+        }
+        switch (dateMode) {
+            case LOCAL_DATE_TIME:
+                return cell.getLocalDateTimeCellValue();
+            case JAVA_TIME:
+                LocalDateTime dateTime = cell.getLocalDateTimeCellValue();
+                return kind == DateFormats.DATE ? dateTime.toLocalDate() : dateTime;
+            default:
+                return cell.getDateCellValue();
+        }
+    }
+
+    /**
+     * Get the date format kind of the cell style, computed once per style index.
+     *
+     * @param style cell style
+     * @return date format kind
+     */
+    private byte getDateFormat(CellStyle style) {
+        if (style == null) {
+            return DateFormats.NONE;
+        }
+        int index = style.getIndex() & 0xffff;
+        byte[] formats = dateFormats;
+        if (index >= formats.length) {
+            formats = growDateFormats(index + 1);
+        }
+        byte kind = formats[index];
+        if (kind == DateFormats.UNKNOWN) {
+            kind = DateFormats.classify(style.getDataFormat(), style.getDataFormatString());
+            formats[index] = kind;
+        }
+        return kind;
+    }
+
+    private synchronized byte[] growDateFormats(int size) {
+        if (dateFormats.length < size) {
+            dateFormats = Arrays.copyOf(dateFormats, Math.max(size, dateFormats.length * 2));
+        }
+        return dateFormats;
+    }
+
+    /**
+     * Get the formula cell cached result.
+     *
+     * @param cell formula cell
+     * @return value
+     */
+    protected Object getCachedValue(Cell cell) {
+        switch (cell.getCachedFormulaResultType()) {
+            case STRING:
+                return cell.getStringCellValue();
+            case BOOLEAN:
+                return cell.getBooleanCellValue();
+            case NUMERIC:
+                return getNumericValue(cell);
             default:
                 return "";
         }
     }
+
+    /**
+     * Resolve the formula cell result by the formula mode, the evaluated result is stored as the cell cached result.
+     *
+     * @param cell formula cell
+     */
+    private void resolveFormula(Cell cell) {
+        if (formulaMode == FormulaMode.TEXT) {
+            return;
+        }
+        if (formulaMode == FormulaMode.CACHED && hasCachedResult(cell)) {
+            formulaMetrics.cacheHit();
+            return;
+        }
+        synchronized (workbook) {
+            if (evaluator == null) {
+                evaluator = workbook.getCreationHelper().createFormulaEvaluator();
+            }
+            evaluator.evaluateFormulaCell(cell);
+        }
+        formulaMetrics.evaluated();
+    }
+
+    private static boolean hasCachedResult(Cell cell) {
+        if (cell instanceof XSSFCell) {
+            return ((XSSFCell) cell).getCTCell().isSetV();
+        }
+        return true;
+    }
 }
 
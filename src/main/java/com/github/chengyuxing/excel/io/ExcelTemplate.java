@@ -0,0 +1,446 @@
+package com.github.chengyuxing.excel.io;
+
+import org.apache.poi.ss.formula.FormulaParser;
+import org.apache.poi.ss.formula.FormulaRenderer;
+import org.apache.poi.ss.formula.FormulaType;
+import org.apache.poi.ss.formula.ptg.*;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xssf.streaming.SXSSFEvaluationWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFEvaluationWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Report template workbook (.xlsx) which is shared by the report writers, the fixed headers, logos and cell styles
+ * of the template are reused instead of being rebuilt per report.<br>
+ * The data rows, footer rows and merged regions of the template sheets are parsed once, each report opens
+ * its own workbook from the template file bytes (the workbook is mutable, so it could not be shared).<br>
+ * The data row of a template sheet is the first row which contains the field placeholder cells (e.g. {@code ${name}}),
+ * the data is streamed from the data row by the {@link ExcelWriter#ExcelWriter(ExcelTemplate) template writer},
+ * each data row has the cell styles, height and merged cells of the template data row,
+ * the other cells of the data row are copied; the rows below the data row (e.g. the total row) are moved below the data.<br>
+ * The formula references of the moved rows are shifted with the rows, the ranges which end at the data row
+ * (e.g. {@code SUM(C3:C3)} of data row 3) are expanded to all the data rows (or {@code #REF!} if there is no data row),
+ * a single cell reference to the data row is not supported (rejected by the constructor).<br>
+ * Notice: the drawings are not moved, the merged cells across the data row are removed;
+ * the date columns should be formatted by the cell styles of the template data row.<br>
+ * The template is immutable, so it could be shared by threads.
+ * <blockquote>
+ * <pre>
+ * ExcelTemplate template = Excels.template(new File("monthly_report.xlsx"));
+ * // each report
+ * try (ExcelWriter writer = Excels.writer(template)) {
+ *     writer.write(XSheet.of("Sheet1", rows)).writeTo(out);
+ * }
+ * </pre>
+ * </blockquote>
+ */
+public final class ExcelTemplate {
+    private static final Pattern PLACEHOLDER = Pattern.compile("^\\$\\{\\s*([^}\\s]+)\\s*}$");
+    private final byte[] bytes;
+    private final Map<String, TemplateSheet> sheets;
+
+    /**
+     * Constructs an ExcelTemplate with InputStream, the stream is read fully and not closed.
+     *
+     * @param inputStream template file inputStream
+     * @throws IOException              if io error
+     * @throws IllegalArgumentException if the formula of the template is not supported
+     */
+    public ExcelTemplate(InputStream inputStream) throws IOException {
+        this(IOUtils.toByteArray(inputStream));
+    }
+
+    /**
+     * Constructs an ExcelTemplate with Path.
+     *
+     * @param path template file path
+     * @throws IOException              if io error
+     * @throws IllegalArgumentException if the formula of the template is not supported
+     */
+    public ExcelTemplate(Path path) throws IOException {
+        this(Files.readAllBytes(path));
+    }
+
+    private ExcelTemplate(byte[] bytes) throws IOException {
+        this.bytes = bytes;
+        Map<String, TemplateSheet> sheets = new LinkedHashMap<>();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(bytes))) {
+            for (Sheet sheet : workbook) {
+                TemplateSheet templateSheet = parseSheet(sheet);
+                if (templateSheet != null) {
+                    sheets.put(sheet.getSheetName(), templateSheet);
+                }
+            }
+        }
+        this.sheets = Collections.unmodifiableMap(sheets);
+    }
+
+    /**
+     * Get the names of the sheets which have the data row.
+     *
+     * @return sheet names
+     */
+    public Set<String> getSheetNames() {
+        return sheets.keySet();
+    }
+
+    /**
+     * Get the field names of the data row placeholders in order of columns.
+     *
+     * @param sheetName sheet name
+     * @return field names
+     * @throws IllegalArgumentException if the sheet has no data row
+     */
+    public List<String> getFields(String sheetName) {
+        TemplateSheet sheet = sheets.get(sheetName);
+        if (sheet == null) {
+            throw new IllegalArgumentException("template sheet '" + sheetName + "' has no data row.");
+        }
+        List<String> fields = new ArrayList<>();
+        for (String field : sheet.fields) {
+            if (field != null) {
+                fields.add(field);
+            }
+        }
+        return Collections.unmodifiableList(fields);
+    }
+
+    TemplateSheet getSheet(String sheetName) {
+        return sheets.get(sheetName);
+    }
+
+    /**
+     * Open a new streaming workbook of the template, the data rows and the rows below are removed
+     * from the template sheets, so the data could be appended.
+     *
+     * @return streaming workbook
+     */
+    SXSSFWorkbook open() {
+        XSSFWorkbook workbook;
+        try {
+            workbook = new XSSFWorkbook(new ByteArrayInputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        sheets.forEach((name, sheet) -> sheet.clear(workbook.getSheet(name)));
+        return new ParallelSXSSFWorkbook(workbook, SXSSFWorkbook.DEFAULT_WINDOW_SIZE);
+    }
+
+    private static TemplateSheet parseSheet(Sheet sheet) {
+        Row dataRow = null;
+        for (Row row : sheet) {
+            for (Cell cell : row) {
+                if (field(cell) != null) {
+                    dataRow = row;
+                    break;
+                }
+            }
+            if (dataRow != null) {
+                break;
+            }
+        }
+        if (dataRow == null) {
+            return null;
+        }
+        int rowNum = dataRow.getRowNum();
+        TemplateRow data = new TemplateRow(dataRow, rowNum);
+        List<TemplateRow> footer = new ArrayList<>();
+        for (int i = rowNum + 1; i <= sheet.getLastRowNum(); i++) {
+            Row row = sheet.getRow(i);
+            footer.add(row == null ? null : new TemplateRow(row, rowNum));
+        }
+        // the regions are relative to the data row and the first footer row
+        List<CellRangeAddress> dataRegions = new ArrayList<>();
+        List<CellRangeAddress> footerRegions = new ArrayList<>();
+        for (CellRangeAddress region : sheet.getMergedRegions()) {
+            if (region.getFirstRow() == rowNum && region.getLastRow() == rowNum) {
+                dataRegions.add(new CellRangeAddress(0, 0, region.getFirstColumn(), region.getLastColumn()));
+            } else if (region.getFirstRow() > rowNum) {
+                footerRegions.add(new CellRangeAddress(region.getFirstRow() - rowNum - 1, region.getLastRow() - rowNum - 1,
+                        region.getFirstColumn(), region.getLastColumn()));
+            }
+        }
+        return new TemplateSheet(rowNum, data, footer, dataRegions, footerRegions);
+    }
+
+    private static String field(Cell cell) {
+        if (cell.getCellType() != CellType.STRING) {
+            return null;
+        }
+        Matcher m = PLACEHOLDER.matcher(cell.getStringCellValue());
+        return m.matches() ? m.group(1) : null;
+    }
+
+    /**
+     * Parsed template sheet.
+     */
+    static final class TemplateSheet {
+        final int rowNum;
+        final TemplateRow dataRow;
+        final String[] fields;
+        final List<TemplateRow> footer;
+        final List<CellRangeAddress> dataRegions;
+        final List<CellRangeAddress> footerRegions;
+
+        TemplateSheet(int rowNum, TemplateRow dataRow, List<TemplateRow> footer, List<CellRangeAddress> dataRegions, List<CellRangeAddress> footerRegions) {
+            this.rowNum = rowNum;
+            this.dataRow = dataRow;
+            this.fields = new String[dataRow.cells.length];
+            for (int i = 0; i < fields.length; i++) {
+                TemplateCell cell = dataRow.cells[i];
+                fields[i] = cell == null ? null : cell.field;
+            }
+            this.footer = footer;
+            this.dataRegions = dataRegions;
+            this.footerRegions = footerRegions;
+        }
+
+        /**
+         * Remove the data row, the rows below and their merged regions from the template sheet.
+         *
+         * @param sheet template sheet
+         */
+        void clear(XSSFSheet sheet) {
+            for (int i = sheet.getLastRowNum(); i >= rowNum; i--) {
+                Row row = sheet.getRow(i);
+                if (row != null) {
+                    sheet.removeRow(row);
+                }
+            }
+            List<Integer> regions = new ArrayList<>();
+            for (int i = 0; i < sheet.getNumMergedRegions(); i++) {
+                if (sheet.getMergedRegion(i).getLastRow() >= rowNum) {
+                    regions.add(i);
+                }
+            }
+            if (!regions.isEmpty()) {
+                sheet.removeMergedRegions(regions);
+            }
+        }
+    }
+
+    /**
+     * Parsed template row, the cells are indexed by the column.
+     */
+    static final class TemplateRow {
+        final short height;
+        final TemplateCell[] cells;
+
+        /**
+         * Parse the template row.
+         *
+         * @param row        template row
+         * @param dataRowNum row number of the template data row
+         */
+        TemplateRow(Row row, int dataRowNum) {
+            boolean dataRow = row.getRowNum() == dataRowNum;
+            this.height = ((XSSFRow) row).getCTRow().isSetHt() ? row.getHeight() : -1;
+            this.cells = new TemplateCell[Math.max(row.getLastCellNum(), 0)];
+            for (Cell cell : row) {
+                if (dataRow && cell.getCellType() == CellType.FORMULA) {
+                    throw new IllegalArgumentException("formula cell of the template data row is not supported: " + cell.getAddress() + ".");
+                }
+                cells[cell.getColumnIndex()] = new TemplateCell(cell, dataRow ? field(cell) : null, dataRowNum);
+            }
+        }
+
+        /**
+         * Resolve the cell styles of the columns in the workbook opened by the template.
+         *
+         * @param workbook workbook
+         * @return cell styles, null if the default style
+         */
+        CellStyle[] styles(Workbook workbook) {
+            CellStyle[] styles = new CellStyle[cells.length];
+            for (int i = 0; i < cells.length; i++) {
+                if (cells[i] != null && cells[i].style != 0) {
+                    styles[i] = workbook.getCellStyleAt(cells[i].style);
+                }
+            }
+            return styles;
+        }
+
+        /**
+         * Create the row with the height and the copied cells (except the placeholder cells).
+         *
+         * @param sheet    sheet
+         * @param rowNum   row number
+         * @param styles   cell styles of the columns
+         * @param dataRows data rows count of the sheet, the formula references are shifted by it
+         * @return row
+         */
+        Row createRow(Sheet sheet, int rowNum, CellStyle[] styles, int dataRows) {
+            Row row = sheet.createRow(rowNum);
+            if (height != -1) {
+                row.setHeight(height);
+            }
+            for (int i = 0; i < cells.length; i++) {
+                TemplateCell cell = cells[i];
+                if (cell != null && cell.field == null) {
+                    cell.copyTo(row.createCell(i), styles[i], dataRows);
+                }
+            }
+            return row;
+        }
+    }
+
+    /**
+     * Parsed template cell.
+     */
+    static final class TemplateCell {
+        final int style;
+        final String field;
+        final CellType type;
+        final Object value;
+        // parsed formula of which the references should be shifted, null if not
+        private final Ptg[] formula;
+        private final int dataRowNum;
+
+        TemplateCell(Cell cell, String field, int dataRowNum) {
+            this.style = cell.getCellStyle().getIndex();
+            this.field = field;
+            this.type = cell.getCellType();
+            this.dataRowNum = dataRowNum;
+            this.formula = type == CellType.FORMULA ? parseFormula(cell, dataRowNum) : null;
+            switch (type) {
+                case STRING:
+                    value = cell.getStringCellValue();
+                    break;
+                case NUMERIC:
+                    value = cell.getNumericCellValue();
+                    break;
+                case BOOLEAN:
+                    value = cell.getBooleanCellValue();
+                    break;
+                case FORMULA:
+                    value = cell.getCellFormula();
+                    break;
+                default:
+                    value = null;
+            }
+        }
+
+        void copyTo(Cell cell, CellStyle style, int dataRows) {
+            switch (type) {
+                case STRING:
+                    cell.setCellValue((String) value);
+                    break;
+                case NUMERIC:
+                    cell.setCellValue((Double) value);
+                    break;
+                case BOOLEAN:
+                    cell.setCellValue((Boolean) value);
+                    break;
+                case FORMULA:
+                    cell.setCellFormula(formula == null ? (String) value : shiftFormula(cell, dataRows));
+                    break;
+                default:
+            }
+            if (style != null) {
+                cell.setCellStyle(style);
+            }
+        }
+
+        /**
+         * Parse the formula and check the references, the template data row is replaced by the data rows.
+         *
+         * @param cell       formula cell
+         * @param dataRowNum row number of the template data row
+         * @return parsed formula or null if there is no reference to shift
+         * @throws IllegalArgumentException if the formula has a single cell reference to the data row
+         */
+        private static Ptg[] parseFormula(Cell cell, int dataRowNum) {
+            Sheet sheet = cell.getSheet();
+            XSSFWorkbook workbook = (XSSFWorkbook) sheet.getWorkbook();
+            Ptg[] ptgs = FormulaParser.parse(cell.getCellFormula(), XSSFEvaluationWorkbook.create(workbook),
+                    FormulaType.CELL, workbook.getSheetIndex(sheet));
+            boolean shifted = false;
+            for (Ptg ptg : ptgs) {
+                if (!isSameSheet(ptg, sheet.getSheetName())) {
+                    continue;
+                }
+                if (ptg instanceof RefPtgBase) {
+                    int row = ((RefPtgBase) ptg).getRow();
+                    if (row == dataRowNum) {
+                        throw new IllegalArgumentException("formula of template cell " + cell.getAddress() + " references the data row cell, " +
+                                "use a range of the data row instead (e.g. SUM(C" + (dataRowNum + 1) + ":C" + (dataRowNum + 1) + ")).");
+                    }
+                    shifted |= row > dataRowNum;
+                } else if (ptg instanceof AreaPtgBase) {
+                    shifted |= ((AreaPtgBase) ptg).getLastRow() >= dataRowNum;
+                }
+            }
+            return shifted ? ptgs : null;
+        }
+
+        private static boolean isSameSheet(Ptg ptg, String sheetName) {
+            if (ptg instanceof Ref3DPxg) {
+                Ref3DPxg pxg = (Ref3DPxg) ptg;
+                return pxg.getExternalWorkbookNumber() < 1 && pxg.getLastSheetName() == null && sheetName.equalsIgnoreCase(pxg.getSheetName());
+            }
+            if (ptg instanceof Area3DPxg) {
+                Area3DPxg pxg = (Area3DPxg) ptg;
+                return pxg.getExternalWorkbookNumber() < 1 && pxg.getLastSheetName() == null && sheetName.equalsIgnoreCase(pxg.getSheetName());
+            }
+            return ptg instanceof RefPtgBase || ptg instanceof AreaPtgBase;
+        }
+
+        /**
+         * Shift the formula references below the data row by the data rows, the parsed formula is shared, so copied.
+         *
+         * @param cell     target cell
+         * @param dataRows data rows count
+         * @return formula
+         */
+        private String shiftFormula(Cell cell, int dataRows) {
+            String sheetName = cell.getSheet().getSheetName();
+            int offset = dataRows - 1;
+            Ptg[] ptgs = new Ptg[formula.length];
+            for (int i = 0; i < formula.length; i++) {
+                Ptg ptg = formula[i];
+                if (isSameSheet(ptg, sheetName) && ptg instanceof RefPtgBase) {
+                    RefPtgBase ref = (RefPtgBase) ptg.copy();
+                    if (ref.getRow() > dataRowNum) {
+                        ref.setRow(ref.getRow() + offset);
+                    }
+                    ptg = ref;
+                } else if (isSameSheet(ptg, sheetName) && ptg instanceof AreaPtgBase) {
+                    AreaPtgBase area = (AreaPtgBase) ptg.copy();
+                    int firstRow = area.getFirstRow();
+                    int lastRow = area.getLastRow();
+                    if (lastRow >= dataRowNum) {
+                        // the data row range is expanded to all the data rows
+                        lastRow = lastRow == dataRowNum ? dataRowNum + offset : lastRow + offset;
+                        if (firstRow > dataRowNum) {
+                            firstRow += offset;
+                        }
+                    }
+                    if (lastRow < firstRow) {
+                        ptg = new AreaErrPtg();
+                    } else {
+                        area.setFirstRow(firstRow);
+                        area.setLastRow(lastRow);
+                        ptg = area;
+                    }
+                }
+                ptgs[i] = ptg;
+            }
+            return FormulaRenderer.toFormulaString(SXSSFEvaluationWorkbook.create((SXSSFWorkbook) cell.getSheet().getWorkbook()), ptgs);
+        }
+    }
+}
@@ -11,8 +11,13 @@ import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Excel file writer.
@@ -20,6 +25,14 @@ import java.util.*;
 public class ExcelWriter implements IOutput, AutoCloseable {
     protected final Workbook workbook;
     protected final List<XSheet> xSheets = new ArrayList<>();
+    private final StylePool stylePool;
+    private final ExcelTemplate template;
+    protected CellValues cellValues;
+    private CellValueWriter cellValueWriter;
+    private int parallelism = 1;
+    private boolean estimateColumnWidths = false;
+    private boolean batchMergedRegions = false;
+    private ExcelListener listener = ExcelListener.NOOP;
 
     /**
      * Constructs an ExcelWriter with Workbook.
@@ -27,11 +40,31 @@ public class ExcelWriter implements IOutput, AutoCloseable {
      * @param workbook workbook
      */
     public ExcelWriter(Workbook workbook) {
+        this(workbook, null);
+    }
+
+    /**
+     * Constructs an ExcelWriter with the report template, the template is opened as a new streaming workbook,
+     * the sheet which has the same name with the template sheet is filled from the template data row,
+     * the header, header style and column widths of the sheet are ignored (the template's are kept);
+     * the other sheets are created after the template sheets.
+     *
+     * @param template report template
+     * @see ExcelTemplate
+     */
+    public ExcelWriter(ExcelTemplate template) {
+        this(template.open(), template);
+    }
+
+    private ExcelWriter(Workbook workbook, ExcelTemplate template) {
         this.workbook = workbook;
+        this.stylePool = new StylePool(workbook);
+        this.template = template;
     }
 
     /**
-     * Create an empty cell style type.
+     * Create an empty cell style type bound to a new workbook cell style,
+     * use detached style {@link XStyle#XStyle()} instead if the styles are created per cell.
      *
      * @return empty cell style
      */
@@ -48,6 +81,86 @@ public class ExcelWriter implements IOutput, AutoCloseable {
         return workbook.createFont();
     }
 
+    /**
+     * Write the numbers, booleans and dates as typed cells by the default converters instead of the strings.
+     *
+     * @return ExcelWriter
+     * @see #typedCells(CellValues)
+     */
+    public ExcelWriter typedCells() {
+        return typedCells(new CellValues());
+    }
+
+    /**
+     * Write the cells as typed cells by the converters instead of the strings,
+     * the date cells are formatted by the shared date styles unless the cell style is specified.
+     *
+     * @param cellValues cell value converters
+     * @return ExcelWriter
+     */
+    public ExcelWriter typedCells(CellValues cellValues) {
+        this.cellValues = cellValues;
+        this.cellValueWriter = new CellValueWriter(workbook);
+        return this;
+    }
+
+    /**
+     * Estimate the column widths by the written characters (the CJK and full-width characters are counted as 2)
+     * instead of {@link Sheet#autoSizeColumn(int)} font metrics layout, the widths are tracked while the rows
+     * are written, so it works for the big excel writer too.
+     *
+     * @return ExcelWriter
+     */
+    public ExcelWriter estimateColumnWidths() {
+        this.estimateColumnWidths = true;
+        return this;
+    }
+
+    /**
+     * Collect the merged regions of the cell attributes and add them after the sheet data written,
+     * the overlaps are validated once (O(n log n)) instead of validating each region with all added regions,
+     * the duplicate and overlapping regions are rejected like {@link Sheet#addMergedRegion(CellRangeAddress)}:
+     * the sheet write fails with {@link IllegalStateException}.
+     *
+     * @return ExcelWriter
+     */
+    public ExcelWriter batchMergedRegions() {
+        this.batchMergedRegions = true;
+        return this;
+    }
+
+    /**
+     * Set the listener of the write phases timings, rows, cells, bytes written and temp files bytes.
+     *
+     * @param listener listener
+     * @return ExcelWriter
+     */
+    public ExcelWriter listener(ExcelListener listener) {
+        this.listener = Objects.requireNonNull(listener, "listener must not be null.");
+        return this;
+    }
+
+    /**
+     * Write the sheets in parallel if the workbook is a streaming workbook (without shared strings table),
+     * and compress the package parts in parallel if the workbook is a {@link ParallelSXSSFWorkbook};
+     * the other workbooks are written sequentially.<br>
+     * The styles are resolved under the workbook lock (create the bound styles before write),
+     * the cell attributes function is invoked by multiple threads.
+     *
+     * @param parallelism threads count
+     * @return ExcelWriter
+     */
+    public ExcelWriter parallel(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than 0.");
+        }
+        this.parallelism = parallelism;
+        if (workbook instanceof ParallelSXSSFWorkbook) {
+            ((ParallelSXSSFWorkbook) workbook).setParallelism(parallelism);
+        }
+        return this;
+    }
+
     /**
      * Append more than one sheets ready to save.
      *
@@ -77,11 +190,64 @@ public class ExcelWriter implements IOutput, AutoCloseable {
         if (xSheets.isEmpty()) {
             throw new IllegalStateException("there is nothing to write! don't you invoke method write(...) to add sheet data?");
         }
-        for (XSheet s : xSheets) {
-            Sheet sheet = workbook.createSheet(s.getName());
-            writeSheet(sheet, s);
+        if (parallelism > 1 && xSheets.size() > 1 && workbook instanceof SXSSFWorkbook) {
+            writeSheetsParallel();
+        } else {
+            for (XSheet s : xSheets) {
+                Sheet sheet = createSheet(s.getName());
+                writeSheet(sheet, s);
+            }
+        }
+        long start = System.nanoTime();
+        CountingOutputStream counting = new CountingOutputStream(out);
+        workbook.write(counting);
+        counting.flush();
+        listener.phase(ExcelListener.Phase.WRITE, null, System.nanoTime() - start);
+        listener.bytesWritten(counting.getCount());
+        if (workbook instanceof ParallelSXSSFWorkbook) {
+            listener.tempFileBytes(((ParallelSXSSFWorkbook) workbook).getTempFileBytes());
+        }
+    }
+
+    /**
+     * Write the sheets in parallel, each sheet has its own temp file in streaming workbook.
+     *
+     * @throws IOException if interrupted
+     */
+    protected void writeSheetsParallel() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, xSheets.size()));
+        try {
+            List<Future<?>> futures = new ArrayList<>(xSheets.size());
+            for (XSheet s : xSheets) {
+                // sheets are created in order
+                Sheet sheet = createSheet(s.getName());
+                futures.add(executor.submit(() -> writeSheet(sheet, s)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while writing sheets.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("write sheet failed.", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Sheet createSheet(String name) {
+        if (template != null && template.getSheet(name) != null) {
+            return workbook.getSheet(name);
         }
-        workbook.write(out);
+        return workbook.createSheet(name);
     }
 
     /**
@@ -109,76 +275,281 @@ public class ExcelWriter implements IOutput, AutoCloseable {
      * @param xSheet sheet data container
      */
     protected void writeSheet(Sheet sheet, XSheet xSheet) {
-        XHeader xHeader = xSheet.getXHeader();
-        List<DataRow> data = xSheet.getData();
-        if (data != null && !data.isEmpty()) {
-            List<String> fields = buildHeaderSpecial(sheet, xHeader, data.get(0).names(), xSheet.getHeaderStyle());
-            int columnCount = xHeader.getMaxColumnNumber() + 1;
-            if (xHeader.isEmpty()) {
-                columnCount = data.get(0).size();
+        if (template != null) {
+            ExcelTemplate.TemplateSheet templateSheet = template.getSheet(sheet.getSheetName());
+            if (templateSheet != null) {
+                writeTemplateSheet(sheet, xSheet, templateSheet);
+                return;
+            }
+        }
+        // compiled once and shared, the header is not modified
+        HeaderPlan plan = xSheet.getXHeader().compile();
+        // the data is pulled lazily, only the current row is kept.
+        Iterator<DataRow> data = xSheet.getDataIterator();
+        int dataColumnCount = 0;
+        List<String> dataFields = Collections.emptyList();
+        // converters are resolved per column
+        CellValues.Columns columns = cellValues == null ? null : cellValues.columns();
+        ColumnWidths widths = estimateColumnWidths ? new ColumnWidths() : null;
+        TiFunction<DataRow, String, Coord, CellAttr> caFn = xSheet.getCellAttr();
+        // cell attributes styles of the sheet
+        Map<XStyle, CellStyle> attrStyles = new IdentityHashMap<>();
+        MergedRegions mergedRegions = batchMergedRegions ? new MergedRegions() : null;
+        String sheetName = sheet.getSheetName();
+        // the style time of each cell is measured only if listened
+        boolean timed = listener != ExcelListener.NOOP;
+        long headerNanos;
+        long styleNanos = 0;
+        long rowCount = 0;
+        long cellCount = 0;
+        long start = System.nanoTime();
+        if (data.hasNext()) {
+            DataRow item = data.next();
+            dataColumnCount = item.size();
+            dataFields = item.names();
+            List<String> fields;
+            int columnCount;
+            int startRow;
+            // default header row is created by the data fields
+            if (plan.isEmpty()) {
+                fields = buildHeaderDefault(sheet, dataFields, xSheet.getHeaderStyle());
+                columnCount = dataColumnCount;
+                startRow = 1;
+            } else {
+                plan = plan.bind(dataFields);
+                fields = buildHeaderSpecial(sheet, plan, xSheet.getHeaderStyle());
+                columnCount = plan.getColumnCount();
+                startRow = plan.getRowCount();
             }
-            for (int i = 0; i < data.size(); i++) {
-                Row row = sheet.createRow(xHeader.getNextRowNumber() + i);
-                DataRow item = data.get(i);
+            headerNanos = System.nanoTime() - start;
+            StyleRules rules = StyleRules.compile(xSheet.getStyleRules(), fields.subList(0, columnCount), this::resolveStyle);
+            int i = 0;
+            while (true) {
+                Row row = sheet.createRow(startRow + i);
                 for (int j = 0; j < columnCount; j++) {
                     Cell cell = row.createCell(j);
                     String field = fields.get(j);
                     Object value = item.get(field);
-                    setCellValue(cell, value, xSheet.getEmptyColumn());
+                    Object cellValue = columns == null ? value : columns.convert(j, value);
+                    setCellValue(cell, cellValue, xSheet.getEmptyColumn());
+                    if (widths != null) {
+                        widths.track(j, cellValue == null || cellValue.equals("") ? xSheet.getEmptyColumn() : cellValue);
+                    }
+                    long styleStart = timed ? System.nanoTime() : 0;
+                    if (rules != null) {
+                        CellStyle style = rules.styleOf(j, i, value);
+                        if (style != null) {
+                            cell.setCellStyle(style);
+                        }
+                    }
 
-                    TiFunction<DataRow, String, Coord, CellAttr> caFn = xSheet.getCellAttr();
                     if (caFn != null) {
                         CellAttr attr = caFn.apply(item, field, new Coord(i, j));
                         if (attr != null) {
                             CellRangeAddress address = attr.getCellRangeAddress();
                             if (address != null) {
-                                sheet.addMergedRegion(address);
+                                if (mergedRegions != null) {
+                                    mergedRegions.add(address);
+                                } else {
+                                    sheet.addMergedRegion(address);
+                                }
                             }
                             XStyle style = attr.getCellStyle();
                             if (style != null) {
-                                cell.setCellStyle(style.getStyle());
+                                cell.setCellStyle(attrStyles.computeIfAbsent(style, this::resolveStyle));
                             }
                         }
                     }
+                    if (timed) {
+                        styleNanos += System.nanoTime() - styleStart;
+                    }
+                }
+                rowCount++;
+                cellCount += columnCount;
+                if (!data.hasNext()) {
+                    break;
                 }
+                item = data.next();
+                i++;
             }
         } else {
-            buildHeaderSpecial(sheet, xHeader, Collections.emptyList(), xSheet.getHeaderStyle());
+            if (plan.isEmpty()) {
+                buildHeaderDefault(sheet, Collections.emptyList(), xSheet.getHeaderStyle());
+            } else {
+                buildHeaderSpecial(sheet, plan, xSheet.getHeaderStyle());
+            }
+            headerNanos = System.nanoTime() - start;
+        }
+        long rowsEnd = System.nanoTime();
+        if (mergedRegions != null) {
+            mergedRegions.apply(sheet);
+        }
+        long widthStart = System.nanoTime();
+        setColumnWidths(sheet, xSheet, plan, widths, dataFields, dataColumnCount);
+        listener.phase(ExcelListener.Phase.HEADER, sheetName, headerNanos);
+        listener.phase(ExcelListener.Phase.ROWS, sheetName, rowsEnd - start - headerNanos - styleNanos);
+        // the merged regions are cell attributes
+        listener.phase(ExcelListener.Phase.STYLE, sheetName, styleNanos + widthStart - rowsEnd);
+        listener.phase(ExcelListener.Phase.COLUMN_WIDTH, sheetName, System.nanoTime() - widthStart);
+        listener.rows(sheetName, rowCount);
+        listener.cells(sheetName, cellCount);
+    }
+
+    private void writeTemplateSheet(Sheet sheet, XSheet xSheet, ExcelTemplate.TemplateSheet templateSheet) {
+        Iterator<DataRow> data = xSheet.getDataIterator();
+        CellValues.Columns columns = cellValues == null ? null : cellValues.columns();
+        String[] fields = templateSheet.fields;
+        // the template styles are shared by the rows
+        CellStyle[] styles = templateSheet.dataRow.styles(workbook);
+        StyleRules rules = StyleRules.compile(xSheet.getStyleRules(), Arrays.asList(fields), this::resolveStyle);
+        TiFunction<DataRow, String, Coord, CellAttr> caFn = xSheet.getCellAttr();
+        Map<XStyle, CellStyle> attrStyles = new IdentityHashMap<>();
+        MergedRegions mergedRegions = new MergedRegions();
+        String sheetName = sheet.getSheetName();
+        boolean timed = listener != ExcelListener.NOOP;
+        long styleNanos = 0;
+        long cellCount = 0;
+        long start = System.nanoTime();
+        int startRow = templateSheet.rowNum;
+        int i = 0;
+        while (data.hasNext()) {
+            DataRow item = data.next();
+            int rowNum = startRow + i;
+            Row row = templateSheet.dataRow.createRow(sheet, rowNum, styles, 1);
+            for (int j = 0; j < fields.length; j++) {
+                String field = fields[j];
+                if (field == null) {
+                    continue;
+                }
+                Cell cell = row.createCell(j);
+                Object value = item.get(field);
+                Object cellValue = columns == null ? value : columns.convert(j, value);
+                setCellValue(cell, cellValue, xSheet.getEmptyColumn());
+                long styleStart = timed ? System.nanoTime() : 0;
+                if (styles[j] != null) {
+                    cell.setCellStyle(styles[j]);
+                }
+                if (rules != null) {
+                    CellStyle style = rules.styleOf(j, i, value);
+                    if (style != null) {
+                        cell.setCellStyle(style);
+                    }
+                }
+                if (caFn != null) {
+                    CellAttr attr = caFn.apply(item, field, new Coord(i, j));
+                    if (attr != null) {
+                        CellRangeAddress address = attr.getCellRangeAddress();
+                        if (address != null) {
+                            mergedRegions.add(address);
+                        }
+                        XStyle style = attr.getCellStyle();
+                        if (style != null) {
+                            cell.setCellStyle(attrStyles.computeIfAbsent(style, this::resolveStyle));
+                        }
+                    }
+                }
+                if (timed) {
+                    styleNanos += System.nanoTime() - styleStart;
+                }
+                cellCount++;
+            }
+            for (CellRangeAddress region : templateSheet.dataRegions) {
+                mergedRegions.add(new CellRangeAddress(rowNum, rowNum, region.getFirstColumn(), region.getLastColumn()));
+            }
+            i++;
+        }
+        long rowsEnd = System.nanoTime();
+        // the rows below the data row are moved below the data rows
+        int footerRow = startRow + i;
+        for (int k = 0; k < templateSheet.footer.size(); k++) {
+            ExcelTemplate.TemplateRow templateRow = templateSheet.footer.get(k);
+            if (templateRow != null) {
+                templateRow.createRow(sheet, footerRow + k, templateRow.styles(workbook), i);
+            }
+        }
+        for (CellRangeAddress region : templateSheet.footerRegions) {
+            mergedRegions.add(new CellRangeAddress(footerRow + region.getFirstRow(), footerRow + region.getLastRow(),
+                    region.getFirstColumn(), region.getLastColumn()));
+        }
+        mergedRegions.apply(sheet);
+        listener.phase(ExcelListener.Phase.ROWS, sheetName, rowsEnd - start - styleNanos);
+        listener.phase(ExcelListener.Phase.STYLE, sheetName, styleNanos + System.nanoTime() - rowsEnd);
+        listener.rows(sheetName, i);
+        listener.cells(sheetName, cellCount);
+    }
+
+    private void setColumnWidths(Sheet sheet, XSheet xSheet, HeaderPlan plan, ColumnWidths widths, List<String> dataFields, int dataColumnCount) {
+        if (widths != null) {
+            trackHeaderWidths(widths, plan, dataFields);
+            widths.apply(sheet);
+            manualColumnWidth(sheet, xSheet, plan);
+            return;
         }
         // if big excel writer, do not set column width
         if (workbook instanceof SXSSFWorkbook) {
             return;
         }
-        if (xHeader.isEmpty()) {
-            if (data != null && !data.isEmpty()) {
-                autoColumnWidth(sheet, data.get(0).size());
+        if (plan.isEmpty()) {
+            if (dataColumnCount > 0) {
+                autoColumnWidth(sheet, dataColumnCount);
             }
         } else {
-            autoColumnWidth(sheet, xHeader);
+            autoColumnWidth(sheet, plan);
+        }
+        manualColumnWidth(sheet, xSheet, plan);
+    }
+
+    /**
+     * Get the workbook cell style of the style, the detached styles are interned.
+     *
+     * @param xStyle style
+     * @return workbook cell style
+     */
+    protected CellStyle resolveStyle(XStyle xStyle) {
+        // the workbook styles table is not thread safe, the styles of the sheets written in parallel are built one by one
+        synchronized (workbook) {
+            if (xStyle.isDetached()) {
+                return stylePool.intern(xStyle);
+            }
+            return xStyle.getStyle();
+        }
+    }
+
+    private void trackHeaderWidths(ColumnWidths widths, HeaderPlan plan, List<String> dataFields) {
+        if (plan.isEmpty()) {
+            for (int i = 0; i < dataFields.size(); i++) {
+                widths.track(i, dataFields.get(i));
+            }
+            return;
+        }
+        for (XCell xCell : plan.getCells()) {
+            CellRangeAddress address = xCell.getAddress();
+            // merged header cells are not measured
+            if (address.getFirstColumn() == address.getLastColumn()) {
+                widths.track(address.getFirstColumn(), xCell.getText());
+            }
         }
-        manualColumnWidth(sheet, xSheet);
     }
 
     protected void setCellValue(Cell cell, Object value, String other) {
         if (value == null || value.equals("")) {
             cell.setCellValue(other);
+        } else if (cellValueWriter != null) {
+            cellValueWriter.setCellValue(cell, value);
         } else {
             cell.setCellValue(value.toString());
         }
     }
 
-    protected void manualColumnWidth(Sheet sheet, XSheet xSheet) {
-        XHeader xHeader = xSheet.getXHeader();
+    protected void manualColumnWidth(Sheet sheet, XSheet xSheet, HeaderPlan plan) {
         Map<String, Integer> fieldWidths = xSheet.getFieldColumnWidths();
         Map<Integer, Integer> indexWidths = xSheet.getIndexColumnWidths();
         if (!fieldWidths.isEmpty()) {
-            for (XRow xRow : xHeader.getRows()) {
-                for (XCell xCell : xRow.getCells()) {
-                    if (fieldWidths.containsKey(xCell.getField())) {
-                        int idx = xCell.getAddress().getFirstColumn();
-                        int width = fieldWidths.get(xCell.getField());
-                        sheet.setColumnWidth(idx, width);
-                    }
+            for (XCell xCell : plan.getCells()) {
+                if (fieldWidths.containsKey(xCell.getField())) {
+                    int idx = xCell.getAddress().getFirstColumn();
+                    int width = fieldWidths.get(xCell.getField());
+                    sheet.setColumnWidth(idx, width);
                 }
             }
         }
@@ -187,11 +558,33 @@ public class ExcelWriter implements IOutput, AutoCloseable {
         }
     }
 
+    /**
+     * Set the column widths of the sheet.
+     *
+     * @param sheet  sheet
+     * @param xSheet sheet data
+     * @deprecated not called by the writer anymore, use {@link #manualColumnWidth(Sheet, XSheet, HeaderPlan)}
+     */
+    @Deprecated
+    protected void manualColumnWidth(Sheet sheet, XSheet xSheet) {
+        manualColumnWidth(sheet, xSheet, xSheet.getXHeader().compile());
+    }
+
+    /**
+     * Auto size the header columns.
+     *
+     * @param sheet   sheet
+     * @param xHeader header
+     * @deprecated not called by the writer anymore, use {@link #autoColumnWidth(Sheet, HeaderPlan)}
+     */
+    @Deprecated
     protected void autoColumnWidth(Sheet sheet, XHeader xHeader) {
-        for (XRow xRow : xHeader.getRows()) {
-            for (XCell xCell : xRow.getCells()) {
-                sheet.autoSizeColumn(xCell.getAddress().getFirstColumn());
-            }
+        autoColumnWidth(sheet, xHeader.compile());
+    }
+
+    protected void autoColumnWidth(Sheet sheet, HeaderPlan plan) {
+        for (XCell xCell : plan.getCells()) {
+            sheet.autoSizeColumn(xCell.getAddress().getFirstColumn());
         }
     }
 
@@ -203,81 +596,63 @@ public class ExcelWriter implements IOutput, AutoCloseable {
 
     protected List<String> buildHeaderDefault(Sheet sheet, List<String> defaultHeaderFields, XStyle xStyle) {
         Row headerRow = sheet.createRow(0);
+        CellStyle style = xStyle == null ? null : resolveStyle(xStyle);
         for (int i = 0; i < defaultHeaderFields.size(); i++) {
             Cell cell = headerRow.createCell(i);
             cell.setCellValue(defaultHeaderFields.get(i));
-            if (xStyle != null) {
-                cell.setCellStyle(xStyle.getStyle());
+            if (style != null) {
+                cell.setCellStyle(style);
             }
         }
         return defaultHeaderFields;
     }
 
-    protected List<String> buildHeaderSpecial(Sheet sheet, XHeader xHeader, List<String> defaultHeaderFields, XStyle xStyle) {
-        // just use DataRow's names default
-        if (xHeader.isEmpty()) {
-            return buildHeaderDefault(sheet, defaultHeaderFields, xStyle);
-        }
-        boolean hasFieldMap = false;
-        for (XRow xRow : xHeader.getRows()) {
-            hasFieldMap = xRow.isHasFieldMap();
+    /**
+     * Build the header rows by the header plan.
+     *
+     * @param sheet  sheet
+     * @param plan   header plan which is bound to the data fields
+     * @param xStyle header style of the cells without style
+     * @return data fields of the columns
+     */
+    protected List<String> buildHeaderSpecial(Sheet sheet, HeaderPlan plan, XStyle xStyle) {
+        for (int i = 0; i < plan.getRowCount(); i++) {
+            sheet.createRow(i);
         }
-
-        String[] fields = new String[0];
-        // if has no field mapping relation, use DataRow's names as default
-        if (!hasFieldMap) {
-            XRow xRow = new XRow();
-            int startRow = xHeader.getNextRowNumber();
-            if (!defaultHeaderFields.isEmpty()) {
-                for (int i = 0; i < defaultHeaderFields.size(); i++) {
-                    xRow.add(defaultHeaderFields.get(i), new CellRangeAddress(startRow, startRow, i, i));
-                }
-                xHeader.add(xRow);
-                fields = defaultHeaderFields.toArray(new String[0]);
+        // row style
+        CellStyle headerStyle = xStyle == null ? null : resolveStyle(xStyle);
+        for (XCell xCell : plan.getCells()) {
+            CellRangeAddress address = xCell.getAddress();
+            // merge columns first
+            if (address.getFirstColumn() != address.getLastColumn() || address.getFirstRow() != address.getLastRow()) {
+                sheet.addMergedRegion(address);
             }
-        } else {
-            // maybe header's length > dataRow's length
-            fields = new String[xHeader.getMaxColumnNumber() + 1];
-            Arrays.fill(fields, "___");
+            Cell cell = sheet.getRow(address.getFirstRow()).createCell(address.getFirstColumn());
+            cell.setCellValue(xCell.getText());
+            // cell style first
+            XStyle xCellStyle = xCell.getStyle();
+            cell.setCellStyle(xCellStyle != null ? resolveStyle(xCellStyle) : headerStyle);
         }
+        return plan.getFields();
+    }
 
-        // total rows
-        // create rows first.
-        for (int i = 0; i <= xHeader.getNextRowNumber(); i++) {
-            sheet.createRow(i);
-        }
-        List<XRow> xRows = xHeader.getRows();
-        for (XRow xRow : xRows) {
-            for (XCell xCell : xRow.getCells()) {
-                String key = xCell.getField();
-                CellRangeAddress address = xCell.getAddress();
-                if (hasFieldMap && xRow.isHasField(xCell.getField())) {
-                    if (fields.length > address.getFirstColumn()) {
-                        fields[address.getFirstColumn()] = key;
-                    }
-                }
-                // merge columns first
-                if (address.getFirstColumn() != address.getLastColumn() || address.getFirstRow() != address.getLastRow()) {
-                    sheet.addMergedRegion(address);
-                }
-                // get created row by actually row number
-                Row headerRow = sheet.getRow(address.getFirstRow());
-                Cell cell = headerRow.createCell(address.getFirstColumn());
-                cell.setCellValue(xCell.getText());
-
-                CellStyle style = null;
-                // cell style first
-                XStyle xCellStyle = xCell.getStyle();
-                if (xCellStyle != null) {
-                    style = xCellStyle.getStyle();
-                } else if (xStyle != null) {
-                    // row style
-                    style = xStyle.getStyle();
-                }
-                cell.setCellStyle(style);
-            }
+    /**
+     * Build the header rows, the header without field map is bound to the default header fields.
+     *
+     * @param sheet               sheet
+     * @param xHeader             header
+     * @param defaultHeaderFields data fields of the first data row
+     * @param xStyle              header style of the cells without style
+     * @return data fields of the columns
+     * @deprecated not called by the writer anymore, use {@link #buildHeaderSpecial(Sheet, HeaderPlan, XStyle)},
+     * the header is not modified (the data fields row was added to the header)
+     */
+    @Deprecated
+    protected List<String> buildHeaderSpecial(Sheet sheet, XHeader xHeader, List<String> defaultHeaderFields, XStyle xStyle) {
+        if (xHeader.isEmpty()) {
+            return buildHeaderDefault(sheet, defaultHeaderFields, xStyle);
         }
-        return Arrays.asList(fields);
+        return buildHeaderSpecial(sheet, xHeader.compile().bind(defaultHeaderFields), xStyle);
     }
 
     @Override
@@ -0,0 +1,66 @@
+package com.github.chengyuxing.excel.io;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Formula cells read metrics of the reader.
+ *
+ * @see ExcelReader#getFormulaMetrics()
+ */
+public final class FormulaMetrics {
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    FormulaMetrics() {
+    }
+
+    void cacheHit() {
+        cacheHits.increment();
+    }
+
+    void evaluated() {
+        evaluations.increment();
+    }
+
+    void fallback() {
+        fallbacks.increment();
+    }
+
+    /**
+     * Formula cells count which returned the cached result saved in the file.
+     *
+     * @return cache hits
+     */
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Formula cells count which evaluated by the evaluator.
+     *
+     * @return evaluations
+     */
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    /**
+     * Formula cells count which should be evaluated by {@link FormulaMode#EVALUATE} but returned the cached result,
+     * because the reader could not evaluate formulas (e.g. the {@link StreamingExcelReader}).
+     *
+     * @return fallbacks
+     */
+    public long getFallbacks() {
+        return fallbacks.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "FormulaMetrics{" +
+                "cacheHits=" + getCacheHits() +
+                ", evaluations=" + getEvaluations() +
+                ", fallbacks=" + getFallbacks() +
+                '}';
+    }
+}
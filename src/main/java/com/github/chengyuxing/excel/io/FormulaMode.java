@@ -0,0 +1,21 @@
+package com.github.chengyuxing.excel.io;
+
+/**
+ * Formula cell value read mode.
+ *
+ * @see ExcelReader#formulas(FormulaMode)
+ */
+public enum FormulaMode {
+    /**
+     * Returns the formula text, e.g. {@code SUM(A1:A3)}.
+     */
+    TEXT,
+    /**
+     * Returns the cached result saved in the file, evaluates the formula if there is no cached result.
+     */
+    CACHED,
+    /**
+     * Always evaluates the formula, ignores the cached result.
+     */
+    EVALUATE
+}
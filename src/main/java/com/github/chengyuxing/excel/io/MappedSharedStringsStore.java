@@ -0,0 +1,163 @@
+package com.github.chengyuxing.excel.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shared strings store backed by memory-mapped temp files with a small on heap LRU cache.<br>
+ * Data file: {@code [int length][utf-8 bytes]} per item, an item never crosses the mapped segment;
+ * index file: {@code [long offset]} per item.
+ */
+final class MappedSharedStringsStore extends SharedStringsStore {
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final Path dataFile;
+    private final Path indexFile;
+    private final FileChannel dataChannel;
+    private final FileChannel indexChannel;
+    private final ByteBuffer dataBuffer = ByteBuffer.allocateDirect(64 * 1024);
+    private final ByteBuffer indexBuffer = ByteBuffer.allocateDirect(64 * 1024);
+    private final Map<Integer, String> cache;
+    private long dataSize = 0;
+    private int size = 0;
+    private MappedByteBuffer[] dataSegments;
+    private MappedByteBuffer[] indexSegments;
+
+    MappedSharedStringsStore(int cacheSize) throws IOException {
+        this.dataFile = Files.createTempFile("rabbit-excel-sst", ".dat");
+        this.indexFile = Files.createTempFile("rabbit-excel-sst", ".idx");
+        this.dataChannel = FileChannel.open(dataFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.cache = new LinkedHashMap<Integer, String>(Math.min(cacheSize, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    void append(String item) {
+        byte[] bytes = item.getBytes(StandardCharsets.UTF_8);
+        long recordSize = 4L + bytes.length;
+        if (recordSize > SEGMENT_SIZE) {
+            throw new IllegalStateException("shared string item too large: " + bytes.length + " bytes.");
+        }
+        try {
+            // move to next segment if the record crosses the segment boundary
+            long remaining = SEGMENT_SIZE - (dataSize & SEGMENT_MASK);
+            if (recordSize > remaining) {
+                flush(dataBuffer, dataChannel);
+                dataSize += remaining;
+                dataChannel.position(dataSize);
+            }
+            if (indexBuffer.remaining() < 8) {
+                flush(indexBuffer, indexChannel);
+            }
+            indexBuffer.putLong(dataSize);
+            if (dataBuffer.remaining() < 4) {
+                flush(dataBuffer, dataChannel);
+            }
+            dataBuffer.putInt(bytes.length);
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (!dataBuffer.hasRemaining()) {
+                    flush(dataBuffer, dataChannel);
+                }
+                int length = Math.min(dataBuffer.remaining(), bytes.length - offset);
+                dataBuffer.put(bytes, offset, length);
+                offset += length;
+            }
+            dataSize += recordSize;
+            size++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void finish() throws IOException {
+        flush(dataBuffer, dataChannel);
+        flush(indexBuffer, indexChannel);
+        dataSegments = map(dataChannel, dataSize);
+        indexSegments = map(indexChannel, size * 8L);
+    }
+
+    private static void flush(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static MappedByteBuffer[] map(FileChannel channel, long size) throws IOException {
+        MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT)];
+        for (int i = 0; i < segments.length; i++) {
+            long position = (long) i << SEGMENT_SHIFT;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, size - position));
+        }
+        return segments;
+    }
+
+    @Override
+    String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("shared string index: " + index + ", size: " + size);
+        }
+        synchronized (cache) {
+            String item = cache.get(index);
+            if (item != null) {
+                return item;
+            }
+        }
+        long indexOffset = index * 8L;
+        long offset = indexSegments[(int) (indexOffset >>> SEGMENT_SHIFT)].getLong((int) (indexOffset & SEGMENT_MASK));
+        ByteBuffer segment = dataSegments[(int) (offset >>> SEGMENT_SHIFT)].duplicate();
+        int position = (int) (offset & SEGMENT_MASK);
+        byte[] bytes = new byte[segment.getInt(position)];
+        segment.position(position + 4);
+        segment.get(bytes);
+        String item = new String(bytes, StandardCharsets.UTF_8);
+        synchronized (cache) {
+            cache.put(index, item);
+        }
+        return item;
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        dataSegments = null;
+        indexSegments = null;
+        try {
+            dataChannel.close();
+            indexChannel.close();
+        } finally {
+            delete(dataFile);
+            delete(indexFile);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // the file maybe still mapped (e.g. on windows)
+            file.toFile().deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.chengyuxing.excel.io;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import java.util.*;
+
+/**
+ * Merged regions collected while the sheet is written, the overlaps are validated once by a sweep line
+ * over the rows (O(n log n) instead of checking each region against all the added regions),
+ * then the regions are added to the sheet without validation.
+ */
+final class MergedRegions {
+    private final List<CellRangeAddress> regions = new ArrayList<>();
+
+    /**
+     * Add a merged region, the overlaps (including the duplicate regions) are rejected by {@link #apply(Sheet)}.
+     *
+     * @param address region
+     */
+    void add(CellRangeAddress address) {
+        if (address.getNumberOfCells() < 2) {
+            throw new IllegalArgumentException("Merged region " + address.formatAsString() + " must contain 2 or more cells");
+        }
+        regions.add(address);
+    }
+
+    /**
+     * Validate the regions with the existing regions of the sheet and add them to the sheet.
+     *
+     * @param sheet sheet
+     * @throws IllegalStateException if the regions overlap
+     */
+    void apply(Sheet sheet) {
+        if (regions.isEmpty()) {
+            return;
+        }
+        List<CellRangeAddress> all = new ArrayList<>(sheet.getMergedRegions());
+        all.addAll(regions);
+        validate(all);
+        for (CellRangeAddress region : regions) {
+            sheet.addMergedRegionUnsafe(region);
+        }
+    }
+
+    static void validate(List<CellRangeAddress> regions) {
+        List<CellRangeAddress> sorted = new ArrayList<>(regions);
+        sorted.sort(Comparator.comparingInt(CellRangeAddress::getFirstRow));
+        // active regions which cover the current row, the column ranges are disjoint
+        TreeMap<Integer, CellRangeAddress> active = new TreeMap<>();
+        PriorityQueue<CellRangeAddress> expiring = new PriorityQueue<>(Comparator.comparingInt(CellRangeAddress::getLastRow));
+        for (CellRangeAddress region : sorted) {
+            while (!expiring.isEmpty() && expiring.peek().getLastRow() < region.getFirstRow()) {
+                active.remove(expiring.poll().getFirstColumn());
+            }
+            Map.Entry<Integer, CellRangeAddress> floor = active.floorEntry(region.getLastColumn());
+            if (floor != null && floor.getValue().getLastColumn() >= region.getFirstColumn()) {
+                throw new IllegalStateException("The range " + region.formatAsString() +
+                        " intersects with another merged region " + floor.getValue().formatAsString() + " in this sheet");
+            }
+            active.put(region.getFirstColumn(), region);
+            expiring.add(region);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.github.chengyuxing.excel.io;
+
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.poi.openxml4j.util.ZipArchiveThresholdInputStream;
+import org.apache.poi.openxml4j.util.ZipEntrySource;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xssf.streaming.GZIPSheetDataWriter;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.streaming.SheetDataWriter;
+import org.apache.poi.xssf.usermodel.XSSFChartSheet;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.ZipEntry;
+
+/**
+ * Streaming workbook which compresses the package parts (the sheets mostly) in parallel
+ * when the parallelism is greater than 1, the compressed parts are stitched into the package in order.<br>
+ * The bytes of the sheets temp files are counted while the sheets are written into the package.
+ */
+public class ParallelSXSSFWorkbook extends SXSSFWorkbook {
+    private static final String SHEET_DATA = "<sheetData";
+    private static final String SHEET_DATA_END = "</sheetData>";
+    private final LongAdder tempFileBytes = new LongAdder();
+    private int parallelism = 1;
+
+    /**
+     * Constructs a ParallelSXSSFWorkbook with rows window size.
+     *
+     * @param rowAccessWindowSize rows kept in memory of each sheet
+     */
+    public ParallelSXSSFWorkbook(int rowAccessWindowSize) {
+        super(rowAccessWindowSize);
+    }
+
+    /**
+     * Constructs a ParallelSXSSFWorkbook with the template workbook, the existing rows of the template sheets are kept,
+     * the new rows must be appended after the last existing row.
+     *
+     * @param workbook            template workbook
+     * @param rowAccessWindowSize rows kept in memory of each sheet
+     */
+    public ParallelSXSSFWorkbook(XSSFWorkbook workbook, int rowAccessWindowSize) {
+        super(workbook, rowAccessWindowSize);
+    }
+
+    /**
+     * Set the threads count of the package parts compression.
+     *
+     * @param parallelism threads count, 1 is sequential
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than 0.");
+        }
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Get the bytes of the sheets temp files (compressed if enabled) which have been written into the package.
+     *
+     * @return temp files bytes
+     */
+    public long getTempFileBytes() {
+        return tempFileBytes.sum();
+    }
+
+    @Override
+    protected SheetDataWriter createSheetDataWriter() throws IOException {
+        if (isCompressTempFiles()) {
+            return new GZIPSheetDataWriter(_sharedStringSource) {
+                private boolean counted = false;
+
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    if (!counted) {
+                        counted = true;
+                        tempFileBytes.add(getTempFile().length());
+                    }
+                }
+            };
+        }
+        return new SheetDataWriter(_sharedStringSource) {
+            private boolean counted = false;
+
+            @Override
+            public void close() throws IOException {
+                super.close();
+                if (!counted) {
+                    counted = true;
+                    tempFileBytes.add(getTempFile().length());
+                }
+            }
+        };
+    }
+
+    @Override
+    protected void injectData(ZipEntrySource zipEntrySource, OutputStream out) throws IOException {
+        if (parallelism < 2) {
+            super.injectData(zipEntrySource, out);
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            ZipArchiveOutputStream zos = createArchiveOutputStream(out);
+            ParallelScatterZipCreator creator = new ParallelScatterZipCreator(executor);
+            Enumeration<? extends ZipArchiveEntry> entries = zipEntrySource.getEntries();
+            while (entries.hasMoreElements()) {
+                ZipArchiveEntry ze = entries.nextElement();
+                ZipArchiveEntry zeOut = new ZipArchiveEntry(ze.getName());
+                zeOut.setMethod(ZipEntry.DEFLATED);
+                zeOut.setTime(ze.getTime());
+                // the template parts are small, read by the current thread
+                byte[] part;
+                try (InputStream is = zipEntrySource.getInputStream(ze)) {
+                    if (is instanceof ZipArchiveThresholdInputStream) {
+                        ((ZipArchiveThresholdInputStream) is).setGuardState(false);
+                    }
+                    part = IOUtils.toByteArray(is);
+                }
+                XSSFSheet xSheet = getSheetFromZipEntryName(ze.getName());
+                if (xSheet != null && !(xSheet instanceof XSSFChartSheet)) {
+                    SXSSFSheet sheet = getSheetAt(getXSSFWorkbook().getSheetIndex(xSheet));
+                    creator.addArchiveEntry(zeOut, () -> injectSheetData(part, sheet));
+                } else {
+                    creator.addArchiveEntry(zeOut, () -> new ByteArrayInputStream(part));
+                }
+            }
+            creator.writeTo(zos);
+            zos.finish();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while writing workbook.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("write workbook failed.", cause);
+        } finally {
+            executor.shutdownNow();
+            zipEntrySource.close();
+        }
+    }
+
+    /**
+     * Worksheet xml stream with the sheet data injected into the template.
+     *
+     * @param template worksheet xml template
+     * @param sheet    sheet
+     * @return worksheet xml stream
+     */
+    private static InputStream injectSheetData(byte[] template, SXSSFSheet sheet) {
+        String xml = new String(template, StandardCharsets.UTF_8);
+        int start = xml.indexOf(SHEET_DATA);
+        if (start == -1) {
+            throw new IllegalStateException("sheetData not found in worksheet '" + sheet.getSheetName() + "'.");
+        }
+        int tagEnd = xml.indexOf('>', start);
+        String head;
+        String tail;
+        if (xml.charAt(tagEnd - 1) == '/') {
+            head = xml.substring(0, start) + SHEET_DATA + ">";
+            tail = SHEET_DATA_END + xml.substring(tagEnd + 1);
+        } else {
+            // the existing rows of the template sheet are followed by the streamed rows
+            int end = xml.indexOf(SHEET_DATA_END, tagEnd);
+            head = xml.substring(0, end);
+            tail = xml.substring(end);
+        }
+        try {
+            return new SequenceInputStream(Collections.enumeration(Arrays.asList(
+                    new ByteArrayInputStream(head.getBytes(StandardCharsets.UTF_8)),
+                    sheet.getWorksheetXMLInputStream(),
+                    new ByteArrayInputStream(tail.getBytes(StandardCharsets.UTF_8)))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
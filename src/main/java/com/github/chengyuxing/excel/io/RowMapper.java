@@ -0,0 +1,296 @@
+package com.github.chengyuxing.excel.io;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sheet row to object mapper, the property setters are resolved and compiled once per type,
+ * the cell values are converted to the property type directly (primitive types without boxing).
+ *
+ * @param <T> object type
+ */
+final class RowMapper<T> {
+    private static final Map<Class<?>, TypeMeta> TYPES = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Class<?>> PRIMITIVES = new HashMap<>();
+    private final MethodHandle constructor;
+    private final Binder[] binders;
+
+    static {
+        PRIMITIVES.put(Double.class, double.class);
+        PRIMITIVES.put(Float.class, float.class);
+        PRIMITIVES.put(Long.class, long.class);
+        PRIMITIVES.put(Integer.class, int.class);
+        PRIMITIVES.put(Short.class, short.class);
+        PRIMITIVES.put(Byte.class, byte.class);
+        PRIMITIVES.put(Boolean.class, boolean.class);
+        PRIMITIVES.put(Character.class, char.class);
+    }
+
+    private RowMapper(MethodHandle constructor, Binder[] binders) {
+        this.constructor = constructor;
+        this.binders = binders;
+    }
+
+    /**
+     * Bind the data header names to the type properties.
+     *
+     * @param type  object type
+     * @param names data header names
+     * @param <T>   object type
+     * @return row mapper
+     * @throws IllegalArgumentException if the bound property type is not supported
+     */
+    static <T> RowMapper<T> of(Class<T> type, String[] names) {
+        TypeMeta meta = TYPES.computeIfAbsent(type, TypeMeta::new);
+        List<Binder> binders = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            Binder binder = meta.binder(names[i], i);
+            if (binder != null) {
+                binders.add(binder);
+            }
+        }
+        return new RowMapper<>(meta.constructor, binders.toArray(new Binder[0]));
+    }
+
+    /**
+     * Map the current row to object, the blank cells are ignored.
+     *
+     * @param row row view
+     * @return object
+     */
+    @SuppressWarnings("unchecked")
+    T map(RowView row) {
+        Object target;
+        try {
+            target = constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("create instance failed.", e);
+        }
+        for (Binder binder : binders) {
+            if (row.isBlank(binder.column)) {
+                continue;
+            }
+            try {
+                binder.setter.set(target, row, binder.column);
+            } catch (Throwable e) {
+                throw new IllegalStateException("set property '" + binder.name + "' failed at row " + (row.getRowNum() + 1) + ".", e);
+            }
+        }
+        return (T) target;
+    }
+
+    @FunctionalInterface
+    interface Setter {
+        void set(Object target, RowView row, int column) throws Throwable;
+    }
+
+    private static final class Binder {
+        final String name;
+        final int column;
+        final Setter setter;
+
+        Binder(String name, int column, Setter setter) {
+            this.name = name;
+            this.column = column;
+            this.setter = setter;
+        }
+    }
+
+    /**
+     * Type properties metadata.
+     */
+    private static final class TypeMeta {
+        private final Class<?> type;
+        private final MethodHandle constructor;
+        private final Map<String, Setter> setters = new HashMap<>();
+        private final Map<String, Setter> lowerCaseSetters = new HashMap<>();
+
+        TypeMeta(Class<?> type) {
+            this.type = type;
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            try {
+                Constructor<?> c = type.getDeclaredConstructor();
+                c.setAccessible(true);
+                this.constructor = lookup.unreflectConstructor(c).asType(MethodType.methodType(Object.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalArgumentException(type.getName() + " must have a no-args constructor.", e);
+            }
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || setters.containsKey(field.getName())) {
+                        continue;
+                    }
+                    MethodHandle handle = findSetter(lookup, c, field);
+                    Setter setter = compile(handle, field.getType());
+                    if (setter == null) {
+                        // fails while the property is bound to a column
+                        setter = new Unsupported(field);
+                    }
+                    setters.put(field.getName(), setter);
+                    lowerCaseSetters.putIfAbsent(field.getName().toLowerCase(), setter);
+                }
+            }
+        }
+
+        Binder binder(String name, int column) {
+            Setter setter = setters.get(name);
+            if (setter == null) {
+                setter = lowerCaseSetters.get(name.toLowerCase());
+            }
+            if (setter == null) {
+                setter = lowerCaseSetters.get(name.replace("_", "").toLowerCase());
+            }
+            if (setter instanceof Unsupported) {
+                Field field = ((Unsupported) setter).field;
+                throw new IllegalArgumentException("column '" + name + "' cannot be mapped to property '" + field.getName() + "' of " + type.getName() + ", unsupported type: " + field.getType().getName() + ".");
+            }
+            return setter == null ? null : new Binder(name, column, setter);
+        }
+
+        private MethodHandle findSetter(MethodHandles.Lookup lookup, Class<?> c, Field field) {
+            String name = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+            try {
+                try {
+                    Method method = c.getMethod(name, field.getType());
+                    method.setAccessible(true);
+                    return lookup.unreflect(method);
+                } catch (NoSuchMethodException e) {
+                    field.setAccessible(true);
+                    return lookup.unreflectSetter(field);
+                }
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new IllegalArgumentException("cannot access property '" + field.getName() + "' of " + type.getName() + ".", e);
+            }
+        }
+
+        /**
+         * Adapt the setter to accept the value type, the value is narrowed (e.g. double to float) and boxed if necessary.
+         */
+        private static MethodHandle adapt(MethodHandle handle, Class<?> valueType) {
+            Class<?> type = handle.type().parameterType(1);
+            Class<?> primitive = PRIMITIVES.getOrDefault(type, type);
+            MethodHandle h = handle.asType(MethodType.methodType(void.class, Object.class, primitive));
+            return MethodHandles.explicitCastArguments(h, MethodType.methodType(void.class, Object.class, valueType));
+        }
+
+        private static Setter compile(MethodHandle handle, Class<?> type) {
+            if (type == double.class || type == float.class || type == Double.class || type == Float.class) {
+                MethodHandle h = adapt(handle, double.class);
+                return (t, r, c) -> {
+                    h.invokeExact(t, r.getDouble(c));
+                };
+            }
+            if (type == long.class || type == Long.class) {
+                MethodHandle h = adapt(handle, long.class);
+                return (t, r, c) -> {
+                    h.invokeExact(t, r.getLong(c));
+                };
+            }
+            if (type == int.class || type == Integer.class || type == short.class || type == Short.class || type == byte.class || type == Byte.class) {
+                MethodHandle h = adapt(handle, int.class);
+                return (t, r, c) -> {
+                    h.invokeExact(t, r.getInt(c));
+                };
+            }
+            if (type == boolean.class || type == Boolean.class) {
+                MethodHandle h = adapt(handle, boolean.class);
+                return (t, r, c) -> {
+                    h.invokeExact(t, r.getBoolean(c));
+                };
+            }
+            if (type == char.class || type == Character.class) {
+                MethodHandle h = adapt(handle, char.class);
+                return (t, r, c) -> {
+                    h.invokeExact(t, toChar(r.getString(c)));
+                };
+            }
+            if (type == String.class) {
+                MethodHandle h = adapt(handle, String.class);
+                return (t, r, c) -> {
+                    h.invokeExact(t, r.getString(c));
+                };
+            }
+            if (type == BigDecimal.class) {
+                MethodHandle h = adapt(handle, BigDecimal.class);
+                return (t, r, c) -> {
+                    h.invokeExact(t, new BigDecimal(r.getString(c)));
+                };
+            }
+            if (type == Date.class) {
+                MethodHandle h = adapt(handle, Date.class);
+                return (t, r, c) -> {
+                    h.invokeExact(t, r.getDate(c));
+                };
+            }
+            if (type == LocalDateTime.class) {
+                MethodHandle h = adapt(handle, LocalDateTime.class);
+                return (t, r, c) -> {
+                    h.invokeExact(t, r.getLocalDateTime(c));
+                };
+            }
+            if (type == LocalDate.class) {
+                MethodHandle h = adapt(handle, LocalDate.class);
+                return (t, r, c) -> {
+                    h.invokeExact(t, r.getLocalDateTime(c).toLocalDate());
+                };
+            }
+            if (type.isEnum()) {
+                MethodHandle h = adapt(handle, Object.class);
+                Map<String, Object> constants = new HashMap<>();
+                for (Object constant : type.getEnumConstants()) {
+                    constants.put(((Enum<?>) constant).name(), constant);
+                }
+                return (t, r, c) -> {
+                    String name = r.getString(c).trim();
+                    Object constant = constants.get(name);
+                    if (constant == null) {
+                        throw new IllegalArgumentException("no enum constant " + type.getName() + "." + name + ".");
+                    }
+                    h.invokeExact(t, constant);
+                };
+            }
+            if (type == Object.class) {
+                MethodHandle h = adapt(handle, Object.class);
+                return (t, r, c) -> {
+                    h.invokeExact(t, r.getValue(c));
+                };
+            }
+            return null;
+        }
+
+        private static char toChar(String value) {
+            if (value.length() != 1) {
+                throw new IllegalArgumentException("cannot convert '" + value + "' to char.");
+            }
+            return value.charAt(0);
+        }
+    }
+
+    /**
+     * Setter of the property which type is not supported, it's rejected while the property is bound to a column,
+     * so it's never called.
+     */
+    private static final class Unsupported implements Setter {
+        final Field field;
+
+        Unsupported(Field field) {
+            this.field = field;
+        }
+
+        @Override
+        public void set(Object target, RowView row, int column) {
+            throw new IllegalStateException("property '" + field.getName() + "' of " + field.getDeclaringClass().getName() + " is not supported, type: " + field.getType().getName() + ".");
+        }
+    }
+}
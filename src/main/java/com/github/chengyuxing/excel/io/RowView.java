@@ -0,0 +1,193 @@
+package com.github.chengyuxing.excel.io;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.util.NumberToTextConverter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * Mutable view of the current sheet row, the same instance is moved from row to row,
+ * the typed accessors read the cell value without boxing.<br>
+ * The column index is the data header column index (after columns selected).<br>
+ * Formula cells returns the cached result by typed accessors.<br>
+ * Notice: the view is only valid for the current row, copy out the values to keep.
+ *
+ * @see ExcelReader#read(RowVisitor)
+ */
+public abstract class RowView {
+    RowView() {
+    }
+
+    /**
+     * Data header names.
+     *
+     * @return names
+     */
+    public abstract String[] names();
+
+    /**
+     * Move to next row.
+     *
+     * @return false if there is no more row
+     */
+    abstract boolean next();
+
+    /**
+     * Current sheet row number (0-based).
+     *
+     * @return row number
+     */
+    public abstract int getRowNum();
+
+    /**
+     * Get cell type, formula cell returns the cached result type, not exists cell returns {@link CellType#BLANK}.
+     *
+     * @param col column index
+     * @return cell type
+     */
+    public abstract CellType getCellType(int col);
+
+    /**
+     * Check the cell is a numeric cell with date format.
+     *
+     * @param col column index
+     * @return true if date
+     */
+    public abstract boolean isDate(int col);
+
+    /**
+     * Check the cell is blank (not exists, no value or empty string).
+     *
+     * @param col column index
+     * @return true if blank
+     */
+    public abstract boolean isBlank(int col);
+
+    /**
+     * Get numeric value, string is parsed, boolean is 1 or 0, blank is 0.
+     *
+     * @param col column index
+     * @return number
+     */
+    public abstract double getDouble(int col);
+
+    /**
+     * Get boolean value, number is true if not 0, string is true if {@code true} or {@code 1}.
+     *
+     * @param col column index
+     * @return boolean
+     */
+    public abstract boolean getBoolean(int col);
+
+    /**
+     * Get string value, number is formatted like Excel's General format, blank is empty string.
+     *
+     * @param col column index
+     * @return string
+     */
+    public abstract String getString(int col);
+
+    /**
+     * Get date value of the numeric cell.
+     *
+     * @param col column index
+     * @return date or null if blank
+     * @throws IllegalStateException if the cell is not numeric
+     */
+    public abstract Date getDate(int col);
+
+    /**
+     * Get local date time value of the numeric cell.
+     *
+     * @param col column index
+     * @return local date time or null if blank
+     * @throws IllegalStateException if the cell is not numeric
+     */
+    public abstract LocalDateTime getLocalDateTime(int col);
+
+    /**
+     * Get cell value by the same rules with the {@code DataRow} value.
+     *
+     * @param col column index
+     * @return value
+     */
+    public abstract Object getValue(int col);
+
+    /**
+     * Get long value, the string cell is parsed as long without precision loss
+     * (e.g. the long which has more than 15 digits is written as string).
+     *
+     * @param col column index
+     * @return long
+     * @see #getDouble(int)
+     */
+    public long getLong(int col) {
+        if (getCellType(col) == CellType.STRING) {
+            return parseLong(getString(col));
+        }
+        return (long) getDouble(col);
+    }
+
+    /**
+     * Get int value.
+     *
+     * @param col column index
+     * @return int
+     * @see #getDouble(int)
+     */
+    public int getInt(int col) {
+        return (int) getDouble(col);
+    }
+
+    /**
+     * Column index of the data header name.
+     *
+     * @param name data header name
+     * @return column index or -1 if not exists
+     */
+    public int indexOf(String name) {
+        String[] names = names();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Release the resources of the view.
+     *
+     * @throws IOException if io error
+     */
+    abstract void close() throws IOException;
+
+    static double parseDouble(String value) {
+        String v = value.trim();
+        return v.isEmpty() ? 0 : Double.parseDouble(v);
+    }
+
+    static long parseLong(String value) {
+        String v = value.trim();
+        if (v.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(v);
+        } catch (NumberFormatException e) {
+            // decimal or exponent
+            return (long) Double.parseDouble(v);
+        }
+    }
+
+    static boolean parseBoolean(String value) {
+        String v = value.trim();
+        return v.equalsIgnoreCase("true") || v.equals("1");
+    }
+
+    static String toText(double value) {
+        return NumberToTextConverter.toText(value);
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.chengyuxing.excel.io;
+
+/**
+ * Sheet row visitor, the same row view instance is passed for every row.
+ *
+ * @see ExcelReader#read(RowVisitor)
+ */
+@FunctionalInterface
+public interface RowVisitor {
+    /**
+     * Visit the current row.
+     *
+     * @param row current row view, only valid while visiting
+     */
+    void visit(RowView row);
+}
@@ -0,0 +1,133 @@
+package com.github.chengyuxing.excel.io;
+
+import org.apache.poi.util.XMLHelper;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Shared strings table ({@code xl/sharedStrings.xml}) store for streaming read.
+ */
+abstract class SharedStringsStore implements AutoCloseable {
+    /**
+     * Get the string item by index.
+     *
+     * @param index item index
+     * @return string
+     */
+    abstract String get(int index);
+
+    /**
+     * Unique string items count.
+     *
+     * @return count
+     */
+    abstract int size();
+
+    @Override
+    public void close() throws IOException {
+    }
+
+    /**
+     * Returns a store which keeps all string items on heap.
+     *
+     * @param sharedStringsData shared strings xml, null if the workbook has no shared strings
+     * @return store
+     */
+    static SharedStringsStore onHeap(InputStream sharedStringsData) {
+        List<String> items = new ArrayList<>();
+        if (sharedStringsData != null) {
+            parse(sharedStringsData, items::add);
+        }
+        return new SharedStringsStore() {
+            @Override
+            String get(int index) {
+                return items.get(index);
+            }
+
+            @Override
+            int size() {
+                return items.size();
+            }
+        };
+    }
+
+    /**
+     * Returns a store which keeps all string items in a memory-mapped temp file,
+     * only the recently used items are cached on heap.
+     *
+     * @param sharedStringsData shared strings xml, null if the workbook has no shared strings
+     * @param cacheSize         max cached items count on heap
+     * @return store
+     * @throws IOException if create temp file failed
+     */
+    static SharedStringsStore fileBacked(InputStream sharedStringsData, int cacheSize) throws IOException {
+        MappedSharedStringsStore store = new MappedSharedStringsStore(cacheSize);
+        try {
+            if (sharedStringsData != null) {
+                parse(sharedStringsData, store::append);
+            }
+            store.finish();
+        } catch (IOException | RuntimeException e) {
+            store.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * Parse the shared strings xml, the rich text runs are joined and the phonetic runs are ignored.
+     *
+     * @param sharedStringsData shared strings xml
+     * @param consumer          string item consumer
+     */
+    static void parse(InputStream sharedStringsData, Consumer<String> consumer) {
+        try {
+            XMLStreamReader reader = XMLHelper.newXMLInputFactory().createXMLStreamReader(sharedStringsData);
+            try {
+                StringBuilder item = null;
+                int phonetic = 0;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        switch (reader.getLocalName()) {
+                            case "si":
+                                item = new StringBuilder();
+                                break;
+                            case "rPh":
+                                phonetic++;
+                                break;
+                            case "t":
+                                if (item != null && phonetic == 0) {
+                                    item.append(reader.getElementText());
+                                }
+                                break;
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        switch (reader.getLocalName()) {
+                            case "si":
+                                if (item != null) {
+                                    consumer.accept(item.toString());
+                                    item = null;
+                                }
+                                break;
+                            case "rPh":
+                                phonetic--;
+                                break;
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("failed to parse shared strings.", e);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.github.chengyuxing.excel.io;
+
+import org.apache.poi.util.XMLHelper;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * StAX based sheet xml ({@code xl/worksheets/sheetN.xml}) row cursor,
+ * only the cells of the current row are kept in memory.
+ */
+final class SheetXmlParser implements AutoCloseable {
+    static final byte BLANK = 0;
+    static final byte NUMBER = 1;
+    static final byte SHARED_STRING = 2;
+    static final byte STRING = 3;
+    static final byte BOOLEAN = 4;
+    static final byte ERROR = 5;
+
+    private final InputStream inputStream;
+    private final XMLStreamReader reader;
+    private byte[] types = new byte[16];
+    private String[] values = new String[16];
+    private String[] formulas = new String[16];
+    private int[] styles = new int[16];
+    private boolean[] selected;
+    private int lastCellNum = 0;
+    private int rowNum = -1;
+    private boolean end = false;
+
+    SheetXmlParser(InputStream inputStream) {
+        this.inputStream = inputStream;
+        try {
+            this.reader = XMLHelper.newXMLInputFactory().createXMLStreamReader(inputStream);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("failed to open sheet xml.", e);
+        }
+    }
+
+    /**
+     * Move to the next row and parse its cells.
+     *
+     * @return false if there is no more row
+     */
+    boolean nextRow() {
+        if (!moveToRow()) {
+            return false;
+        }
+        clearCells();
+        try {
+            int nextCol = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("c")) {
+                    nextCol = readCell(nextCol) + 1;
+                } else if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("row")) {
+                    break;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("failed to parse sheet xml at row " + (rowNum + 1) + ".", e);
+        }
+        return true;
+    }
+
+    /**
+     * Move to the next row without parse its cells.
+     *
+     * @return false if there is no more row
+     */
+    boolean skipRow() {
+        clearCells();
+        return moveToRow();
+    }
+
+    /**
+     * Only parse the selected columns of the next rows, the other cells are skipped.
+     *
+     * @param columns selected column indexes, null to parse all columns
+     */
+    void selectColumns(int[] columns) {
+        if (columns == null) {
+            selected = null;
+            return;
+        }
+        int max = 0;
+        for (int column : columns) {
+            max = Math.max(max, column);
+        }
+        selected = new boolean[max + 1];
+        for (int column : columns) {
+            selected[column] = true;
+        }
+    }
+
+    /**
+     * Count the rows until the end of sheet without parse cells.
+     *
+     * @return row count
+     */
+    int countRows() {
+        int count = 0;
+        while (moveToRow()) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Rows count of the used range by the sheet dimension ({@code <dimension ref="A1:D100"/>}),
+     * the blank rows inside the range are counted, must be called before read rows.
+     *
+     * @return rows count or -1 if the dimension is missing or a single cell (e.g. the empty sheet)
+     */
+    int dimensionRows() {
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if (name.equals("dimension")) {
+                        String ref = reader.getAttributeValue(null, "ref");
+                        int i = ref == null ? -1 : ref.indexOf(':');
+                        if (i == -1) {
+                            return -1;
+                        }
+                        int first = rowIndex(ref.substring(0, i));
+                        int last = rowIndex(ref.substring(i + 1));
+                        return first == -1 || last < first ? -1 : last - first + 1;
+                    }
+                    if (name.equals("sheetData")) {
+                        return -1;
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("failed to parse sheet xml.", e);
+        }
+        return -1;
+    }
+
+    private boolean moveToRow() {
+        if (end) {
+            return false;
+        }
+        try {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("row")) {
+                    String r = reader.getAttributeValue(null, "r");
+                    rowNum = r == null ? rowNum + 1 : Integer.parseInt(r) - 1;
+                    return true;
+                }
+                if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("sheetData")) {
+                    break;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("failed to parse sheet xml.", e);
+        }
+        end = true;
+        return false;
+    }
+
+    private int readCell(int nextCol) throws XMLStreamException {
+        String r = reader.getAttributeValue(null, "r");
+        int col = r == null ? nextCol : columnIndex(r);
+        if (selected != null && (col >= selected.length || !selected[col])) {
+            skipElement();
+            return col;
+        }
+        ensureCapacity(col + 1);
+        String t = reader.getAttributeValue(null, "t");
+        String s = reader.getAttributeValue(null, "s");
+        styles[col] = s == null ? 0 : Integer.parseInt(s);
+        String value = null;
+        String formula = null;
+        StringBuilder inline = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                switch (name) {
+                    case "v":
+                        value = reader.getElementText();
+                        break;
+                    case "f":
+                        formula = reader.getElementText();
+                        break;
+                    case "t":
+                        if (inline == null) {
+                            inline = new StringBuilder();
+                        }
+                        inline.append(reader.getElementText());
+                        break;
+                    case "rPh":
+                        skipElement();
+                        break;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("c")) {
+                break;
+            }
+        }
+        byte type;
+        if (t == null || t.equals("n")) {
+            type = value == null || value.isEmpty() ? BLANK : NUMBER;
+        } else {
+            switch (t) {
+                case "s":
+                    type = SHARED_STRING;
+                    break;
+                case "inlineStr":
+                    type = STRING;
+                    value = inline == null ? value : inline.toString();
+                    break;
+                case "b":
+                    type = BOOLEAN;
+                    break;
+                case "e":
+                    type = ERROR;
+                    break;
+                default:
+                    type = STRING;
+                    break;
+            }
+            if (value == null) {
+                type = BLANK;
+            }
+        }
+        types[col] = type;
+        values[col] = value;
+        formulas[col] = formula == null || formula.isEmpty() ? null : formula;
+        lastCellNum = Math.max(lastCellNum, col + 1);
+        return col;
+    }
+
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private void clearCells() {
+        Arrays.fill(types, 0, lastCellNum, BLANK);
+        Arrays.fill(values, 0, lastCellNum, null);
+        Arrays.fill(formulas, 0, lastCellNum, null);
+        Arrays.fill(styles, 0, lastCellNum, 0);
+        lastCellNum = 0;
+    }
+
+    private void ensureCapacity(int size) {
+        if (size > types.length) {
+            int capacity = Math.max(size, types.length * 2);
+            types = Arrays.copyOf(types, capacity);
+            values = Arrays.copyOf(values, capacity);
+            formulas = Arrays.copyOf(formulas, capacity);
+            styles = Arrays.copyOf(styles, capacity);
+        }
+    }
+
+    /**
+     * Current row number (0-based).
+     *
+     * @return row number
+     */
+    int getRowNum() {
+        return rowNum;
+    }
+
+    /**
+     * Current row last cell index plus 1.
+     *
+     * @return last cell number
+     */
+    int getLastCellNum() {
+        return lastCellNum;
+    }
+
+    byte getType(int col) {
+        return col < lastCellNum ? types[col] : BLANK;
+    }
+
+    String getValue(int col) {
+        return col < lastCellNum ? values[col] : null;
+    }
+
+    String getFormula(int col) {
+        return col < lastCellNum ? formulas[col] : null;
+    }
+
+    int getStyle(int col) {
+        return col < lastCellNum ? styles[col] : 0;
+    }
+
+    /**
+     * Column index (0-based) of cell reference, e.g. {@code AB12} -&gt; 27.
+     *
+     * @param ref cell reference
+     * @return column index
+     */
+    static int columnIndex(String ref) {
+        int col = 0;
+        for (int i = 0, j = ref.length(); i < j; i++) {
+            char c = ref.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            col = col * 26 + (c - 'A' + 1);
+        }
+        return col - 1;
+    }
+
+    /**
+     * Row index (0-based) of cell reference, e.g. {@code AB12} -&gt; 11.
+     *
+     * @param ref cell reference
+     * @return row index or -1 if the reference has no row
+     */
+    static int rowIndex(String ref) {
+        int row = 0;
+        boolean digits = false;
+        for (int i = 0, j = ref.length(); i < j; i++) {
+            char c = ref.charAt(i);
+            if (c >= '0' && c <= '9') {
+                row = row * 10 + (c - '0');
+                digits = true;
+            }
+        }
+        return digits ? row - 1 : -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            inputStream.close();
+        }
+    }
+}
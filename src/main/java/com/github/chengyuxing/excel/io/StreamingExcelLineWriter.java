@@ -0,0 +1,560 @@
+package com.github.chengyuxing.excel.io;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.ss.util.WorkbookUtil;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Big Excel (.xlsx) file line-mode data writer, the sheet xml is written into the zip output stream
+ * directly as the rows arrive, without POI workbook model, temp files and per cell objects.<br>
+ * The sheets are written one by one: creating a new sheet finishes the previous sheet,
+ * the finished sheet could not be written any more.<br>
+ * The strings are written as inline strings by default, or as shared strings
+ * by {@link #sharedStrings(boolean)} (smaller file for repeated strings, the unique strings are kept in memory).<br>
+ * All values are written as strings by default, or as typed cells by {@link #typedCells(CellValues)}.
+ */
+public class StreamingExcelLineWriter implements AutoCloseable {
+    private static final String NS_MAIN = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String NS_R = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String NS_PR = "http://schemas.openxmlformats.org/package/2006/relationships";
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final int MAX_ROWS = 1048576;
+    // cellXfs indexes of styles.xml
+    private static final String DATE_STYLE = "1";
+    private static final String DATE_TIME_STYLE = "2";
+
+    private final OutputStream out;
+    private final boolean ownOutput;
+    private final ZipOutputStream zip;
+    private final Writer writer;
+    private final List<LineSheet> sheets = new ArrayList<>();
+    private final Map<String, Integer> sharedStringIndexes = new HashMap<>();
+    private final List<String> sharedStringItems = new ArrayList<>();
+    private boolean sharedStrings = false;
+    private CellValues cellValues;
+    private long sharedStringCount = 0;
+    private String[] columnNames = new String[0];
+    private LineSheet current;
+    private boolean closed = false;
+
+    /**
+     * Constructs a StreamingExcelLineWriter with OutputStream, the output stream is not closed by the writer.
+     *
+     * @param out output stream
+     */
+    public StreamingExcelLineWriter(OutputStream out) {
+        this(out, false);
+    }
+
+    /**
+     * Constructs a StreamingExcelLineWriter with File.
+     *
+     * @param file excel file
+     * @throws IOException if create file failed
+     */
+    public StreamingExcelLineWriter(File file) throws IOException {
+        this(new FileOutputStream(file), true);
+    }
+
+    private StreamingExcelLineWriter(OutputStream out, boolean ownOutput) {
+        this.out = out;
+        this.ownOutput = ownOutput;
+        this.zip = new ZipOutputStream(out);
+        this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    /**
+     * Write strings as shared strings instead of inline strings.
+     *
+     * @param sharedStrings shared strings or not
+     * @return StreamingExcelLineWriter
+     */
+    public StreamingExcelLineWriter sharedStrings(boolean sharedStrings) {
+        if (!sheets.isEmpty()) {
+            throw new IllegalStateException("strings mode must be set before create sheet.");
+        }
+        this.sharedStrings = sharedStrings;
+        return this;
+    }
+
+    /**
+     * Write the numbers, booleans and dates as typed cells by the default converters instead of the strings.
+     *
+     * @return StreamingExcelLineWriter
+     * @see #typedCells(CellValues)
+     */
+    public StreamingExcelLineWriter typedCells() {
+        return typedCells(new CellValues());
+    }
+
+    /**
+     * Write the cells as typed cells by the converters instead of the strings.
+     *
+     * @param cellValues cell value converters
+     * @return StreamingExcelLineWriter
+     */
+    public StreamingExcelLineWriter typedCells(CellValues cellValues) {
+        if (!sheets.isEmpty()) {
+            throw new IllegalStateException("typed cells must be set before create sheet.");
+        }
+        this.cellValues = cellValues;
+        return this;
+    }
+
+    /**
+     * Create a sheet, the previous sheet is finished.
+     *
+     * @param name sheet name
+     * @return sheet
+     */
+    public LineSheet createSheet(String name) {
+        ensureOpen();
+        WorkbookUtil.validateSheetName(name);
+        for (LineSheet sheet : sheets) {
+            if (sheet.name.equalsIgnoreCase(name)) {
+                throw new IllegalStateException("sheet name '" + name + "' already exists.");
+            }
+        }
+        try {
+            finishSheet();
+            return startSheet(name);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private LineSheet startSheet(String name) throws IOException {
+        LineSheet sheet = new LineSheet(this, name, sheets.size() + 1, cellValues == null ? null : cellValues.columns());
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheet.id + ".xml"));
+        writer.write(XML_DECLARATION);
+        writer.write("<worksheet xmlns=\"" + NS_MAIN + "\" xmlns:r=\"" + NS_R + "\"><sheetData>");
+        sheets.add(sheet);
+        current = sheet;
+        return sheet;
+    }
+
+    /**
+     * Write 1 row data into sheet.
+     *
+     * @param sheet   sheet
+     * @param rowData row data
+     */
+    public void writeRow(LineSheet sheet, Collection<?> rowData) {
+        ensureWritable(sheet);
+        try {
+            int r = startRow(sheet);
+            int i = 0;
+            for (Object value : rowData) {
+                writeCell(sheet, r, i++, value);
+            }
+            writer.write("</row>");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Write 1 row data into sheet.
+     *
+     * @param sheet   sheet
+     * @param rowData row data
+     */
+    public void writeRow(LineSheet sheet, Object... rowData) {
+        ensureWritable(sheet);
+        try {
+            int r = startRow(sheet);
+            for (int i = 0; i < rowData.length; i++) {
+                writeCell(sheet, r, i, rowData[i]);
+            }
+            writer.write("</row>");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("writer is closed.");
+        }
+    }
+
+    private void ensureWritable(LineSheet sheet) {
+        ensureOpen();
+        if (sheet.owner != this) {
+            throw new IllegalArgumentException("sheet '" + sheet.name + "' not exists.");
+        }
+        if (sheet != current) {
+            throw new IllegalStateException("sheet '" + sheet.name + "' is finished, the sheets must be written one by one.");
+        }
+        if (sheet.rows >= MAX_ROWS) {
+            throw new IllegalStateException("sheet '" + sheet.name + "' exceeds max rows: " + MAX_ROWS);
+        }
+    }
+
+    /**
+     * Start a row element.
+     *
+     * @param sheet sheet
+     * @return row number (1-based)
+     * @throws IOException if io error
+     */
+    private int startRow(LineSheet sheet) throws IOException {
+        int r = ++sheet.rows;
+        writer.write("<row r=\"");
+        writer.write(Integer.toString(r));
+        writer.write("\">");
+        return r;
+    }
+
+    /**
+     * Write a cell, null and empty string are skipped.
+     *
+     * @param sheet sheet
+     * @param r     row number (1-based)
+     * @param col   column index
+     * @param value cell value
+     * @throws IOException if io error
+     */
+    private void writeCell(LineSheet sheet, int r, int col, Object value) throws IOException {
+        if (sheet.columns != null) {
+            value = sheet.columns.convert(col, value);
+            if (value instanceof Number) {
+                String number = numberText((Number) value);
+                if (number != null) {
+                    startCell(r, col);
+                    writeValue(number);
+                    return;
+                }
+            } else if (value instanceof Boolean) {
+                startCell(r, col);
+                writer.write(" t=\"b\"");
+                writeValue((Boolean) value ? "1" : "0");
+                return;
+            } else if (value instanceof LocalDateTime) {
+                if (writeDate(r, col, DateUtil.getExcelDate((LocalDateTime) value), DATE_TIME_STYLE)) {
+                    return;
+                }
+            } else if (value instanceof LocalDate) {
+                if (writeDate(r, col, DateUtil.getExcelDate((LocalDate) value), DATE_STYLE)) {
+                    return;
+                }
+            } else if (value instanceof Date) {
+                if (writeDate(r, col, DateUtil.getExcelDate((Date) value), DATE_TIME_STYLE)) {
+                    return;
+                }
+            }
+        }
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.isEmpty()) {
+            return;
+        }
+        startCell(r, col);
+        if (sharedStrings) {
+            writer.write(" t=\"s\"");
+            writeValue(Integer.toString(sharedStringIndex(text)));
+        } else {
+            writer.write(" t=\"inlineStr\"><is>");
+            writeText(text);
+            writer.write("</is></c>");
+        }
+    }
+
+    private void startCell(int r, int col) throws IOException {
+        writer.write("<c r=\"");
+        writer.write(columnName(col));
+        writer.write(Integer.toString(r));
+        writer.write('"');
+    }
+
+    private void writeValue(String value) throws IOException {
+        writer.write("><v>");
+        writer.write(value);
+        writer.write("</v></c>");
+    }
+
+    /**
+     * Write a date cell.
+     *
+     * @param r      row number (1-based)
+     * @param col    column index
+     * @param serial excel date serial number
+     * @param style  date style index
+     * @return false if the date is out of excel dates range
+     * @throws IOException if io error
+     */
+    private boolean writeDate(int r, int col, double serial, String style) throws IOException {
+        if (serial < 0) {
+            return false;
+        }
+        startCell(r, col);
+        writer.write(" s=\"");
+        writer.write(style);
+        writer.write('"');
+        writeValue(numberText(serial));
+        return true;
+    }
+
+    /**
+     * Number text of the cell value.
+     *
+     * @param number number
+     * @return number text or null if the number is NaN or infinite
+     */
+    private static String numberText(Number number) {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+            return number.toString();
+        }
+        double d = number.doubleValue();
+        if (Double.isNaN(d) || Double.isInfinite(d)) {
+            return null;
+        }
+        if (d == Math.rint(d) && Math.abs(d) < 1e15) {
+            return Long.toString((long) d);
+        }
+        return Double.toString(d);
+    }
+
+    private String columnName(int col) {
+        if (col >= columnNames.length) {
+            columnNames = Arrays.copyOf(columnNames, Math.max(col + 1, columnNames.length * 2));
+        }
+        String name = columnNames[col];
+        if (name == null) {
+            name = CellReference.convertNumToColString(col);
+            columnNames[col] = name;
+        }
+        return name;
+    }
+
+    private int sharedStringIndex(String text) {
+        sharedStringCount++;
+        Integer index = sharedStringIndexes.get(text);
+        if (index == null) {
+            index = sharedStringItems.size();
+            sharedStringIndexes.put(text, index);
+            sharedStringItems.add(text);
+        }
+        return index;
+    }
+
+    /**
+     * Write {@code <t>} element, the leading or trailing whitespaces are preserved.
+     *
+     * @param text text
+     * @throws IOException if io error
+     */
+    private void writeText(String text) throws IOException {
+        if (Character.isWhitespace(text.charAt(0)) || Character.isWhitespace(text.charAt(text.length() - 1))) {
+            writer.write("<t xml:space=\"preserve\">");
+        } else {
+            writer.write("<t>");
+        }
+        writeEscaped(text);
+        writer.write("</t>");
+    }
+
+    /**
+     * Write xml escaped text, the invalid xml chars are replaced by {@code ?}.
+     *
+     * @param text text
+     * @throws IOException if io error
+     */
+    private void writeEscaped(String text) throws IOException {
+        int last = 0;
+        for (int i = 0, j = text.length(); i < j; i++) {
+            char c = text.charAt(i);
+            String replacement;
+            switch (c) {
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    replacement = "&gt;";
+                    break;
+                case '&':
+                    replacement = "&amp;";
+                    break;
+                case '"':
+                    replacement = "&quot;";
+                    break;
+                case '\t':
+                case '\n':
+                    continue;
+                case '\r':
+                    replacement = "&#xd;";
+                    break;
+                default:
+                    if (c < 0x20 || c == 0xFFFE || c == 0xFFFF) {
+                        replacement = "?";
+                        break;
+                    }
+                    continue;
+            }
+            writer.write(text, last, i - last);
+            writer.write(replacement);
+            last = i + 1;
+        }
+        writer.write(text, last, text.length() - last);
+    }
+
+    private void finishSheet() throws IOException {
+        if (current == null) {
+            return;
+        }
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+        current = null;
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.write(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private void writeSharedStrings() throws IOException {
+        zip.putNextEntry(new ZipEntry("xl/sharedStrings.xml"));
+        writer.write(XML_DECLARATION);
+        writer.write("<sst xmlns=\"" + NS_MAIN + "\" count=\"" + sharedStringCount + "\" uniqueCount=\"" + sharedStringItems.size() + "\">");
+        for (String item : sharedStringItems) {
+            writer.write("<si>");
+            writeText(item);
+            writer.write("</si>");
+        }
+        writer.write("</sst>");
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    /**
+     * Finish the last sheet and write the workbook parts.
+     *
+     * @throws IOException if io error
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (sheets.isEmpty()) {
+                // excel requires at least 1 sheet
+                startSheet("Sheet1");
+            }
+            finishSheet();
+            if (sharedStrings) {
+                writeSharedStrings();
+            }
+            StringBuilder contentTypes = new StringBuilder(XML_DECLARATION)
+                    .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                    .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                    .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                    .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>")
+                    .append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+            if (sharedStrings) {
+                contentTypes.append("<Override PartName=\"/xl/sharedStrings.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml\"/>");
+            }
+            StringBuilder workbook = new StringBuilder(XML_DECLARATION)
+                    .append("<workbook xmlns=\"").append(NS_MAIN).append("\" xmlns:r=\"").append(NS_R).append("\"><sheets>");
+            StringBuilder workbookRels = new StringBuilder(XML_DECLARATION)
+                    .append("<Relationships xmlns=\"").append(NS_PR).append("\">");
+            for (LineSheet sheet : sheets) {
+                contentTypes.append("<Override PartName=\"/xl/worksheets/sheet").append(sheet.id)
+                        .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+                workbook.append("<sheet name=\"").append(escapeAttribute(sheet.name))
+                        .append("\" sheetId=\"").append(sheet.id)
+                        .append("\" r:id=\"rId").append(sheet.id).append("\"/>");
+                workbookRels.append("<Relationship Id=\"rId").append(sheet.id)
+                        .append("\" Type=\"").append(NS_R).append("/worksheet\" Target=\"worksheets/sheet").append(sheet.id).append(".xml\"/>");
+            }
+            int next = sheets.size() + 1;
+            workbookRels.append("<Relationship Id=\"rId").append(next++)
+                    .append("\" Type=\"").append(NS_R).append("/styles\" Target=\"styles.xml\"/>");
+            if (sharedStrings) {
+                workbookRels.append("<Relationship Id=\"rId").append(next)
+                        .append("\" Type=\"").append(NS_R).append("/sharedStrings\" Target=\"sharedStrings.xml\"/>");
+            }
+            contentTypes.append("</Types>");
+            workbook.append("</sheets></workbook>");
+            workbookRels.append("</Relationships>");
+
+            writeEntry("[Content_Types].xml", contentTypes.toString());
+            writeEntry("_rels/.rels", XML_DECLARATION +
+                    "<Relationships xmlns=\"" + NS_PR + "\">" +
+                    "<Relationship Id=\"rId1\" Type=\"" + NS_R + "/officeDocument\" Target=\"xl/workbook.xml\"/>" +
+                    "</Relationships>");
+            writeEntry("xl/workbook.xml", workbook.toString());
+            writeEntry("xl/_rels/workbook.xml.rels", workbookRels.toString());
+            writeEntry("xl/styles.xml", XML_DECLARATION +
+                    "<styleSheet xmlns=\"" + NS_MAIN + "\">" +
+                    "<numFmts count=\"2\"><numFmt numFmtId=\"164\" formatCode=\"" + CellValueWriter.DATE_FORMAT + "\"/>" +
+                    "<numFmt numFmtId=\"165\" formatCode=\"" + CellValueWriter.DATE_TIME_FORMAT + "\"/></numFmts>" +
+                    "<fonts count=\"1\"><font><sz val=\"11\"/><name val=\"Calibri\"/><family val=\"2\"/></font></fonts>" +
+                    "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill><fill><patternFill patternType=\"gray125\"/></fill></fills>" +
+                    "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>" +
+                    "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>" +
+                    "<cellXfs count=\"3\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>" +
+                    "<xf numFmtId=\"164\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>" +
+                    "<xf numFmtId=\"165\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/></cellXfs>" +
+                    "</styleSheet>");
+            zip.finish();
+            zip.flush();
+        } finally {
+            if (ownOutput) {
+                out.close();
+            }
+        }
+    }
+
+    private static String escapeAttribute(String value) {
+        return value.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;");
+    }
+
+    /**
+     * Sheet of the streaming line writer.
+     */
+    public static final class LineSheet {
+        private final StreamingExcelLineWriter owner;
+        private final String name;
+        private final int id;
+        private final CellValues.Columns columns;
+        private int rows = 0;
+
+        LineSheet(StreamingExcelLineWriter owner, String name, int id, CellValues.Columns columns) {
+            this.owner = owner;
+            this.name = name;
+            this.id = id;
+            this.columns = columns;
+        }
+
+        public String getSheetName() {
+            return name;
+        }
+
+        /**
+         * Written rows count.
+         *
+         * @return rows count
+         */
+        public int getRowCount() {
+            return rows;
+        }
+    }
+}
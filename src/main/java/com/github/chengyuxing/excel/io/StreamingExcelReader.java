@@ -0,0 +1,664 @@
+package com.github.chengyuxing.excel.io;
+
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.common.UncheckedCloseable;
+import com.github.chengyuxing.excel.type.SheetInfo;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.LocaleUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.jetbrains.annotations.Unmodifiable;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Excel (.xlsx) file streaming reader, parses the sheet xml by StAX
+ * row by row without building the workbook, memory usage is not affected by the row count.<br>
+ * The input stream is spooled to a temp file first and the file entries are read on demand like the file input,
+ * the temp file is deleted while the reader closed.<br>
+ * Notice: formula cells returns the formula text if present, otherwise (e.g. the shared formula)
+ * returns the cached result; formulas could not be evaluated without the workbook,
+ * {@link FormulaMode#CACHED} returns the formula text if there is no cached result,
+ * {@link FormulaMode#EVALUATE} falls back to {@link FormulaMode#CACHED}.
+ */
+public class StreamingExcelReader extends ExcelReader {
+    private final OPCPackage pkg;
+    private final XSSFReader xssfReader;
+    private final File spooled;
+    private List<String> sheetNames;
+    private List<PackagePart> sheetParts;
+    private volatile SharedStringsStore sharedStrings;
+    private int sharedStringsCacheSize = -1;
+    private boolean date1904;
+    private byte[] dateFormats;
+
+    /**
+     * Constructs a StreamingExcelReader with InputStream, the stream is spooled to a temp file
+     * (not loaded on heap) and not closed.
+     *
+     * @param inputStream excel file inputStream
+     * @throws IOException if io error or not a .xlsx file
+     */
+    public StreamingExcelReader(InputStream inputStream) throws IOException {
+        this(System.nanoTime(), spool(inputStream), true);
+    }
+
+    /**
+     * Constructs a StreamingExcelReader with File, file entries are read on demand.
+     *
+     * @param file excel file
+     * @throws IOException if io error or not a .xlsx file
+     */
+    public StreamingExcelReader(File file) throws IOException {
+        this(System.nanoTime(), file, false);
+    }
+
+    private StreamingExcelReader(long start, File file, boolean spooled) throws IOException {
+        // the file entries are read on demand, the file size is reported as bytes read
+        this(openPackage(file, spooled), start, file.length(), spooled ? file : null);
+    }
+
+    private StreamingExcelReader(OPCPackage pkg, long start, long bytes, File spooled) throws IOException {
+        this.pkg = pkg;
+        this.spooled = spooled;
+        try {
+            this.xssfReader = new XSSFReader(pkg);
+        } catch (OpenXML4JException e) {
+            pkg.revert();
+            deleteSpooled();
+            throw new IOException("invalid excel file.", e);
+        }
+        openNanos = System.nanoTime() - start;
+        bytesRead.add(bytes);
+    }
+
+    private static File spool(InputStream inputStream) throws IOException {
+        Path file = Files.createTempFile("rabbit-excel-xlsx", ".xlsx");
+        try {
+            Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file.toFile();
+    }
+
+    private static OPCPackage openPackage(File file, boolean spooled) throws IOException {
+        try {
+            return OPCPackage.open(file, PackageAccess.READ);
+        } catch (OpenXML4JException | RuntimeException e) {
+            if (spooled) {
+                Files.deleteIfExists(file.toPath());
+            }
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            throw new IOException("invalid excel file.", e);
+        }
+    }
+
+    private void deleteSpooled() throws IOException {
+        if (spooled != null) {
+            Files.deleteIfExists(spooled.toPath());
+        }
+    }
+
+    /**
+     * Store the shared strings table in a memory-mapped temp file instead of on heap,
+     * only the recently used string items are cached on heap, it keeps the heap usage bounded
+     * when the workbook contains millions of unique strings.
+     *
+     * @param cacheSize max cached string items count on heap
+     * @return StreamingExcelReader
+     */
+    public StreamingExcelReader fileBackedSharedStrings(int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cache size must not be negative.");
+        }
+        this.sharedStringsCacheSize = cacheSize;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}<br>
+     * Notice: formulas could not be evaluated without the workbook, {@link FormulaMode#EVALUATE} falls back to
+     * {@link FormulaMode#CACHED}, the fallback cells are counted by {@link FormulaMetrics#getFallbacks()}.
+     */
+    @Override
+    public StreamingExcelReader formulas(FormulaMode mode) {
+        super.formulas(mode);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}<br>
+     * The size is the rows count of the sheet dimension (the used range, include the blank rows inside),
+     * the rows are counted by scanning the sheet only if the dimension is missing or a single cell.
+     */
+    @Override
+    public @Unmodifiable List<SheetInfo> getSheets() {
+        loadSheets();
+        List<SheetInfo> sheets = new ArrayList<>();
+        for (int i = 0; i < sheetParts.size(); i++) {
+            int size;
+            try (SheetXmlParser parser = openSheet(i)) {
+                size = parser.dimensionRows();
+                if (size == -1) {
+                    size = parser.countRows();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (size != 0) {
+                sheets.add(SheetInfo.of(i, sheetNames.get(i), size));
+            }
+        }
+        return Collections.unmodifiableList(sheets);
+    }
+
+    @Override
+    protected Stream<DataRow> readSheet(int sheetIndex) {
+        // the sheet is opened while the first row is requested
+        class LazyRows extends Spliterators.AbstractSpliterator<DataRow> implements AutoCloseable {
+            SheetRows rows;
+
+            LazyRows() {
+                super(Long.MAX_VALUE, Spliterator.ORDERED);
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super DataRow> action) {
+                if (rows == null) {
+                    rows = new SheetRows(sheetIndex);
+                }
+                if (!rows.next()) {
+                    return false;
+                }
+                action.accept(rows.toDataRow());
+                return true;
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (rows != null) {
+                    rows.close();
+                }
+            }
+        }
+        LazyRows spliterator = new LazyRows();
+        return StreamSupport.stream(spliterator, false).onClose(UncheckedCloseable.wrap(spliterator));
+    }
+
+    @Override
+    RowView openRows(int sheetIndex) {
+        return new SheetRows(sheetIndex);
+    }
+
+    @Override
+    protected String sheetName(int sheetIndex) {
+        loadSheets();
+        return sheetNames.get(sheetIndex);
+    }
+
+    @Override
+    protected void closeWorkbook() throws IOException {
+        try {
+            if (sharedStrings != null) {
+                sharedStrings.close();
+            }
+        } finally {
+            try {
+                pkg.revert();
+            } finally {
+                deleteSpooled();
+            }
+        }
+    }
+
+    private String[] createDataHeader(SheetXmlParser parser) {
+        String[] columns = new String[parser.getLastCellNum()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = getText(parser, i);
+        }
+        return createDataHeader(columns);
+    }
+
+    /**
+     * Sheet rows view over the sheet xml parser, the rows before range are skipped without parse cells.
+     */
+    private final class SheetRows extends RowView {
+        private final SheetXmlParser parser;
+        private final String[] names;
+        private final int[] columns;
+        private final int from = rowFrom;
+        private final int to = rowTo;
+        private boolean pending;
+        private int index = 0;
+
+        SheetRows(int sheetIndex) {
+            loadStyles();
+            this.parser = openSheet(sheetIndex);
+            try {
+                // skip the no-need rows
+                int skip = headerIndex;
+                while (skip > 0) {
+                    if (parser.nextRow()) {
+                        skip--;
+                    } else {
+                        break;
+                    }
+                }
+                boolean isCustomFieldMap = fields != null;
+                // if fields customized, skip the default excel header row.
+                if (isCustomFieldMap) {
+                    if (skip >= 0) {
+                        parser.nextRow();
+                    }
+                }
+                if (!parser.nextRow()) {
+                    this.names = new String[0];
+                    this.columns = null;
+                    return;
+                }
+                String[] names = isCustomFieldMap ? fields : createDataHeader(parser);
+                this.columns = selectColumns(names);
+                if (columns != null) {
+                    names = selectNames(names, columns);
+                    parser.selectColumns(columns);
+                }
+                this.names = names;
+                this.pending = true;
+            } catch (RuntimeException e) {
+                try {
+                    parser.close();
+                } catch (IOException ex) {
+                    e.addSuppressed(ex);
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public String[] names() {
+            return names;
+        }
+
+        @Override
+        boolean next() {
+            if (index >= to) {
+                return false;
+            }
+            if (pending) {
+                pending = false;
+                if (index++ >= from) {
+                    return true;
+                }
+            }
+            // skip the rows before range without parse cells
+            while (index < from) {
+                if (!parser.skipRow()) {
+                    return false;
+                }
+                index++;
+            }
+            if (!parser.nextRow()) {
+                return false;
+            }
+            index++;
+            return true;
+        }
+
+        @Override
+        public int getRowNum() {
+            return parser.getRowNum();
+        }
+
+        private int column(int col) {
+            return columns == null ? col : columns[col];
+        }
+
+        @Override
+        public CellType getCellType(int col) {
+            switch (parser.getType(column(col))) {
+                case SheetXmlParser.NUMBER:
+                    return CellType.NUMERIC;
+                case SheetXmlParser.SHARED_STRING:
+                case SheetXmlParser.STRING:
+                    return CellType.STRING;
+                case SheetXmlParser.BOOLEAN:
+                    return CellType.BOOLEAN;
+                case SheetXmlParser.ERROR:
+                    return CellType.ERROR;
+                default:
+                    return CellType.BLANK;
+            }
+        }
+
+        @Override
+        public boolean isDate(int col) {
+            int c = column(col);
+            return parser.getType(c) == SheetXmlParser.NUMBER
+                    && getDateFormat(parser.getStyle(c)) != DateFormats.NONE
+                    && DateUtil.isValidExcelDate(Double.parseDouble(parser.getValue(c)));
+        }
+
+        @Override
+        public boolean isBlank(int col) {
+            int c = column(col);
+            switch (parser.getType(c)) {
+                case SheetXmlParser.BLANK:
+                    return true;
+                case SheetXmlParser.STRING:
+                    return parser.getValue(c).isEmpty();
+                case SheetXmlParser.SHARED_STRING:
+                    return getSharedString(parser.getValue(c)).isEmpty();
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        public double getDouble(int col) {
+            int c = column(col);
+            String value = parser.getValue(c);
+            switch (parser.getType(c)) {
+                case SheetXmlParser.NUMBER:
+                    return Double.parseDouble(value);
+                case SheetXmlParser.SHARED_STRING:
+                    return parseDouble(getSharedString(value));
+                case SheetXmlParser.STRING:
+                    return parseDouble(value);
+                case SheetXmlParser.BOOLEAN:
+                    return value.equals("1") ? 1 : 0;
+                case SheetXmlParser.BLANK:
+                    return 0;
+                default:
+                    return Double.NaN;
+            }
+        }
+
+        @Override
+        public boolean getBoolean(int col) {
+            int c = column(col);
+            String value = parser.getValue(c);
+            switch (parser.getType(c)) {
+                case SheetXmlParser.BOOLEAN:
+                    return value.equals("1");
+                case SheetXmlParser.NUMBER:
+                    return Double.parseDouble(value) != 0;
+                case SheetXmlParser.SHARED_STRING:
+                    return parseBoolean(getSharedString(value));
+                case SheetXmlParser.STRING:
+                    return parseBoolean(value);
+                default:
+                    return false;
+            }
+        }
+
+        @Override
+        public String getString(int col) {
+            int c = column(col);
+            String value = parser.getValue(c);
+            switch (parser.getType(c)) {
+                case SheetXmlParser.SHARED_STRING:
+                    return getSharedString(value);
+                case SheetXmlParser.STRING:
+                case SheetXmlParser.ERROR:
+                    return value;
+                case SheetXmlParser.NUMBER:
+                    return toText(Double.parseDouble(value));
+                case SheetXmlParser.BOOLEAN:
+                    return value.equals("1") ? "true" : "false";
+                default:
+                    return "";
+            }
+        }
+
+        @Override
+        public Date getDate(int col) {
+            int c = column(col);
+            byte type = parser.getType(c);
+            if (type == SheetXmlParser.BLANK) {
+                return null;
+            }
+            if (type != SheetXmlParser.NUMBER) {
+                throw new IllegalStateException("cannot get a date value from a non-numeric cell at row " + (parser.getRowNum() + 1) + ".");
+            }
+            return DateUtil.getJavaDate(Double.parseDouble(parser.getValue(c)), date1904);
+        }
+
+        @Override
+        public LocalDateTime getLocalDateTime(int col) {
+            int c = column(col);
+            byte type = parser.getType(c);
+            if (type == SheetXmlParser.BLANK) {
+                return null;
+            }
+            if (type != SheetXmlParser.NUMBER) {
+                throw new IllegalStateException("cannot get a date value from a non-numeric cell at row " + (parser.getRowNum() + 1) + ".");
+            }
+            return DateUtil.getLocalDateTime(Double.parseDouble(parser.getValue(c)), date1904);
+        }
+
+        @Override
+        public Object getValue(int col) {
+            return StreamingExcelReader.this.getValue(parser, column(col));
+        }
+
+        DataRow toDataRow() {
+            Object[] values = new Object[names.length];
+            for (int x = 0, y = names.length; x < y; x++) {
+                values[x] = getValue(x);
+            }
+            return DataRow.of(names, values);
+        }
+
+        @Override
+        void close() throws IOException {
+            parser.close();
+        }
+    }
+
+    /**
+     * Get cell value by the same rules with {@link ExcelReader#getValue(org.apache.poi.ss.usermodel.Cell)}.
+     *
+     * @param parser sheet parser
+     * @param col    column index
+     * @return value
+     */
+    private Object getValue(SheetXmlParser parser, int col) {
+        String formula = parser.getFormula(col);
+        if (formula != null) {
+            if (formulaMode == FormulaMode.TEXT || parser.getType(col) == SheetXmlParser.BLANK) {
+                return formula;
+            }
+            if (formulaMode == FormulaMode.EVALUATE) {
+                formulaMetrics.fallback();
+            } else {
+                formulaMetrics.cacheHit();
+            }
+        }
+        String value = parser.getValue(col);
+        switch (parser.getType(col)) {
+            case SheetXmlParser.SHARED_STRING:
+                return getSharedString(value);
+            case SheetXmlParser.STRING:
+                return value;
+            case SheetXmlParser.BOOLEAN:
+                return value.equals("1");
+            case SheetXmlParser.NUMBER:
+                double d = Double.parseDouble(value);
+                byte kind = getDateFormat(parser.getStyle(col));
+                if (kind != DateFormats.NONE && DateUtil.isValidExcelDate(d)) {
+                    return DateFormats.toDate(d, date1904, kind, dateMode);
+                }
+                return d;
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * Get cell text by the same rules with {@link org.apache.poi.ss.usermodel.Cell#toString()}.
+     *
+     * @param parser sheet parser
+     * @param col    column index
+     * @return text
+     */
+    private String getText(SheetXmlParser parser, int col) {
+        if (parser.getFormula(col) != null) {
+            return parser.getFormula(col);
+        }
+        if (parser.getType(col) == SheetXmlParser.BOOLEAN) {
+            return parser.getValue(col).equals("1") ? "TRUE" : "FALSE";
+        }
+        if (parser.getType(col) == SheetXmlParser.ERROR) {
+            return parser.getValue(col);
+        }
+        if (parser.getType(col) == SheetXmlParser.NUMBER && getDateFormat(parser.getStyle(col)) != DateFormats.NONE) {
+            double value = Double.parseDouble(parser.getValue(col));
+            if (DateUtil.isValidExcelDate(value)) {
+                SimpleDateFormat sdf = new SimpleDateFormat("dd-MMM-yyyy", LocaleUtil.getUserLocale());
+                sdf.setTimeZone(LocaleUtil.getUserTimeZone());
+                return sdf.format(DateUtil.getJavaDate(value, date1904));
+            }
+        }
+        return getValue(parser, col).toString();
+    }
+
+    private String getSharedString(String index) {
+        SharedStringsStore store = sharedStrings;
+        if (store == null) {
+            synchronized (this) {
+                if (sharedStrings == null) {
+                    sharedStrings = loadSharedStrings();
+                }
+                store = sharedStrings;
+            }
+        }
+        return store.get(Integer.parseInt(index));
+    }
+
+    private SharedStringsStore loadSharedStrings() {
+        try {
+            List<PackagePart> parts = pkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+            if (parts.isEmpty()) {
+                return SharedStringsStore.onHeap(null);
+            }
+            try (InputStream in = parts.get(0).getInputStream()) {
+                if (sharedStringsCacheSize >= 0) {
+                    return SharedStringsStore.fileBacked(in, sharedStringsCacheSize);
+                }
+                return SharedStringsStore.onHeap(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte getDateFormat(int styleIndex) {
+        return styleIndex < dateFormats.length ? dateFormats[styleIndex] : DateFormats.NONE;
+    }
+
+    private synchronized void loadStyles() {
+        if (dateFormats != null) {
+            return;
+        }
+        try {
+            StylesTable stylesTable = xssfReader.getStylesTable();
+            // the date format detection is computed once per style
+            byte[] dateFormats = new byte[stylesTable == null ? 0 : stylesTable.getNumCellStyles()];
+            for (int i = 0; i < dateFormats.length; i++) {
+                XSSFCellStyle style = stylesTable.getStyleAt(i);
+                dateFormats[i] = style == null ? DateFormats.NONE : DateFormats.classify(style.getDataFormat(), style.getDataFormatString());
+            }
+            try (InputStream in = xssfReader.getWorkbookData()) {
+                date1904 = readDate1904(in);
+            }
+            this.dateFormats = dateFormats;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (OpenXML4JException e) {
+            throw new IllegalStateException("failed to read workbook.", e);
+        }
+    }
+
+    private static boolean readDate1904(InputStream workbookData) {
+        try {
+            XMLStreamReader reader = XMLHelper.newXMLInputFactory().createXMLStreamReader(workbookData);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                        String name = reader.getLocalName();
+                        if (name.equals("workbookPr")) {
+                            String date1904 = reader.getAttributeValue(null, "date1904");
+                            return "1".equals(date1904) || "true".equals(date1904);
+                        }
+                        if (name.equals("sheets")) {
+                            return false;
+                        }
+                    }
+                }
+                return false;
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("failed to read workbook.", e);
+        }
+    }
+
+    private synchronized void loadSheets() {
+        if (sheetParts != null) {
+            return;
+        }
+        List<String> names = new ArrayList<>();
+        List<PackagePart> parts = new ArrayList<>();
+        try {
+            XSSFReader.SheetIterator iterator = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+            while (iterator.hasNext()) {
+                iterator.next().close();
+                names.add(iterator.getSheetName());
+                parts.add(iterator.getSheetPart());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (OpenXML4JException e) {
+            throw new IllegalStateException("failed to read workbook.", e);
+        }
+        sheetNames = names;
+        sheetParts = parts;
+    }
+
+    private SheetXmlParser openSheet(int index) {
+        loadSheets();
+        if (index < 0 || index >= sheetParts.size()) {
+            throw new IllegalArgumentException("Sheet index (" + index + ") is out of range (0.." + (sheetParts.size() - 1) + ")");
+        }
+        try {
+            return new SheetXmlParser(sheetParts.get(index).getInputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
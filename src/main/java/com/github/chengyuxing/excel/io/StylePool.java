@@ -0,0 +1,80 @@
+package com.github.chengyuxing.excel.io;
+
+import com.github.chengyuxing.excel.style.XStyle;
+import com.github.chengyuxing.excel.style.props.Border;
+import com.github.chengyuxing.excel.style.props.FillGround;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detached styles pool of the workbook, the equivalent styles (by the cell style properties)
+ * share the same workbook cell style, so the styles count is bounded by the distinct styles
+ * instead of the styled cells.<br>
+ * The detached style is keyed by its border and fill properties, the customized style ({@link XStyle#setStyle})
+ * is applied to a probe cell style first to get the cell style properties key.<br>
+ * The cell styles are created under the workbook lock, the sheets could be written by different threads.
+ */
+final class StylePool {
+    private final Workbook workbook;
+    private final Map<List<Object>, CellStyle> styles = new HashMap<>();
+    private CellStyle probe;
+
+    StylePool(Workbook workbook) {
+        this.workbook = workbook;
+    }
+
+    /**
+     * Get the interned cell style of the detached style.
+     *
+     * @param xStyle detached style
+     * @return workbook cell style
+     */
+    CellStyle intern(XStyle xStyle) {
+        synchronized (workbook) {
+            List<Object> key = xStyle.isCustomized() ? key(probe(xStyle)) : key(xStyle);
+            CellStyle style = styles.get(key);
+            if (style == null) {
+                style = workbook.createCellStyle();
+                style.cloneStyleFrom(workbook.getCellStyleAt(0));
+                xStyle.applyTo(style);
+                styles.put(key, style);
+            }
+            return style;
+        }
+    }
+
+    /**
+     * Apply the customized style to the probe cell style, the probe is created only if there is a customized style.
+     */
+    private CellStyle probe(XStyle xStyle) {
+        if (probe == null) {
+            probe = workbook.createCellStyle();
+        }
+        probe.cloneStyleFrom(workbook.getCellStyleAt(0));
+        xStyle.applyTo(probe);
+        return probe;
+    }
+
+    private static List<Object> key(XStyle s) {
+        Border border = s.getBorder();
+        FillGround background = s.getBackground();
+        FillGround foreground = s.getForeground();
+        return Arrays.asList(border == null ? null : border.getBorderStyle(), border == null ? null : border.getBorderColor(),
+                background == null ? null : background.getColor(), background == null ? null : background.getFill(),
+                foreground == null ? null : foreground.getColor(), foreground == null ? null : foreground.getFill());
+    }
+
+    private static List<Object> key(CellStyle s) {
+        return Arrays.asList(s.getDataFormat(), s.getFontIndex(), s.getHidden(), s.getLocked(), s.getQuotePrefixed(),
+                s.getAlignment(), s.getVerticalAlignment(), s.getWrapText(), s.getShrinkToFit(), s.getRotation(), s.getIndention(),
+                s.getBorderLeft(), s.getBorderRight(), s.getBorderTop(), s.getBorderBottom(),
+                s.getLeftBorderColor(), s.getRightBorderColor(), s.getTopBorderColor(), s.getBottomBorderColor(),
+                s.getFillPattern(), s.getFillForegroundColor(), s.getFillBackgroundColor(),
+                s.getFillForegroundColorColor(), s.getFillBackgroundColorColor());
+    }
+}
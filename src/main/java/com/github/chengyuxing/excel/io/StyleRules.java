@@ -0,0 +1,77 @@
+package com.github.chengyuxing.excel.io;
+
+import com.github.chengyuxing.excel.style.XStyle;
+import com.github.chengyuxing.excel.type.StyleRule;
+import org.apache.poi.ss.usermodel.CellStyle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Style rules compiled for the sheet columns, the rules and their cell styles of each column
+ * are resolved once, so the cells are styled without callbacks and style lookups.
+ */
+final class StyleRules {
+    private final StyleRule[][] rules;
+    private final CellStyle[][] styles;
+
+    private StyleRules(StyleRule[][] rules, CellStyle[][] styles) {
+        this.rules = rules;
+        this.styles = styles;
+    }
+
+    /**
+     * Compile the rules for the sheet columns.
+     *
+     * @param styleRules rules
+     * @param fields     column fields
+     * @param resolver   cell style resolver
+     * @return compiled rules or null if no rules
+     */
+    static StyleRules compile(List<StyleRule> styleRules, List<String> fields, Function<XStyle, CellStyle> resolver) {
+        if (styleRules.isEmpty()) {
+            return null;
+        }
+        StyleRule[][] rules = new StyleRule[fields.size()][];
+        CellStyle[][] styles = new CellStyle[fields.size()][];
+        for (int i = 0; i < fields.size(); i++) {
+            List<StyleRule> columnRules = new ArrayList<>();
+            for (StyleRule rule : styleRules) {
+                if (rule.getField() == null || rule.getField().equals(fields.get(i))) {
+                    columnRules.add(rule);
+                    // the rest rules are unreachable
+                    if (rule.getRowPredicate() == null && rule.getValuePredicate() == null) {
+                        break;
+                    }
+                }
+            }
+            rules[i] = columnRules.toArray(new StyleRule[0]);
+            styles[i] = new CellStyle[rules[i].length];
+            for (int j = 0; j < rules[i].length; j++) {
+                styles[i][j] = resolver.apply(rules[i][j].getStyle());
+            }
+        }
+        return new StyleRules(rules, styles);
+    }
+
+    /**
+     * Get the cell style of the first matched rule.
+     *
+     * @param column column index
+     * @param row    data row index
+     * @param value  cell value
+     * @return cell style or null
+     */
+    CellStyle styleOf(int column, int row, Object value) {
+        StyleRule[] columnRules = rules[column];
+        for (int i = 0; i < columnRules.length; i++) {
+            StyleRule rule = columnRules[i];
+            if ((rule.getRowPredicate() == null || rule.getRowPredicate().test(row)) &&
+                    (rule.getValuePredicate() == null || rule.getValuePredicate().test(value))) {
+                return styles[column][i];
+            }
+        }
+        return null;
+    }
+}
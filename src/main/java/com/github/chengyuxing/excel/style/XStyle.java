@@ -4,11 +4,19 @@ import com.github.chengyuxing.excel.style.props.Border;
 import com.github.chengyuxing.excel.style.props.FillGround;
 import org.apache.poi.ss.usermodel.CellStyle;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Consumer;
 
+/**
+ * Cell style, bound to the workbook cell style (created by {@code ExcelWriter#createStyle()}),
+ * or detached (created by {@link #XStyle()}) which is resolved by the writer, the equivalent detached styles
+ * share the same workbook cell style.
+ */
 public class XStyle {
-    private boolean built = false;
+    private volatile boolean built = false;
     private final CellStyle style;
+    private final List<Consumer<CellStyle>> customs = new ArrayList<>();
     private FillGround background;
     private FillGround foreground;
     private Border border;
@@ -17,8 +25,46 @@ public class XStyle {
         this.style = style;
     }
 
-    public void build() {
+    /**
+     * Constructs a detached XStyle, the workbook cell style is created (or reused) by the writer.
+     */
+    public XStyle() {
+        this.style = null;
+    }
+
+    public boolean isDetached() {
+        return style == null;
+    }
+
+    /**
+     * Check the style has the custom settings by {@link #setStyle(Consumer)}.
+     *
+     * @return true if customized
+     */
+    public synchronized boolean isCustomized() {
+        return !customs.isEmpty();
+    }
+
+    public synchronized void build() {
+        if (style == null) {
+            throw new IllegalStateException("detached style is resolved by the writer.");
+        }
+        applyProps(style);
+        // published after built, the style could be shared by the sheets written in parallel
         built = true;
+    }
+
+    /**
+     * Apply the style properties to the cell style.
+     *
+     * @param target cell style
+     */
+    public synchronized void applyTo(CellStyle target) {
+        customs.forEach(c -> c.accept(target));
+        applyProps(target);
+    }
+
+    private void applyProps(CellStyle style) {
         if (border != null) {
             style.setBorderBottom(border.getBorderStyle());
             style.setBorderTop(border.getBorderStyle());
@@ -40,15 +86,26 @@ public class XStyle {
     }
 
     public CellStyle getStyle() {
+        if (style == null) {
+            throw new IllegalStateException("detached style is resolved by the writer.");
+        }
         if (!built) {
-            build();
+            synchronized (this) {
+                if (!built) {
+                    build();
+                }
+            }
         }
         return style;
     }
 
-    public void setStyle(Consumer<CellStyle> custom) {
+    public synchronized void setStyle(Consumer<CellStyle> custom) {
         built = false;
-        custom.accept(style);
+        if (style == null) {
+            customs.add(custom);
+        } else {
+            custom.accept(style);
+        }
     }
 
     public Border getBorder() {
@@ -0,0 +1,160 @@
+package com.github.chengyuxing.excel.type;
+
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compiled header layout of the {@link XHeader}: the header cells (text, address and style),
+ * the data field of each column and the data start row.<br>
+ * The plan is immutable, so it is compiled once and shared by the concurrent writers, the header is not modified
+ * while written, the header without field map is {@link #bind(List) bound} to the data fields per write.
+ *
+ * @see XHeader#compile()
+ */
+public final class HeaderPlan {
+    /**
+     * Data field of the column which has no field mapping.
+     */
+    public static final String NO_FIELD = "___";
+    private final List<XCell> cells;
+    private final boolean hasFieldMap;
+    private final List<String> fields;
+    private final int columnCount;
+    private final int rowCount;
+    // changes count of the compiled header
+    private final int modCount;
+
+    private HeaderPlan(List<XCell> cells, boolean hasFieldMap, List<String> fields, int columnCount, int rowCount, int modCount) {
+        this.cells = Collections.unmodifiableList(cells);
+        this.hasFieldMap = hasFieldMap;
+        this.fields = Collections.unmodifiableList(fields);
+        this.columnCount = columnCount;
+        this.rowCount = rowCount;
+        this.modCount = modCount;
+    }
+
+    /**
+     * Compile the header.
+     *
+     * @param xHeader header
+     * @return header plan
+     */
+    public static HeaderPlan of(XHeader xHeader) {
+        if (xHeader.isEmpty()) {
+            return new HeaderPlan(new ArrayList<>(0), false, new ArrayList<>(0), 0, 0, xHeader.getModCount());
+        }
+        boolean hasFieldMap = false;
+        for (XRow xRow : xHeader.getRows()) {
+            hasFieldMap = xRow.isHasFieldMap();
+        }
+        // the cells may be added to the rows after the rows added to the header
+        int maxColumnNumber = xHeader.getMaxColumnNumber();
+        for (XRow xRow : xHeader.getRows()) {
+            maxColumnNumber = Math.max(maxColumnNumber, xRow.getMaxColumnNumber());
+        }
+        int columnCount = maxColumnNumber + 1;
+        int rowCount = xHeader.getNextRowNumber();
+        String[] fields = new String[0];
+        if (hasFieldMap) {
+            // maybe header's length > dataRow's length
+            fields = new String[columnCount];
+            Arrays.fill(fields, NO_FIELD);
+        }
+        List<XCell> cells = new ArrayList<>();
+        for (XRow xRow : xHeader.getRows()) {
+            for (XCell xCell : xRow.getCells()) {
+                CellRangeAddress address = xCell.getAddress();
+                if (hasFieldMap && xRow.isHasField(xCell.getField())) {
+                    fields[address.getFirstColumn()] = xCell.getField();
+                }
+                // the auto layout rows are not counted by the header
+                rowCount = Math.max(rowCount, address.getLastRow() + 1);
+                cells.add(new XCell(xCell.getField(), xCell.getText(), address.copy(), xCell.getStyle()));
+            }
+        }
+        return new HeaderPlan(cells, hasFieldMap, Arrays.asList(fields), columnCount, rowCount, xHeader.getModCount());
+    }
+
+    /**
+     * Bind the header without field map to the data fields, the data fields row is added below the header,
+     * the columns out of the data fields are {@link #NO_FIELD}.
+     *
+     * @param dataFields data fields of the first data row
+     * @return the plan with the data fields row or this plan if the header has field map or the data fields are empty
+     */
+    public HeaderPlan bind(List<String> dataFields) {
+        if (hasFieldMap || dataFields.isEmpty() || cells.isEmpty()) {
+            return this;
+        }
+        List<XCell> cells = new ArrayList<>(this.cells.size() + dataFields.size());
+        cells.addAll(this.cells);
+        for (int i = 0; i < dataFields.size(); i++) {
+            String field = dataFields.get(i);
+            cells.add(new XCell(field, field, new CellRangeAddress(rowCount, rowCount, i, i), null));
+        }
+        int columnCount = Math.max(this.columnCount, dataFields.size());
+        String[] fields = new String[columnCount];
+        Arrays.fill(fields, NO_FIELD);
+        for (int i = 0; i < dataFields.size(); i++) {
+            fields[i] = dataFields.get(i);
+        }
+        return new HeaderPlan(cells, false, Arrays.asList(fields), columnCount, rowCount + 1, modCount);
+    }
+
+    int getModCount() {
+        return modCount;
+    }
+
+    public boolean isEmpty() {
+        return cells.isEmpty();
+    }
+
+    /**
+     * Check the header has the data fields mapping.
+     *
+     * @return true or false
+     */
+    public boolean isHasFieldMap() {
+        return hasFieldMap;
+    }
+
+    /**
+     * Get the header cells, the addresses must not be modified.
+     *
+     * @return header cells
+     */
+    public List<XCell> getCells() {
+        return cells;
+    }
+
+    /**
+     * Get the data fields of the columns, empty if the header without field map is not bound.
+     *
+     * @return data fields
+     */
+    public List<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * Get the header columns count.
+     *
+     * @return columns count
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Get the header rows count, it's the row number of the first data row.
+     *
+     * @return rows count
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.chengyuxing.excel.type;
+
+import com.github.chengyuxing.excel.style.XStyle;
+
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Data cells style rule of the sheet, compiled once per sheet by the writer.
+ *
+ * @see XSheet#columnStyle(String, XStyle)
+ * @see XSheet#rowStyle(IntPredicate, XStyle)
+ * @see XSheet#cellStyle(String, Predicate, XStyle)
+ */
+public final class StyleRule {
+    private final String field;
+    private final IntPredicate rowPredicate;
+    private final Predicate<Object> valuePredicate;
+    private final XStyle style;
+
+    StyleRule(String field, IntPredicate rowPredicate, Predicate<Object> valuePredicate, XStyle style) {
+        if (style == null) {
+            throw new IllegalArgumentException("style must not be null.");
+        }
+        this.field = field;
+        this.rowPredicate = rowPredicate;
+        this.valuePredicate = valuePredicate;
+        this.style = style;
+    }
+
+    /**
+     * Get the field of the rule.
+     *
+     * @return field or null if the rule applies to all columns
+     */
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * Get the data row index (0-based) predicate.
+     *
+     * @return row predicate or null
+     */
+    public IntPredicate getRowPredicate() {
+        return rowPredicate;
+    }
+
+    /**
+     * Get the cell value predicate.
+     *
+     * @return value predicate or null
+     */
+    public Predicate<Object> getValuePredicate() {
+        return valuePredicate;
+    }
+
+    public XStyle getStyle() {
+        return style;
+    }
+}
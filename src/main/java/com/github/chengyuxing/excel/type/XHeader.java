@@ -10,6 +10,7 @@ public class XHeader {
     private final List<XRow> rows = new ArrayList<>();
     private int maxColumnNumber = 0;
     private int nextRowNumber = 0;
+    private volatile HeaderPlan plan;
 
     /**
      * Add one row.
@@ -22,9 +23,38 @@ public class XHeader {
         nextRowNumber = Math.max(nextRowNumber, row.getMaxRowNumber() + 1);
         maxColumnNumber = Math.max(maxColumnNumber, row.getMaxColumnNumber());
         rows.add(row);
+        plan = null;
         return this;
     }
 
+    /**
+     * Get the compiled header plan, the plan is cached until the header is changed (a row is added
+     * or a cell is added to the rows), so the header could be shared by the concurrent writers after all cells added.
+     *
+     * @return header plan
+     */
+    public HeaderPlan compile() {
+        HeaderPlan plan = this.plan;
+        if (plan == null || plan.getModCount() != getModCount()) {
+            plan = HeaderPlan.of(this);
+            this.plan = plan;
+        }
+        return plan;
+    }
+
+    /**
+     * Changes count of the rows, the rows are few, so it's cheap to check the cached plan per compile.
+     *
+     * @return changes count
+     */
+    int getModCount() {
+        int modCount = 0;
+        for (XRow row : rows) {
+            modCount += row.getModCount();
+        }
+        return modCount;
+    }
+
     public boolean isEmpty() {
         return rows.isEmpty();
     }
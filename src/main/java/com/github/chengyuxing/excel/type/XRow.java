@@ -15,6 +15,8 @@ public class XRow {
     private boolean hasFieldMap = false;
     private int maxRowNumber = 0;
     private int maxColumnNumber = 0;
+    // changes count, the compiled header plan is invalidated by the changes
+    private int modCount = 0;
 
     /**
      * Add data field map to header column display name.
@@ -37,6 +39,7 @@ public class XRow {
 
         XCell cell = new XCell(field, name, next, cellStyle);
         cells.add(cell);
+        modCount++;
 
         if (isHasField(field)) {
             hasFieldMap = true;
@@ -175,6 +178,10 @@ public class XRow {
         return maxColumnNumber;
     }
 
+    int getModCount() {
+        return modCount;
+    }
+
     public boolean isHasField(String field) {
         return !field.startsWith("#") && !field.endsWith("#");
     }
@@ -4,9 +4,10 @@ import com.github.chengyuxing.common.DataRow;
 import com.github.chengyuxing.common.TiFunction;
 import com.github.chengyuxing.excel.style.XStyle;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * Excel Sheet data container.
@@ -15,10 +16,12 @@ public class XSheet {
     private String name;
     private XHeader xHeader;
     private List<DataRow> data;
+    private Iterator<DataRow> dataIterator;
     private String emptyColumn = "";
     private final Map<String, Integer> fieldColumnWidths = new HashMap<>();
     private final Map<Integer, Integer> indexColumnWidths = new HashMap<>();
     private TiFunction<DataRow, String, Coord, CellAttr> cellAttr;
+    private final List<StyleRule> styleRules = new ArrayList<>();
     private XStyle headerStyle;
 
     XSheet() {
@@ -65,6 +68,135 @@ public class XSheet {
         return of(name, data, new XHeader());
     }
 
+    /**
+     * Returns a sheet data container with lazy data source, the data is pulled while writing,
+     * the default header fields are derived from the first element.<br>
+     * Notice: the lazy data source could be written only once.
+     *
+     * @param name   sheet name
+     * @param data   data iterator
+     * @param header header
+     * @return XSheet
+     */
+    public static XSheet of(String name, Iterator<DataRow> data, XHeader header) {
+        XSheet sheet = new XSheet();
+        sheet.setName(name);
+        sheet.setDataIterator(data);
+        sheet.setXHeader(header);
+        return sheet;
+    }
+
+    /**
+     * Returns a sheet data container with lazy data source.
+     *
+     * @param name   sheet name
+     * @param data   data iterator
+     * @param header header
+     * @return XSheet
+     * @see #of(String, Iterator, XHeader)
+     */
+    public static XSheet of(String name, Iterator<DataRow> data, XRow header) {
+        XHeader xHeader = new XHeader();
+        xHeader.add(header);
+        return of(name, data, xHeader);
+    }
+
+    /**
+     * Returns a sheet data container with lazy data source.
+     *
+     * @param name sheet name
+     * @param data data iterator
+     * @return XSheet
+     * @see #of(String, Iterator, XHeader)
+     */
+    public static XSheet of(String name, Iterator<DataRow> data) {
+        return of(name, data, new XHeader());
+    }
+
+    /**
+     * Returns a sheet data container with lazy data source, the stream is not closed by the writer,
+     * e.g.
+     * <blockquote>
+     * <pre>
+     * try (Stream&lt;DataRow&gt; s = ...) {
+     *     writer.write(XSheet.of("sheet1", s)).writeTo(...);
+     * }
+     * </pre>
+     * </blockquote>
+     *
+     * @param name   sheet name
+     * @param data   data stream
+     * @param header header
+     * @return XSheet
+     * @see #of(String, Iterator, XHeader)
+     */
+    public static XSheet of(String name, Stream<DataRow> data, XHeader header) {
+        return of(name, data.iterator(), header);
+    }
+
+    /**
+     * Returns a sheet data container with lazy data source.
+     *
+     * @param name   sheet name
+     * @param data   data stream
+     * @param header header
+     * @return XSheet
+     * @see #of(String, Stream, XHeader)
+     */
+    public static XSheet of(String name, Stream<DataRow> data, XRow header) {
+        return of(name, data.iterator(), header);
+    }
+
+    /**
+     * Returns a sheet data container with lazy data source.
+     *
+     * @param name sheet name
+     * @param data data stream
+     * @return XSheet
+     * @see #of(String, Stream, XHeader)
+     */
+    public static XSheet of(String name, Stream<DataRow> data) {
+        return of(name, data.iterator());
+    }
+
+    /**
+     * Returns a sheet data container with lazy data source.
+     *
+     * @param name   sheet name
+     * @param data   data iterable
+     * @param header header
+     * @return XSheet
+     * @see #of(String, Iterator, XHeader)
+     */
+    public static XSheet of(String name, Iterable<DataRow> data, XHeader header) {
+        return of(name, data.iterator(), header);
+    }
+
+    /**
+     * Returns a sheet data container with lazy data source.
+     *
+     * @param name   sheet name
+     * @param data   data iterable
+     * @param header header
+     * @return XSheet
+     * @see #of(String, Iterator, XHeader)
+     */
+    public static XSheet of(String name, Iterable<DataRow> data, XRow header) {
+        return of(name, data.iterator(), header);
+    }
+
+    /**
+     * Returns a sheet data container with lazy data source.
+     *
+     * @param name sheet name
+     * @param data data iterable
+     * @return XSheet
+     * @see #of(String, Iterator, XHeader)
+     */
+    public static XSheet of(String name, Iterable<DataRow> data) {
+        return of(name, data.iterator());
+    }
+
     public XSheet columnWidth(String field, int width) {
         this.fieldColumnWidths.put(field, width);
         return this;
@@ -83,6 +215,57 @@ public class XSheet {
         this.indexColumnWidths.putAll(columnWidths);
     }
 
+    /**
+     * Style of the data cells of the column.
+     *
+     * @param field field
+     * @param style style
+     * @return XSheet
+     * @see #getStyleRules()
+     */
+    public XSheet columnStyle(String field, XStyle style) {
+        styleRules.add(new StyleRule(field, null, null, style));
+        return this;
+    }
+
+    /**
+     * Style of the data rows matched by the row index, e.g. zebra stripes: {@code rowStyle(i -> i % 2 == 1, gray)}.
+     *
+     * @param rowPredicate data row index (0-based) predicate
+     * @param style        style
+     * @return XSheet
+     * @see #getStyleRules()
+     */
+    public XSheet rowStyle(IntPredicate rowPredicate, XStyle style) {
+        styleRules.add(new StyleRule(null, rowPredicate, null, style));
+        return this;
+    }
+
+    /**
+     * Style of the data cells of the column matched by the cell value.
+     *
+     * @param field          field
+     * @param valuePredicate cell value predicate
+     * @param style          style
+     * @return XSheet
+     * @see #getStyleRules()
+     */
+    public XSheet cellStyle(String field, Predicate<Object> valuePredicate, XStyle style) {
+        styleRules.add(new StyleRule(field, null, valuePredicate, style));
+        return this;
+    }
+
+    /**
+     * Get the data cells style rules, the rules are compiled once per sheet,
+     * the first matched rule of the cell is applied in the added order,
+     * the cell attributes function is applied after the rules.
+     *
+     * @return style rules
+     */
+    public List<StyleRule> getStyleRules() {
+        return styleRules;
+    }
+
     public XStyle getHeaderStyle() {
         return headerStyle;
     }
@@ -91,6 +274,12 @@ public class XSheet {
         this.headerStyle = headerStyle;
     }
 
+    /**
+     * Get the data list.
+     *
+     * @return data list or null if the data source is lazy (stream, iterator or iterable)
+     * @see #getDataIterator()
+     */
     public List<DataRow> getData() {
         return data;
     }
@@ -99,6 +288,25 @@ public class XSheet {
         this.data = data;
     }
 
+    /**
+     * Get the data iterator, the lazy data source returns the same iterator.
+     *
+     * @return data iterator
+     */
+    public Iterator<DataRow> getDataIterator() {
+        if (dataIterator != null) {
+            return dataIterator;
+        }
+        if (data == null) {
+            return Collections.emptyIterator();
+        }
+        return data.iterator();
+    }
+
+    void setDataIterator(Iterator<DataRow> dataIterator) {
+        this.dataIterator = dataIterator;
+    }
+
     public String getName() {
         return name;
     }
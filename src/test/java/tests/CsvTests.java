@@ -0,0 +1,183 @@
+package tests;
+
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.excel.Excels;
+import com.github.chengyuxing.excel.io.CsvReader;
+import com.github.chengyuxing.excel.io.DateMode;
+import com.github.chengyuxing.excel.io.FormulaMode;
+import com.github.chengyuxing.excel.type.SheetInfo;
+import com.github.chengyuxing.excel.type.XHeader;
+import com.github.chengyuxing.excel.type.XRow;
+import com.github.chengyuxing.excel.type.XSheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class CsvTests {
+    static File tempFile(String suffix) throws Exception {
+        File file = File.createTempFile("csv", suffix);
+        file.deleteOnExit();
+        return file;
+    }
+
+    static List<DataRow> rows(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> DataRow.of(new String[]{"id", "name", "remark"},
+                        new Object[]{i, "cyx_" + i, i % 3 == 0 ? "a,\"b\"\r\n昆明市" + i : ""}))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void roundTrip() throws Exception {
+        File file = tempFile(".csv");
+        Excels.csvWriter().write(XSheet.of("users", rows(100000))).writeTo(file);
+        List<DataRow> actual;
+        try (Stream<DataRow> stream = Excels.csvReader(file).bufferSize(1024).stream()) {
+            actual = stream.collect(Collectors.toList());
+        }
+        // the header row is the first row like ExcelReader
+        Assert.assertEquals(100001, actual.size());
+        Assert.assertEquals("id", actual.get(0).get("id"));
+        for (int i = 0; i < 100000; i += 997) {
+            DataRow row = actual.get(i + 1);
+            Assert.assertEquals(String.valueOf(i), row.get("id"));
+            Assert.assertEquals("cyx_" + i, row.get("name"));
+            Assert.assertEquals(i % 3 == 0 ? "a,\"b\"\r\n昆明市" + i : "", row.get("remark"));
+        }
+        Assert.assertEquals(100001, Excels.csvReader(file).getSheets().get(0).getSize());
+    }
+
+    @Test
+    public void tsvHeaderAndFieldMap() throws Exception {
+        File file = tempFile(".tsv");
+        XHeader header = new XHeader()
+                .add(new XRow().add("users", CellRangeAddress.valueOf("A1:B1")))
+                .add(new XRow().set("name", "姓名").set("id", "编号"));
+        Excels.csvWriter().delimiter('\t').charset(Charset.forName("GBK"))
+                .write(XSheet.of("users", rows(10), header))
+                .writeTo(file);
+        List<String> lines = Files.readAllLines(file.toPath(), Charset.forName("GBK"));
+        Assert.assertEquals("users\t", lines.get(0));
+        Assert.assertEquals("姓名\t编号", lines.get(1));
+        Assert.assertEquals("cyx_1\t1", lines.get(3));
+
+        try (Stream<DataRow> stream = Excels.csvReader(file).delimiter('\t').charset(Charset.forName("GBK"))
+                .namedHeaderAt(1)
+                .rows(2, 5)
+                .stream()) {
+            List<DataRow> rows = stream.collect(Collectors.toList());
+            Assert.assertEquals(3, rows.size());
+            Assert.assertEquals("cyx_1", rows.get(0).get("姓名"));
+        }
+        try (Stream<DataRow> stream = Excels.csvReader(file).delimiter('\t').charset(Charset.forName("GBK"))
+                .fieldMap(new String[]{"name", "id"})
+                .namedHeaderAt(1)
+                .columns("id")
+                .stream()) {
+            List<DataRow> rows = stream.collect(Collectors.toList());
+            Assert.assertEquals(10, rows.size());
+            Assert.assertEquals("9", rows.get(9).get("id"));
+            Assert.assertEquals("0", rows.get(0).get("id"));
+            Assert.assertEquals(1, rows.get(9).size());
+        }
+    }
+
+    public static class Person {
+        private int id;
+        private String name;
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    @Test
+    public void inputStream() throws Exception {
+        // BOM, CRLF, empty lines, quoted fields and missing trailing fields
+        byte[] csv = "\uFEFFid,name\r\n1,\"a\"\"b\"\r\n\r\n2\n3,\"x\ny\"".getBytes(StandardCharsets.UTF_8);
+        List<Person> people = new ArrayList<>();
+        CsvReader reader = Excels.csvReader(new ByteArrayInputStream(csv));
+        try (Stream<Person> stream = reader.stream(Person.class)) {
+            stream.forEach(people::add);
+        }
+        Assert.assertEquals(3, people.size());
+        Assert.assertEquals("a\"b", people.get(0).name);
+        Assert.assertNull(people.get(1).name);
+        Assert.assertEquals(3, people.get(2).id);
+        Assert.assertEquals("x\ny", people.get(2).name);
+        try (Stream<DataRow> stream = reader.stream()) {
+            stream.count();
+            Assert.fail("csv input stream could be read only once.");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getMessage().contains("has been read"));
+        }
+    }
+
+    public static class Event {
+        private LocalDate day;
+        private LocalDateTime time;
+        private Date at;
+    }
+
+    @Test
+    public void inputStreamSheetsAndDates() throws Exception {
+        byte[] csv = "day,time,at\n2023-03-01,2023-03-01 08:30:00,2023-03-01T08:30\n,,\n".getBytes(StandardCharsets.UTF_8);
+        CsvReader reader = Excels.csvReader(new ByteArrayInputStream(csv));
+        // the size is unknown, the input stream is not consumed
+        List<SheetInfo> sheets = reader.getSheets();
+        Assert.assertEquals(1, sheets.size());
+        Assert.assertEquals("csv", sheets.get(0).getName());
+        Assert.assertEquals(-1, sheets.get(0).getSize());
+        List<Event> events;
+        try (Stream<Event> stream = reader.stream(Event.class)) {
+            events = stream.collect(Collectors.toList());
+        }
+        Assert.assertEquals(2, events.size());
+        Assert.assertEquals(LocalDate.of(2023, 3, 1), events.get(0).day);
+        Assert.assertEquals(LocalDateTime.of(2023, 3, 1, 8, 30), events.get(0).time);
+        Assert.assertEquals(LocalDateTime.of(2023, 3, 1, 8, 30), events.get(0).at.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime());
+        Assert.assertNull(events.get(1).day);
+
+        try (Stream<Event> stream = Excels.csvReader(new ByteArrayInputStream("day\n2023/03/01".getBytes(StandardCharsets.UTF_8))).stream(Event.class)) {
+            stream.count();
+            Assert.fail("non ISO date parsed.");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getCause().getMessage().contains("2023/03/01"));
+        }
+        // the formulas and dates modes are ignored, the values are still strings
+        try (Stream<DataRow> stream = Excels.csvReader(new ByteArrayInputStream(csv))
+                .formulas(FormulaMode.EVALUATE)
+                .dates(DateMode.JAVA_TIME)
+                .stream()) {
+            List<DataRow> rows = stream.collect(Collectors.toList());
+            Assert.assertEquals(3, rows.size());
+            Assert.assertEquals("2023-03-01", rows.get(1).get(0));
+        }
+        // the longs are parsed without precision loss
+        try (Stream<WriterTests.Longs> stream = Excels.csvReader(new ByteArrayInputStream("a,b\n1234567890123456789,-9007199254740993".getBytes(StandardCharsets.UTF_8)))
+                .stream(WriterTests.Longs.class)) {
+            WriterTests.Longs longs = stream.findFirst().orElseThrow(IllegalStateException::new);
+            Assert.assertEquals(1234567890123456789L, longs.a);
+            Assert.assertEquals(-9007199254740993L, (long) longs.b);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package tests;
+
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.excel.Excels;
+import com.github.chengyuxing.excel.io.DateMode;
+import com.github.chengyuxing.excel.io.ExcelReader;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class DateReaderTests {
+    static File file;
+    static File ledger;
+
+    @BeforeClass
+    public static void init() throws Exception {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2023, Calendar.MARCH, 1, 8, 30, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        file = File.createTempFile("date_reader", ".xlsx");
+        file.deleteOnExit();
+        try (Workbook workbook = new XSSFWorkbook()) {
+            write(workbook, 1000, 2, calendar.getTime());
+            try (OutputStream out = new FileOutputStream(file)) {
+                workbook.write(out);
+            }
+        }
+        ledger = File.createTempFile("date_ledger", ".xls");
+        ledger.deleteOnExit();
+        try (Workbook workbook = new HSSFWorkbook()) {
+            write(workbook, 100, 16, calendar.getTime());
+            try (OutputStream out = new FileOutputStream(ledger)) {
+                workbook.write(out);
+            }
+        }
+    }
+
+    static void write(Workbook workbook, int rows, int columns, Date date) {
+        CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+        CellStyle dateTimeStyle = workbook.createCellStyle();
+        dateTimeStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+        Sheet sheet = workbook.createSheet("dates");
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < columns; i++) {
+            header.createCell(i).setCellValue("c" + i);
+        }
+        for (int i = 1; i <= rows; i++) {
+            Row row = sheet.createRow(i);
+            for (int j = 0; j < columns; j++) {
+                Cell cell = row.createCell(j);
+                cell.setCellValue(date);
+                cell.setCellStyle(j % 2 == 0 ? dateStyle : dateTimeStyle);
+            }
+        }
+    }
+
+    @Test
+    public void javaTime() throws Exception {
+        for (ExcelReader reader : Arrays.asList(Excels.reader(file), Excels.streamingReader(file))) {
+            List<DataRow> rows;
+            try (Stream<DataRow> stream = reader.namedHeaderAt(0).dates(DateMode.JAVA_TIME).stream()) {
+                rows = stream.skip(1).collect(Collectors.toList());
+            }
+            Assert.assertEquals(1000, rows.size());
+            Assert.assertEquals(LocalDate.of(2023, 3, 1), rows.get(0).get("c0"));
+            Assert.assertEquals(LocalDateTime.of(2023, 3, 1, 8, 30), rows.get(0).get("c1"));
+        }
+        for (ExcelReader reader : Arrays.asList(Excels.reader(file), Excels.streamingReader(file))) {
+            try (Stream<DataRow> stream = reader.namedHeaderAt(0).dates(DateMode.LOCAL_DATE_TIME).stream()) {
+                DataRow row = stream.skip(1).findFirst().orElseThrow(IllegalStateException::new);
+                Assert.assertEquals(LocalDateTime.of(2023, 3, 1, 8, 30), row.get("c0"));
+            }
+        }
+    }
+
+    /**
+     * Exposes the cell value conversion.
+     */
+    static class CellReader extends ExcelReader {
+        CellReader(InputStream inputStream) throws IOException {
+            super(inputStream);
+        }
+
+        Object value(Cell cell) {
+            return getValue(cell);
+        }
+    }
+
+    @Test
+    public void cachedDateDetection() throws Exception {
+        try (Workbook workbook = WorkbookFactory.create(ledger, null, true)) {
+            List<Cell> cells = new ArrayList<>();
+            for (Row row : workbook.getSheetAt(0)) {
+                if (row.getRowNum() > 0) {
+                    row.forEach(cells::add);
+                }
+            }
+            Assert.assertEquals(1600, cells.size());
+            for (DateMode mode : DateMode.values()) {
+                try (InputStream in = new FileInputStream(ledger)) {
+                    CellReader reader = new CellReader(in);
+                    reader.dates(mode);
+                    for (Cell cell : cells) {
+                        Object value = reader.value(cell);
+                        if (!DateUtil.isCellDateFormatted(cell) || value instanceof Double) {
+                            Assert.fail("not a date: " + cell.getAddress());
+                        }
+                        if (mode == DateMode.DATE) {
+                            Assert.assertEquals(cell.getDateCellValue(), value);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
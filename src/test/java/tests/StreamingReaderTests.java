@@ -0,0 +1,258 @@
+package tests;
+
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.excel.Excels;
+import com.github.chengyuxing.excel.io.ExcelReader;
+import com.github.chengyuxing.excel.io.FormulaMode;
+import com.github.chengyuxing.excel.io.StreamingExcelLineWriter;
+import com.github.chengyuxing.excel.io.StreamingExcelReader;
+import com.github.chengyuxing.excel.type.SheetInfo;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class StreamingReaderTests {
+    static File file;
+
+    @BeforeClass
+    public static void init() throws Exception {
+        file = File.createTempFile("streaming_reader", ".xlsx");
+        file.deleteOnExit();
+        try (Workbook workbook = new XSSFWorkbook()) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+            Sheet sheet = workbook.createSheet("users");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("name");
+            header.createCell(1).setCellValue("age");
+            header.createCell(3).setCellValue("birthday");
+            header.createCell(4).setCellValue("enabled");
+            header.createCell(5).setCellValue("score");
+            for (int i = 1; i <= 1000; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("cyx" + i);
+                row.createCell(1).setCellValue(i);
+                Cell date = row.createCell(3);
+                date.setCellValue(new Date());
+                date.setCellStyle(dateStyle);
+                row.createCell(4).setCellValue(i % 2 == 0);
+                row.createCell(5).setCellFormula("B" + (i + 1) + "*2");
+            }
+            for (int i = 1; i <= 12; i++) {
+                Sheet month = workbook.createSheet("month" + i);
+                month.createRow(0).createCell(0).setCellValue("amount");
+                for (int j = 1; j <= 500 * i; j++) {
+                    month.createRow(j).createCell(0).setCellValue(j);
+                }
+            }
+            try (OutputStream out = new FileOutputStream(file)) {
+                workbook.write(out);
+            }
+        }
+    }
+
+    @Test
+    public void sameAsReader() throws Exception {
+        List<DataRow> expected;
+        try (Stream<DataRow> stream = Excels.reader(file).stream()) {
+            expected = stream.collect(Collectors.toList());
+        }
+        List<DataRow> actual;
+        try (Stream<DataRow> stream = Excels.streamingReader(file).stream()) {
+            actual = stream.collect(Collectors.toList());
+        }
+        Assert.assertEquals(expected.toString(), actual.toString());
+        Assert.assertEquals(Excels.reader(file).getSheets().toString(), Excels.streamingReader(file).getSheets().toString());
+    }
+
+    @Test
+    public void spooledInputStream() throws Exception {
+        File tmp = new File(System.getProperty("java.io.tmpdir"));
+        FilenameFilter spooled = (dir, name) -> name.startsWith("rabbit-excel-xlsx");
+        int before = Objects.requireNonNull(tmp.list(spooled)).length;
+        List<DataRow> expected;
+        try (Stream<DataRow> stream = Excels.streamingReader(file).stream()) {
+            expected = stream.collect(Collectors.toList());
+        }
+        List<DataRow> actual;
+        try (InputStream in = new FileInputStream(file);
+             Stream<DataRow> stream = Excels.streamingReader(in).stream()) {
+            Assert.assertEquals(before + 1, Objects.requireNonNull(tmp.list(spooled)).length);
+            actual = stream.collect(Collectors.toList());
+        }
+        Assert.assertEquals(expected.toString(), actual.toString());
+        // the temp file is deleted while the reader closed
+        Assert.assertEquals(before, Objects.requireNonNull(tmp.list(spooled)).length);
+    }
+
+    @Test
+    public void sheetsWithoutDimension() throws Exception {
+        File lines = File.createTempFile("streaming_reader_lines", ".xlsx");
+        lines.deleteOnExit();
+        // the line writer does not write the sheet dimension, the rows are counted by scanning
+        try (StreamingExcelLineWriter writer = Excels.streamingLineWriter(lines)) {
+            StreamingExcelLineWriter.LineSheet sheet = writer.createSheet("data");
+            for (int i = 0; i < 100; i++) {
+                writer.writeRow(sheet, i, "cyx" + i);
+            }
+            writer.createSheet("empty");
+        }
+        List<SheetInfo> sheets = Excels.streamingReader(lines).getSheets();
+        Assert.assertEquals(1, sheets.size());
+        Assert.assertEquals(100, sheets.get(0).getSize());
+        Assert.assertEquals(Excels.reader(lines).getSheets().toString(), sheets.toString());
+    }
+
+    @Test
+    public void fileBackedSharedStrings() throws Exception {
+        List<DataRow> expected;
+        try (Stream<DataRow> stream = Excels.streamingReader(file).stream()) {
+            expected = stream.collect(Collectors.toList());
+        }
+        List<DataRow> actual;
+        try (Stream<DataRow> stream = new StreamingExcelReader(file)
+                .fileBackedSharedStrings(16)
+                .stream()) {
+            actual = stream.collect(Collectors.toList());
+        }
+        Assert.assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    public void parallelSheets() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (ExcelReader reader : Arrays.asList(Excels.reader(file), Excels.streamingReader(file))) {
+                Map<SheetInfo, Future<Long>> counts = new LinkedHashMap<>();
+                reader.streams().forEach((sheet, stream) -> counts.put(sheet, executor.submit(() -> {
+                    try (Stream<DataRow> s = stream) {
+                        return s.count();
+                    }
+                })));
+                for (Map.Entry<SheetInfo, Future<Long>> e : counts.entrySet()) {
+                    Assert.assertEquals(e.getKey().getSize(), (long) e.getValue().get());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelStream() throws Exception {
+        List<Object> expected;
+        try (Stream<DataRow> stream = Excels.reader(file).sheetAt(12).stream()) {
+            expected = stream.map(d -> d.get("amount")).collect(Collectors.toList());
+        }
+        List<Object> actual;
+        try (Stream<DataRow> stream = Excels.reader(file).sheetAt(12).stream()) {
+            Assert.assertTrue(stream.spliterator().hasCharacteristics(Spliterator.SIZED));
+        }
+        try (Stream<DataRow> stream = Excels.reader(file).sheetAt(12).stream()) {
+            actual = stream.parallel().map(d -> d.get("amount")).collect(Collectors.toList());
+        }
+        Assert.assertEquals(expected, actual);
+    }
+
+    @Test
+    public void projection() throws Exception {
+        for (ExcelReader reader : Arrays.asList(Excels.reader(file), Excels.streamingReader(file))) {
+            List<DataRow> rows;
+            try (Stream<DataRow> stream = reader.namedHeaderAt(0)
+                    .columns("enabled", "name")
+                    .rows(10, 20)
+                    .stream()) {
+                rows = stream.collect(Collectors.toList());
+            }
+            Assert.assertEquals(10, rows.size());
+            Assert.assertEquals(Arrays.asList("enabled", "name"), rows.get(0).names());
+            Assert.assertEquals("cyx10", rows.get(0).get("name"));
+            Assert.assertEquals("cyx19", rows.get(9).get("name"));
+        }
+    }
+
+    @Test
+    public void unknownColumn() throws Exception {
+        // read twice from the same file, the reader is closed by the failure
+        for (int i = 0; i < 2; i++) {
+            for (boolean streaming : new boolean[]{false, true}) {
+                WriterTests.RecordingListener streamListener = new WriterTests.RecordingListener();
+                ExcelReader reader = streaming ? Excels.streamingReader(file) : Excels.reader(file);
+                try (Stream<DataRow> stream = reader.listener(streamListener).namedHeaderAt(0).columns("name", "missing").stream()) {
+                    stream.count();
+                    Assert.fail("unknown column selected.");
+                } catch (IllegalArgumentException e) {
+                    Assert.assertTrue(e.getMessage().contains("missing"));
+                }
+                Assert.assertTrue(streamListener.counters.containsKey("OPEN"));
+
+                WriterTests.RecordingListener visitListener = new WriterTests.RecordingListener();
+                reader = streaming ? Excels.streamingReader(file) : Excels.reader(file);
+                try {
+                    reader.listener(visitListener).namedHeaderAt(0).columns("missing").read(row -> {
+                    });
+                    Assert.fail("unknown column selected.");
+                } catch (IllegalArgumentException e) {
+                    Assert.assertTrue(e.getMessage().contains("missing"));
+                }
+                Assert.assertTrue(visitListener.counters.containsKey("OPEN"));
+            }
+        }
+    }
+
+    @Test
+    public void fieldMap() throws Exception {
+        try (Stream<DataRow> stream = Excels.streamingReader(file)
+                .namedHeaderAt(0)
+                .fieldMap(new String[]{"name", "age"})
+                .stream()) {
+            List<DataRow> rows = stream.limit(5).collect(Collectors.toList());
+            Assert.assertEquals(Arrays.asList("name", "age"), rows.get(0).names());
+            Assert.assertEquals("cyx1", rows.get(0).get("name"));
+            Assert.assertEquals(5.0, rows.get(4).get("age"));
+        }
+    }
+
+    @Test
+    public void formulas() throws Exception {
+        ExcelReader reader = Excels.reader(file).formulas(FormulaMode.CACHED);
+        try (Stream<DataRow> stream = reader.namedHeaderAt(0).stream()) {
+            // no cached results in the fixture file, evaluated
+            stream.skip(1).forEach(d -> Assert.assertEquals((double) d.get("age") * 2, d.get("score")));
+        }
+        Assert.assertEquals(1000, reader.getFormulaMetrics().getEvaluations());
+
+        File evaluated = File.createTempFile("streaming_reader_evaluated", ".xlsx");
+        evaluated.deleteOnExit();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(file);
+             OutputStream out = new FileOutputStream(evaluated)) {
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            workbook.write(out);
+        }
+        for (ExcelReader r : Arrays.asList(Excels.reader(evaluated), Excels.streamingReader(evaluated))) {
+            r.formulas(FormulaMode.CACHED);
+            try (Stream<DataRow> stream = r.namedHeaderAt(0).stream()) {
+                stream.skip(1).forEach(d -> Assert.assertEquals((double) d.get("age") * 2, d.get("score")));
+            }
+            Assert.assertEquals(1000, r.getFormulaMetrics().getCacheHits());
+            Assert.assertEquals(0, r.getFormulaMetrics().getEvaluations());
+        }
+        // the streaming reader could not evaluate, falls back to the cached results
+        ExcelReader streaming = Excels.streamingReader(evaluated).formulas(FormulaMode.EVALUATE);
+        try (Stream<DataRow> stream = streaming.namedHeaderAt(0).stream()) {
+            stream.skip(1).forEach(d -> Assert.assertEquals((double) d.get("age") * 2, d.get("score")));
+        }
+        Assert.assertEquals(1000, streaming.getFormulaMetrics().getFallbacks());
+        Assert.assertEquals(0, streaming.getFormulaMetrics().getCacheHits());
+    }
+}
@@ -0,0 +1,310 @@
+package tests;
+
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.excel.Excels;
+import com.github.chengyuxing.excel.io.ColumnBatch;
+import com.github.chengyuxing.excel.io.ExcelReader;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class TypedReaderTests {
+    static File file;
+    static final int ROWS = 100000;
+
+    @BeforeClass
+    public static void init() throws Exception {
+        file = File.createTempFile("typed_reader", ".xlsx");
+        file.deleteOnExit();
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook()) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+            Sheet sheet = workbook.createSheet("users");
+            Row header = sheet.createRow(0);
+            String[] names = {"name", "age", "score", "enabled", "birthday", "user_id"};
+            for (int i = 0; i < names.length; i++) {
+                header.createCell(i).setCellValue(names[i]);
+            }
+            Calendar calendar = Calendar.getInstance();
+            calendar.set(1990, Calendar.JANUARY, 1, 0, 0, 0);
+            for (int i = 1; i <= ROWS; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("cyx" + i);
+                row.createCell(1).setCellValue(i % 100);
+                row.createCell(2).setCellValue(i * 0.5);
+                row.createCell(3).setCellValue(i % 2 == 0);
+                row.createCell(4).setCellValue(calendar.getTime());
+                row.getCell(4).setCellStyle(dateStyle);
+                row.createCell(5).setCellValue(i);
+            }
+            try (OutputStream out = new FileOutputStream(file)) {
+                workbook.write(out);
+            }
+            workbook.dispose();
+        }
+    }
+
+    public static class Person {
+        private String name;
+        private int age;
+        private double score;
+        private boolean enabled;
+        private LocalDate birthday;
+        private Long userId;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public void setScore(double score) {
+            this.score = score;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public LocalDate getBirthday() {
+            return birthday;
+        }
+
+        public void setBirthday(LocalDate birthday) {
+            this.birthday = birthday;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+    }
+
+    @Test
+    public void typedStream() throws Exception {
+        for (ExcelReader reader : Arrays.asList(Excels.reader(file), Excels.streamingReader(file))) {
+            List<Person> people;
+            try (Stream<Person> stream = reader.rows(0, 10).stream(Person.class)) {
+                people = stream.collect(Collectors.toList());
+            }
+            Assert.assertEquals(9, people.size());
+            Person p = people.get(0);
+            Assert.assertEquals("cyx1", p.getName());
+            Assert.assertEquals(1, p.getAge());
+            Assert.assertEquals(0.5, p.getScore(), 0);
+            Assert.assertFalse(p.isEnabled());
+            Assert.assertEquals(LocalDate.of(1990, 1, 1), p.getBirthday());
+            Assert.assertEquals(Long.valueOf(1), p.getUserId());
+        }
+    }
+
+    public enum Level {
+        LOW, HIGH
+    }
+
+    public static class Member {
+        private String name;
+        private Level level;
+        private char grade;
+        private List<String> tags;
+
+        public String getName() {
+            return name;
+        }
+
+        public Level getLevel() {
+            return level;
+        }
+
+        public char getGrade() {
+            return grade;
+        }
+    }
+
+    @Test
+    public void enumAndUnsupportedFields() throws Exception {
+        File members = File.createTempFile("typed_reader_members", ".xlsx");
+        members.deleteOnExit();
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("members");
+            String[][] rows = {{"name", "level", "grade", "tags"}, {"cyx", "HIGH", "A", "a,b"}, {"jack", " LOW ", "B", ""}};
+            for (int i = 0; i < rows.length; i++) {
+                Row row = sheet.createRow(i);
+                for (int j = 0; j < rows[i].length; j++) {
+                    row.createCell(j).setCellValue(rows[i][j]);
+                }
+            }
+            try (OutputStream out = new FileOutputStream(members)) {
+                workbook.write(out);
+            }
+            workbook.dispose();
+        }
+        for (ExcelReader reader : Arrays.asList(Excels.reader(members), Excels.streamingReader(members))) {
+            List<Member> list;
+            try (Stream<Member> stream = reader.columns("name", "level", "grade").stream(Member.class)) {
+                list = stream.collect(Collectors.toList());
+            }
+            Assert.assertEquals(Level.HIGH, list.get(0).getLevel());
+            Assert.assertEquals(Level.LOW, list.get(1).getLevel());
+            Assert.assertEquals('B', list.get(1).getGrade());
+        }
+        // the bound property of unsupported type is not skipped silently
+        try {
+            Excels.reader(members).stream(Member.class);
+            Assert.fail("unsupported property type mapped");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("'tags'"));
+        }
+    }
+
+    @Test
+    public void batches() throws Exception {
+        for (ExcelReader reader : Arrays.asList(Excels.reader(file), Excels.streamingReader(file))) {
+            int[] count = {0};
+            try (Stream<ColumnBatch> stream = reader.rows(0, 25001).batches(4096)) {
+                stream.forEach(batch -> {
+                    Assert.assertEquals(ColumnBatch.Type.STRING, batch.getType(0));
+                    Assert.assertEquals(ColumnBatch.Type.LONG, batch.getType(1));
+                    Assert.assertEquals(ColumnBatch.Type.DOUBLE, batch.getType(2));
+                    Assert.assertEquals(ColumnBatch.Type.BOOLEAN, batch.getType(3));
+                    Assert.assertEquals(ColumnBatch.Type.DATE, batch.getType(4));
+                    double[] scores = batch.getDoubles(2);
+                    long[] ids = batch.getLongs(5);
+                    for (int i = 0; i < batch.size(); i++) {
+                        long id = count[0] + i + 1;
+                        Assert.assertEquals(id, ids[i]);
+                        Assert.assertEquals(id * 0.5, scores[i], 0);
+                        Assert.assertEquals("cyx" + id, batch.getString(0, i));
+                    }
+                    count[0] += batch.size();
+                });
+            }
+            Assert.assertEquals(25000, count[0]);
+        }
+    }
+
+    @Test
+    public void widenBatchColumns() throws Exception {
+        File mixed = File.createTempFile("typed_reader_mixed", ".xlsx");
+        mixed.deleteOnExit();
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook()) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+            Sheet sheet = workbook.createSheet("mixed");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("amount");
+            header.createCell(1).setCellValue("code");
+            header.createCell(2).setCellValue("day");
+            header.createCell(3).setCellValue("note");
+            for (int i = 1; i <= 20; i++) {
+                Row row = sheet.createRow(i);
+                // the first batch is integral, a fractional value in the third batch
+                row.createCell(0).setCellValue(i == 12 ? 3.7 : i);
+                if (i == 13) {
+                    row.createCell(1).setCellValue("N/A");
+                    row.createCell(2).setCellValue("unknown");
+                } else {
+                    row.createCell(1).setCellValue(i);
+                    row.createCell(2).setCellValue(new Date(0));
+                    row.getCell(2).setCellStyle(dateStyle);
+                }
+                // a string column of the first batch with the dates
+                if (i == 1) {
+                    row.createCell(3).setCellValue("text");
+                } else {
+                    row.createCell(3).setCellValue(new Date(0));
+                    row.getCell(3).setCellStyle(dateStyle);
+                }
+            }
+            try (OutputStream out = new FileOutputStream(mixed)) {
+                workbook.write(out);
+            }
+            workbook.dispose();
+        }
+        String epoch = LocalDateTime.ofInstant(Instant.ofEpochMilli(0), ZoneId.systemDefault()).toString();
+        for (ExcelReader reader : Arrays.asList(Excels.reader(mixed), Excels.streamingReader(mixed))) {
+            List<String> types = new ArrayList<>();
+            Set<Integer> dateCodes = new HashSet<>();
+            try (Stream<ColumnBatch> stream = reader.batches(5)) {
+                stream.forEach(batch -> {
+                    types.add(batch.getType(0) + "," + batch.getType(1) + "," + batch.getType(2));
+                    // the same date has the same code in the first, the widened and the next batches
+                    for (int i = 0; i < batch.size(); i++) {
+                        if (types.size() > 1 || i > 0) {
+                            Assert.assertEquals(epoch, batch.getString(3, i));
+                            dateCodes.add(batch.getCodes(3)[i]);
+                        }
+                        if (types.size() > 2 && !(types.size() == 3 && i == 2)) {
+                            Assert.assertEquals(epoch, batch.getString(2, i));
+                            dateCodes.add(batch.getCodes(2)[i] + 100);
+                        }
+                    }
+                    if (types.size() == 3) {
+                        // the values before the widened value are converted
+                        Assert.assertEquals(11, batch.getDoubles(0)[0], 0);
+                        Assert.assertEquals(3.7, batch.getDoubles(0)[1], 0);
+                        Assert.assertEquals("12", batch.getString(1, 1));
+                        Assert.assertEquals("N/A", batch.getString(1, 2));
+                        Assert.assertEquals("unknown", batch.getString(2, 2));
+                    }
+                });
+            }
+            Assert.assertEquals(Arrays.asList("LONG,LONG,DATE", "LONG,LONG,DATE", "DOUBLE,STRING,STRING", "DOUBLE,STRING,STRING"), types);
+            Assert.assertEquals(2, dateCodes.size());
+        }
+    }
+
+    @Test
+    public void visitor() throws Exception {
+        for (ExcelReader reader : Arrays.asList(Excels.reader(file), Excels.streamingReader(file))) {
+            long[] sum = {0, 0};
+            reader.read(row -> {
+                int age = row.indexOf("age");
+                if (!row.isBlank(age)) {
+                    sum[0] += row.getLong(age);
+                }
+                if (row.getBoolean(3)) {
+                    sum[1]++;
+                }
+            });
+            Assert.assertEquals(ROWS / 100 * 4950, sum[0]);
+            Assert.assertEquals(ROWS / 2, sum[1]);
+        }
+    }
+}
@@ -0,0 +1,823 @@
+package tests;
+
+import com.github.chengyuxing.common.DataRow;
+import com.github.chengyuxing.excel.Excels;
+import com.github.chengyuxing.excel.io.BigExcelLineWriter;
+import com.github.chengyuxing.excel.io.CellValues;
+import com.github.chengyuxing.excel.io.DateMode;
+import com.github.chengyuxing.excel.io.ExcelListener;
+import com.github.chengyuxing.excel.io.ExcelPipeline;
+import com.github.chengyuxing.excel.io.ExcelTemplate;
+import com.github.chengyuxing.excel.io.ExcelWriter;
+import com.github.chengyuxing.excel.io.StreamingExcelLineWriter;
+import com.github.chengyuxing.excel.style.XStyle;
+import com.github.chengyuxing.excel.style.props.Border;
+import com.github.chengyuxing.excel.style.props.FillGround;
+import com.github.chengyuxing.excel.type.CellAttr;
+import com.github.chengyuxing.excel.type.HeaderPlan;
+import com.github.chengyuxing.excel.type.SheetInfo;
+import com.github.chengyuxing.excel.type.XHeader;
+import com.github.chengyuxing.excel.type.XRow;
+import com.github.chengyuxing.excel.type.XSheet;
+import org.junit.Assert;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class WriterTests {
+
+    static File tempFile(String name) throws Exception {
+        File file = File.createTempFile(name, ".xlsx");
+        file.deleteOnExit();
+        return file;
+    }
+
+    static Stream<DataRow> rows(int count) {
+        return Stream.iterate(0, i -> i + 1)
+                .limit(count)
+                .map(i -> DataRow.of("id", i, "name", "cyx_" + i, "address", "昆明市" + i));
+    }
+
+    static List<DataRow> readAll(File file) throws Exception {
+        try (Stream<DataRow> stream = Excels.streamingReader(file).stream()) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void streamSheet() throws Exception {
+        File file = tempFile("stream_sheet");
+        try (ExcelWriter writer = Excels.bigExcelWriter();
+             Stream<DataRow> data = rows(100000)) {
+            writer.write(XSheet.of("stream", data)).writeTo(file.getPath());
+        }
+        List<DataRow> rows = readAll(file);
+        Assert.assertEquals(100001, rows.size());
+        Assert.assertEquals("cyx_0", rows.get(1).get("name"));
+        Assert.assertEquals("昆明市99999", rows.get(100000).get("address"));
+    }
+
+    @Test
+    public void iteratorSheet() throws Exception {
+        File file = tempFile("iterator_sheet");
+        Iterator<DataRow> iterator = rows(100).iterator();
+        try (ExcelWriter writer = Excels.writer()) {
+            writer.write(XSheet.of("iterator", iterator, new XRow().set("name", "姓名").set("id", "编号")))
+                    .writeTo(file.getPath());
+        }
+        List<DataRow> rows = readAll(file);
+        Assert.assertEquals(101, rows.size());
+        Assert.assertEquals("cyx_99", rows.get(100).get("姓名"));
+    }
+
+    @Test
+    public void streamingLineWriter() throws Exception {
+        for (boolean shared : new boolean[]{false, true}) {
+            File file = tempFile("streaming_line");
+            try (StreamingExcelLineWriter writer = Excels.streamingLineWriter(file).sharedStrings(shared)) {
+                StreamingExcelLineWriter.LineSheet users = writer.createSheet("users & <roles>");
+                writer.writeRow(users, "id", "name", "remark");
+                for (int i = 0; i < 1000; i++) {
+                    writer.writeRow(users, i, "cyx_" + i, i % 2 == 0 ? " <a href=\"#\">&</a> " : null);
+                }
+                StreamingExcelLineWriter.LineSheet empty = writer.createSheet("empty");
+                Assert.assertEquals(0, empty.getRowCount());
+                try {
+                    writer.writeRow(users, "finished");
+                    Assert.fail("finished sheet written");
+                } catch (IllegalStateException ignored) {
+                }
+            }
+            try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+                Sheet sheet = workbook.getSheet("users & <roles>");
+                Assert.assertEquals(1000, sheet.getLastRowNum());
+                Assert.assertEquals(" <a href=\"#\">&</a> ", sheet.getRow(1).getCell(2).getStringCellValue());
+                Assert.assertNull(sheet.getRow(2).getCell(2));
+                Assert.assertEquals(2, workbook.getNumberOfSheets());
+            }
+            List<DataRow> rows = readAll(file);
+            Assert.assertEquals(1001, rows.size());
+            Assert.assertEquals("cyx_999", rows.get(1000).get("name"));
+        }
+    }
+
+    static Object[] typedRow(int i) {
+        return new Object[]{i, i * 0.5, new BigDecimal("12345678901234567890.5"), i % 2 == 0,
+                LocalDate.of(2023, 3, 1).plusDays(i), LocalDateTime.of(2023, 3, 1, 8, 30).plusMinutes(i),
+                Duration.ofMinutes(i), "cyx_" + i};
+    }
+
+    static void assertTyped(File file) throws Exception {
+        try (Stream<DataRow> stream = Excels.streamingReader(file).dates(DateMode.JAVA_TIME).stream()) {
+            List<DataRow> rows = stream.collect(Collectors.toList());
+            Assert.assertEquals(1001, rows.size());
+            DataRow row = rows.get(11);
+            Assert.assertEquals(10.0, row.get("id"));
+            Assert.assertEquals(5.0, row.get("half"));
+            Assert.assertEquals("12345678901234567890.5", row.get("big"));
+            Assert.assertEquals(true, row.get("even"));
+            Assert.assertEquals(LocalDate.of(2023, 3, 11), row.get("date"));
+            Assert.assertEquals(LocalDateTime.of(2023, 3, 1, 8, 40), row.get("time"));
+            Assert.assertEquals(600.0, row.get("seconds"));
+            Assert.assertEquals("cyx_10", row.get("name"));
+        }
+    }
+
+    @Test
+    public void typedCells() throws Exception {
+        CellValues values = new CellValues().register(Duration.class, Duration::getSeconds);
+        String[] names = {"id", "half", "big", "even", "date", "time", "seconds", "name"};
+
+        File file = tempFile("typed");
+        try (ExcelWriter writer = Excels.bigExcelWriter().typedCells(values)) {
+            writer.write(XSheet.of("typed", Stream.iterate(0, i -> i + 1).limit(1000).map(i -> DataRow.of(names, typedRow(i)))))
+                    .writeTo(file.getPath());
+        }
+        assertTyped(file);
+
+        File lineFile = tempFile("typed_line");
+        try (BigExcelLineWriter writer = Excels.bigExcelLineWriter().typedCells(values)) {
+            Sheet sheet = writer.createSheet("typed");
+            writer.writeRow(sheet, (Object[]) names);
+            for (int i = 0; i < 1000; i++) {
+                writer.writeRow(sheet, typedRow(i));
+            }
+            writer.writeTo(lineFile.getPath());
+        }
+        assertTyped(lineFile);
+
+        File streamingFile = tempFile("typed_streaming");
+        try (StreamingExcelLineWriter writer = Excels.streamingLineWriter(streamingFile).typedCells(values)) {
+            StreamingExcelLineWriter.LineSheet sheet = writer.createSheet("typed");
+            writer.writeRow(sheet, (Object[]) names);
+            for (int i = 0; i < 1000; i++) {
+                writer.writeRow(sheet, typedRow(i));
+            }
+        }
+        assertTyped(streamingFile);
+        try (Stream<DataRow> stream = Excels.reader(streamingFile).dates(DateMode.JAVA_TIME).stream()) {
+            Assert.assertEquals(LocalDate.of(2023, 3, 1), stream.skip(1).findFirst().orElseThrow(IllegalStateException::new).get("date"));
+        }
+
+        File strings = tempFile("strings_line");
+        try (StreamingExcelLineWriter writer = Excels.streamingLineWriter(strings).sharedStrings(true)) {
+            StreamingExcelLineWriter.LineSheet sheet = writer.createSheet("strings");
+            writer.writeRow(sheet, (Object[]) names);
+            for (int i = 0; i < 1000; i++) {
+                writer.writeRow(sheet, typedRow(i));
+            }
+        }
+        try (Stream<DataRow> stream = Excels.streamingReader(strings).stream()) {
+            DataRow row = stream.skip(11).findFirst().orElseThrow(IllegalStateException::new);
+            Assert.assertEquals("10", row.get("id"));
+            Assert.assertEquals("cyx_10", row.get("name"));
+        }
+    }
+
+    @Test
+    public void typedLongs() throws Exception {
+        Object[] longs = {1234567890123456789L, 999999999999999L, -1000000000000000L, new AtomicLong(1234567890123456789L)};
+        File file = tempFile("typed_longs");
+        try (ExcelWriter writer = Excels.writer().typedCells()) {
+            writer.write(XSheet.of("longs", Collections.singletonList(DataRow.of(new String[]{"a", "b", "c", "d"}, longs))))
+                    .writeTo(file.getPath());
+        }
+        File lineFile = tempFile("typed_longs_line");
+        try (BigExcelLineWriter writer = Excels.bigExcelLineWriter().typedCells()) {
+            Sheet sheet = writer.createSheet("longs");
+            writer.writeRow(sheet, "a", "b", "c", "d");
+            writer.writeRow(sheet, longs);
+            writer.writeTo(lineFile.getPath());
+        }
+        File streamingFile = tempFile("typed_longs_streaming");
+        try (StreamingExcelLineWriter writer = Excels.streamingLineWriter(streamingFile).typedCells()) {
+            StreamingExcelLineWriter.LineSheet sheet = writer.createSheet("longs");
+            writer.writeRow(sheet, "a", "b", "c", "d");
+            writer.writeRow(sheet, longs);
+        }
+        // more than 15 digits are written as strings without precision loss
+        for (File f : Arrays.asList(file, lineFile, streamingFile)) {
+            try (Stream<DataRow> stream = Excels.streamingReader(f).stream()) {
+                DataRow row = stream.skip(1).findFirst().orElseThrow(IllegalStateException::new);
+                Assert.assertEquals("1234567890123456789", row.get("a"));
+                Assert.assertEquals(999999999999999.0, row.get("b"));
+                Assert.assertEquals("-1000000000000000", row.get("c"));
+                Assert.assertEquals("1234567890123456789", row.get("d"));
+            }
+            // the long properties are read back exactly
+            try (Stream<Longs> stream = Excels.streamingReader(f).stream(Longs.class)) {
+                Longs row = stream.findFirst().orElseThrow(IllegalStateException::new);
+                Assert.assertEquals(1234567890123456789L, row.a);
+                Assert.assertEquals(999999999999999L, (long) row.b);
+                Assert.assertEquals(-1000000000000000L, row.c);
+                Assert.assertEquals(1234567890123456789L, (long) row.d);
+            }
+        }
+    }
+
+    public static class Longs {
+        long a;
+        Long b;
+        long c;
+        Long d;
+    }
+
+    /**
+     * 12 sheets, each sheet is filled by 2 producers.
+     */
+    static void writeSheets(BigExcelLineWriter writer, ExecutorService executor, File file) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Sheet sheet = writer.createSheet("tenant" + i);
+            for (int p = 0; p < 2; p++) {
+                int producer = p;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 10000; j++) {
+                        writer.writeRow(sheet, producer, j, "cyx_" + j, "昆明市" + j);
+                    }
+                }));
+            }
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        writer.writeTo(file.getPath());
+    }
+
+    @Test
+    public void concurrentLineWriter() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(24);
+        try {
+            File file = tempFile("concurrent_line");
+            try (BigExcelLineWriter writer = Excels.bigExcelLineWriter().concurrent(1024)) {
+                writeSheets(writer, executor, file);
+            }
+            List<SheetInfo> sheets = Excels.streamingReader(file).getSheets();
+            Assert.assertEquals(12, sheets.size());
+            for (SheetInfo sheet : sheets) {
+                Assert.assertEquals(20000, sheet.getSize());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void closeConcurrentLineWriter() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> producer;
+            try (BigExcelLineWriter writer = Excels.bigExcelLineWriter().concurrent(4)) {
+                Sheet sheet = writer.createSheet("users");
+                CountDownLatch started = new CountDownLatch(1);
+                producer = executor.submit(() -> {
+                    int n = 0;
+                    try {
+                        while (true) {
+                            writer.writeRow(sheet, n, "cyx_" + n, "昆明市" + n);
+                            if (++n == 100) {
+                                started.countDown();
+                            }
+                        }
+                    } catch (IllegalStateException e) {
+                        return n;
+                    }
+                });
+                Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+            }
+            // the blocked producer fails after closed instead of hanging
+            Assert.assertTrue(producer.get(10, TimeUnit.SECONDS) >= 100);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    static void writeReport(ExcelWriter writer, File file) throws Exception {
+        for (int i = 0; i < 20; i++) {
+            writer.write(XSheet.of("report" + i, rows(1000)));
+        }
+        writer.writeTo(file.getPath());
+    }
+
+    @Test
+    public void parallelSheets() throws Exception {
+        File sequentialFile = tempFile("sequential_report");
+        try (ExcelWriter writer = Excels.bigExcelWriter()) {
+            writeReport(writer, sequentialFile);
+        }
+        File parallelFile = tempFile("parallel_report");
+        try (ExcelWriter writer = Excels.bigExcelWriter().parallel(4)) {
+            writeReport(writer, parallelFile);
+        }
+        Assert.assertEquals(Excels.streamingReader(sequentialFile).getSheets().toString(), Excels.streamingReader(parallelFile).getSheets().toString());
+        try (Stream<DataRow> expected = Excels.streamingReader(sequentialFile).sheetAt(19).stream();
+             Stream<DataRow> actual = Excels.streamingReader(parallelFile).sheetAt(19).stream()) {
+            Assert.assertEquals(expected.collect(Collectors.toList()).toString(), actual.collect(Collectors.toList()).toString());
+        }
+    }
+
+    static void writeStyledReport(ExcelWriter writer, File file) throws Exception {
+        IndexedColors[] colors = {IndexedColors.RED, IndexedColors.GREEN, IndexedColors.BLUE, IndexedColors.ORANGE};
+        XStyle bordered = new XStyle();
+        bordered.setBorder(new Border(BorderStyle.THIN, IndexedColors.BLACK));
+        for (int i = 0; i < 12; i++) {
+            XSheet sheet = XSheet.of("styled" + i, Stream.iterate(0, n -> n + 1).limit(2000)
+                            .map(n -> DataRow.of("id", n, "name", "cyx_" + n, "date", LocalDate.of(2023, 3, 1).plusDays(n))))
+                    .columnStyle("id", bordered)
+                    .rowStyle(n -> n % 2 == 1, fill(colors[i % colors.length]));
+            // bound styles are built by the sheet threads
+            XStyle header = writer.createStyle();
+            header.setForeground(new FillGround(IndexedColors.values()[10 + i], FillPatternType.SOLID_FOREGROUND));
+            sheet.setHeaderStyle(header);
+            // a new detached style per cell
+            sheet.setCellAttr((row, field, coord) -> {
+                if (field.equals("name") && coord.getX() % 10 == 0) {
+                    CellAttr attr = new CellAttr();
+                    attr.setCellStyle(fill(IndexedColors.LIME));
+                    return attr;
+                }
+                return null;
+            });
+            writer.write(sheet);
+        }
+        writer.writeTo(file.getPath());
+    }
+
+    @Test
+    public void parallelStyledSheets() throws Exception {
+        File sequentialFile = tempFile("sequential_styled");
+        try (ExcelWriter writer = Excels.bigExcelWriter().typedCells()) {
+            writeStyledReport(writer, sequentialFile);
+        }
+        File parallelFile = tempFile("parallel_styled");
+        try (ExcelWriter writer = Excels.bigExcelWriter().typedCells().parallel(6)) {
+            writeStyledReport(writer, parallelFile);
+        }
+        try (Workbook expected = WorkbookFactory.create(sequentialFile, null, true);
+             Workbook actual = WorkbookFactory.create(parallelFile, null, true)) {
+            // the styles are shared by the sheets, not duplicated by the threads
+            Assert.assertEquals(expected.getNumCellStyles(), actual.getNumCellStyles());
+            for (int i = 0; i < 12; i++) {
+                Sheet sheet = actual.getSheetAt(i);
+                Assert.assertEquals(IndexedColors.values()[10 + i].getIndex(), sheet.getRow(0).getCell(0).getCellStyle().getFillForegroundColor());
+                Assert.assertEquals(BorderStyle.THIN, sheet.getRow(1).getCell(0).getCellStyle().getBorderLeft());
+                Assert.assertEquals(IndexedColors.LIME.getIndex(), sheet.getRow(1).getCell(1).getCellStyle().getFillForegroundColor());
+                Assert.assertEquals("yyyy-mm-dd", sheet.getRow(1).getCell(2).getCellStyle().getDataFormatString());
+                for (int r = 1; r <= 2000; r += 97) {
+                    for (int c = 0; c < 3; c++) {
+                        CellStyle e = expected.getSheetAt(i).getRow(r).getCell(c).getCellStyle();
+                        CellStyle a = sheet.getRow(r).getCell(c).getCellStyle();
+                        Assert.assertEquals(e.getFillForegroundColor(), a.getFillForegroundColor());
+                        Assert.assertEquals(e.getBorderLeft(), a.getBorderLeft());
+                        Assert.assertEquals(e.getDataFormatString(), a.getDataFormatString());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void estimateColumnWidths() throws Exception {
+        File file = tempFile("estimate_widths");
+        try (ExcelWriter writer = Excels.bigExcelWriter().estimateColumnWidths();
+             Stream<DataRow> data = rows(1000)) {
+            writer.write(XSheet.of("widths", data)).writeTo(file.getPath());
+        }
+        try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            // "id" -> "999", "cyx_999", "昆明市999" (CJK counted as 2)
+            Assert.assertEquals((3 + 2) * 256, sheet.getColumnWidth(0));
+            Assert.assertEquals((7 + 2) * 256, sheet.getColumnWidth(1));
+            Assert.assertEquals((9 + 2) * 256, sheet.getColumnWidth(2));
+        }
+
+    }
+
+    static XStyle fill(IndexedColors color) {
+        XStyle style = new XStyle();
+        style.setForeground(new FillGround(color, FillPatternType.SOLID_FOREGROUND));
+        return style;
+    }
+
+    @Test
+    public void styleRules() throws Exception {
+        File file = tempFile("style_rules");
+        try (ExcelWriter writer = Excels.writer(); Stream<DataRow> data = rows(1000)) {
+            XStyle bordered = new XStyle();
+            bordered.setBorder(new Border(BorderStyle.THIN, IndexedColors.BLACK));
+            XSheet sheet = XSheet.of("rules", data)
+                    .cellStyle("name", v -> v.toString().endsWith("7"), fill(IndexedColors.RED))
+                    .columnStyle("id", bordered)
+                    .rowStyle(i -> i % 2 == 1, fill(IndexedColors.GREY_25_PERCENT));
+            // equivalent detached styles share 1 cell style
+            sheet.setCellAttr((row, field, coord) -> {
+                if (field.equals("address") && coord.getX() % 10 == 0) {
+                    CellAttr attr = new CellAttr();
+                    attr.setCellStyle(fill(IndexedColors.YELLOW));
+                    return attr;
+                }
+                return null;
+            });
+            writer.write(sheet).writeTo(file.getPath());
+        }
+        try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+            // default + 4 styles
+            Assert.assertEquals(5, workbook.getNumCellStyles());
+            Sheet sheet = workbook.getSheetAt(0);
+            Assert.assertEquals(BorderStyle.THIN, sheet.getRow(2).getCell(0).getCellStyle().getBorderLeft());
+            Assert.assertEquals(IndexedColors.GREY_25_PERCENT.getIndex(), sheet.getRow(2).getCell(1).getCellStyle().getFillForegroundColor());
+            Assert.assertEquals(IndexedColors.RED.getIndex(), sheet.getRow(8).getCell(1).getCellStyle().getFillForegroundColor());
+            Assert.assertEquals(0, sheet.getRow(3).getCell(1).getCellStyle().getIndex());
+            Assert.assertEquals(IndexedColors.YELLOW.getIndex(), sheet.getRow(11).getCell(2).getCellStyle().getFillForegroundColor());
+        }
+
+        // the customized detached styles are compared by a probe cell style
+        File customized = tempFile("customized_styles");
+        try (ExcelWriter writer = Excels.writer(); Stream<DataRow> data = rows(100)) {
+            XSheet sheet = XSheet.of("customized", data);
+            sheet.setCellAttr((row, field, coord) -> {
+                XStyle style = new XStyle();
+                style.setStyle(s -> s.setWrapText(true));
+                CellAttr attr = new CellAttr();
+                attr.setCellStyle(style);
+                return attr;
+            });
+            writer.write(sheet).writeTo(customized.getPath());
+        }
+        try (Workbook workbook = WorkbookFactory.create(customized, null, true)) {
+            // default + probe + 1 style
+            Assert.assertEquals(3, workbook.getNumCellStyles());
+            Assert.assertTrue(workbook.getSheetAt(0).getRow(50).getCell(1).getCellStyle().getWrapText());
+        }
+    }
+
+    /**
+     * Merge each 2 rows of the id column.
+     */
+    static void writeMerges(ExcelWriter writer, int merges, File file) throws Exception {
+        try (Stream<DataRow> data = rows(merges * 2)) {
+            XSheet sheet = XSheet.of("merges", data);
+            sheet.setCellAttr((row, field, coord) -> {
+                if (field.equals("id") && coord.getX() % 2 == 0) {
+                    CellAttr attr = new CellAttr();
+                    attr.setCellRangeAddress(new CellRangeAddress(coord.getX() + 1, coord.getX() + 2, 0, 0));
+                    return attr;
+                }
+                return null;
+            });
+            writer.write(sheet).writeTo(file.getPath());
+        }
+    }
+
+    @Test
+    public void batchMergedRegions() throws Exception {
+        File file = tempFile("merges");
+        try (ExcelWriter writer = Excels.bigExcelWriter().batchMergedRegions()) {
+            writeMerges(writer, 5000, file);
+        }
+        try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+            Assert.assertEquals(5000, workbook.getSheetAt(0).getNumMergedRegions());
+        }
+
+        // overlaps are rejected
+        try (ExcelWriter writer = Excels.bigExcelWriter().batchMergedRegions(); Stream<DataRow> data = rows(10)) {
+            XSheet sheet = XSheet.of("overlaps", data);
+            sheet.setCellAttr((row, field, coord) -> {
+                CellAttr attr = new CellAttr();
+                attr.setCellRangeAddress(coord.getX() == 9 ? new CellRangeAddress(2, 4, 0, 1) : new CellRangeAddress(1, 3, 1, 2));
+                return attr;
+            });
+            writer.write(sheet).writeTo(tempFile("overlaps").getPath());
+            Assert.fail("overlap merged regions written");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getMessage().contains("intersects"));
+        }
+
+        // duplicates are rejected like addMergedRegion
+        for (boolean batched : new boolean[]{true, false}) {
+            try (ExcelWriter writer = batched ? Excels.bigExcelWriter().batchMergedRegions() : Excels.bigExcelWriter();
+                 Stream<DataRow> data = rows(10)) {
+                XSheet sheet = XSheet.of("duplicates", data);
+                sheet.setCellAttr((row, field, coord) -> {
+                    if (coord.getX() == 0 && !field.equals("address")) {
+                        CellAttr attr = new CellAttr();
+                        attr.setCellRangeAddress(new CellRangeAddress(1, 2, 0, 0));
+                        return attr;
+                    }
+                    return null;
+                });
+                writer.write(sheet).writeTo(tempFile("duplicates").getPath());
+                Assert.fail("duplicate merged regions written");
+            } catch (IllegalStateException e) {
+                Assert.assertTrue(e.getMessage().contains("A2:A3"));
+            }
+        }
+    }
+
+    @Test
+    public void pipeline() throws Exception {
+        File source = tempFile("pipeline_source");
+        try (StreamingExcelLineWriter writer = Excels.streamingLineWriter(source).typedCells()) {
+            StreamingExcelLineWriter.LineSheet sheet = writer.createSheet("source");
+            writer.writeRow(sheet, "id", "name", "score");
+            for (int i = 0; i < 200000; i++) {
+                writer.writeRow(sheet, i, "cyx_" + i, i * 0.5);
+            }
+        }
+        File target = tempFile("pipeline_target");
+        ExcelPipeline pipeline = Excels.pipeline(Excels.streamingReader(source))
+                .filter(row -> ((Double) row.get("id")).intValue() % 2 == 0)
+                .map(row -> DataRow.of("id", row.get("id"), "name", row.get("name"), "double", (Double) row.get("score") * 2))
+                .header("double", "Double")
+                .header("id", "编号")
+                .sheetName("target")
+                .buffer(1000);
+        pipeline.writeTo(target);
+        Assert.assertEquals(200000, pipeline.getReadRows());
+        Assert.assertEquals(100000, pipeline.getWrittenRows());
+
+        List<DataRow> rows = readAll(target);
+        Assert.assertEquals(100001, rows.size());
+        Assert.assertEquals("[Double, 编号]", rows.get(0).names().toString());
+        Assert.assertEquals(10.0, rows.get(6).get("Double"));
+        Assert.assertEquals(10.0, rows.get(6).get("编号"));
+        Assert.assertEquals("target", Excels.streamingReader(target).getSheets().get(0).getName());
+    }
+
+    static class RecordingListener implements ExcelListener {
+        final Map<String, Long> counters = new ConcurrentHashMap<>();
+
+        @Override
+        public void phase(Phase phase, String sheet, long nanos) {
+            counters.merge(phase.name(), nanos, Long::sum);
+        }
+
+        @Override
+        public void rows(String sheet, long rows) {
+            counters.merge("rows:" + sheet, rows, Long::sum);
+        }
+
+        @Override
+        public void cells(String sheet, long cells) {
+            counters.merge("cells:" + sheet, cells, Long::sum);
+        }
+
+        @Override
+        public void bytesRead(long bytes) {
+            counters.merge("bytesRead", bytes, Long::sum);
+        }
+
+        @Override
+        public void bytesWritten(long bytes) {
+            counters.merge("bytesWritten", bytes, Long::sum);
+        }
+
+        @Override
+        public void tempFileBytes(long bytes) {
+            counters.merge("tempFileBytes", bytes, Long::sum);
+        }
+    }
+
+    @Test
+    public void listener() throws Exception {
+        File file = tempFile("listener");
+        RecordingListener writeListener = new RecordingListener();
+        try (ExcelWriter writer = Excels.bigExcelWriter().listener(writeListener);
+             Stream<DataRow> data = rows(10000)) {
+            writer.write(XSheet.of("a", data), XSheet.of("b", rows(100).collect(Collectors.toList()))).writeTo(file.getPath());
+        }
+        Assert.assertEquals(10000L, (long) writeListener.counters.get("rows:a"));
+        Assert.assertEquals(30000L, (long) writeListener.counters.get("cells:a"));
+        Assert.assertEquals(100L, (long) writeListener.counters.get("rows:b"));
+        Assert.assertEquals(file.length(), (long) writeListener.counters.get("bytesWritten"));
+        Assert.assertTrue(writeListener.counters.get("tempFileBytes") > 0);
+        Assert.assertTrue(writeListener.counters.containsKey("STYLE"));
+        Assert.assertTrue(writeListener.counters.containsKey("COLUMN_WIDTH"));
+
+        RecordingListener lineListener = new RecordingListener();
+        File lineFile = tempFile("listener_line");
+        try (BigExcelLineWriter writer = Excels.bigExcelLineWriter().listener(lineListener).concurrent(100)) {
+            Sheet sheet = writer.createSheet("line");
+            for (int i = 0; i < 1000; i++) {
+                writer.writeRow(sheet, i, "cyx_" + i);
+            }
+            writer.writeTo(lineFile.getPath());
+        }
+        Assert.assertEquals(1000L, (long) lineListener.counters.get("rows:line"));
+        Assert.assertEquals(2000L, (long) lineListener.counters.get("cells:line"));
+        Assert.assertEquals(lineFile.length(), (long) lineListener.counters.get("bytesWritten"));
+
+        RecordingListener readListener = new RecordingListener();
+        try (Stream<DataRow> stream = Excels.streamingReader(file).listener(readListener).stream()) {
+            Assert.assertEquals(10001, stream.count());
+        }
+        // the header row is included
+        Assert.assertEquals(10001L, (long) readListener.counters.get("rows:a"));
+        Assert.assertEquals(30003L, (long) readListener.counters.get("cells:a"));
+        Assert.assertEquals(file.length(), (long) readListener.counters.get("bytesRead"));
+        Assert.assertTrue(readListener.counters.containsKey("OPEN"));
+
+        RecordingListener visitListener = new RecordingListener();
+        Excels.reader(file).sheetAt(1).listener(visitListener).read(row -> {
+        });
+        Assert.assertEquals(100L, (long) visitListener.counters.get("rows:b"));
+        Assert.assertEquals(300L, (long) visitListener.counters.get("cells:b"));
+        Assert.assertEquals(file.length(), (long) visitListener.counters.get("bytesRead"));
+    }
+
+    static File reportTemplate() throws Exception {
+        File file = tempFile("report_template");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); FileOutputStream out = new FileOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("report");
+            CellStyle bold = workbook.createCellStyle();
+            Font font = workbook.createFont();
+            font.setBold(true);
+            bold.setFont(font);
+            CellStyle money = workbook.createCellStyle();
+            money.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+            Cell title = sheet.createRow(0).createCell(0);
+            title.setCellValue("Monthly report");
+            title.setCellStyle(bold);
+            sheet.addMergedRegion(CellRangeAddress.valueOf("A1:D1"));
+            Row header = sheet.createRow(1);
+            header.createCell(0).setCellValue("编号");
+            header.createCell(1).setCellValue("名称");
+            header.createCell(2).setCellValue("金额");
+            Row data = sheet.createRow(2);
+            data.setHeightInPoints(20);
+            data.createCell(0).setCellValue("${id}");
+            data.createCell(1).setCellValue("${ name }");
+            Cell amount = data.createCell(2);
+            amount.setCellValue("${amount}");
+            amount.setCellStyle(money);
+            data.createCell(3).setCellValue("RMB");
+            Row total = sheet.createRow(3);
+            total.createCell(0).setCellValue("Total");
+            total.getCell(0).setCellStyle(bold);
+            total.createCell(2).setCellFormula("SUM(C3:C3)");
+            total.createCell(3).setCellFormula("C4/COUNT(report!A2:A3)&C2");
+            sheet.addMergedRegion(CellRangeAddress.valueOf("A4:B4"));
+            workbook.createSheet("cover").createRow(0).createCell(0).setCellValue("cover");
+            workbook.write(out);
+        }
+        return file;
+    }
+
+    @Test
+    public void template() throws Exception {
+        ExcelTemplate template = Excels.template(reportTemplate());
+        Assert.assertEquals("[report]", template.getSheetNames().toString());
+        Assert.assertEquals("[id, name, amount]", template.getFields("report").toString());
+        // the template is reused by the reports
+        for (int n : new int[]{1000, 0, 10}) {
+            File file = tempFile("template_report");
+            try (ExcelWriter writer = Excels.writer(template).typedCells().parallel(n == 0 ? 1 : 2)) {
+                List<DataRow> rows = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                    rows.add(DataRow.of("id", i, "name", "cyx_" + i, "amount", i * 1.5));
+                }
+                writer.write(XSheet.of("report", rows), XSheet.of("extra", rows(3))).writeTo(file.getPath());
+            }
+            try (Workbook workbook = new XSSFWorkbook(new FileInputStream(file))) {
+                Sheet sheet = workbook.getSheet("report");
+                Assert.assertEquals("Monthly report", sheet.getRow(0).getCell(0).getStringCellValue());
+                Assert.assertEquals("金额", sheet.getRow(1).getCell(2).getStringCellValue());
+                Assert.assertEquals(2 + n, sheet.getLastRowNum());
+                Assert.assertEquals("Total", sheet.getRow(2 + n).getCell(0).getStringCellValue());
+                Assert.assertEquals(2, sheet.getNumMergedRegions());
+                Assert.assertEquals(CellRangeAddress.valueOf("A" + (3 + n) + ":B" + (3 + n)), sheet.getMergedRegion(1));
+                // the footer formula references are shifted with the data rows
+                Row total = sheet.getRow(2 + n);
+                Assert.assertEquals(n == 0 ? "SUM(#REF!)" : "SUM(C3:C" + (2 + n) + ")", total.getCell(2).getCellFormula());
+                Assert.assertEquals("C" + (3 + n) + "/COUNT(report!A2:A" + (2 + n) + ")&C2", total.getCell(3).getCellFormula());
+                if (n > 0) {
+                    Row row = sheet.getRow(2 + n - 1);
+                    Assert.assertEquals(n - 1, row.getCell(0).getNumericCellValue(), 0);
+                    Assert.assertEquals("cyx_" + (n - 1), row.getCell(1).getStringCellValue());
+                    Assert.assertEquals((n - 1) * 1.5, row.getCell(2).getNumericCellValue(), 0);
+                    Assert.assertEquals("#,##0.00", row.getCell(2).getCellStyle().getDataFormatString());
+                    Assert.assertEquals("RMB", row.getCell(3).getStringCellValue());
+                    Assert.assertEquals(20, row.getHeightInPoints(), 0);
+                }
+                Assert.assertEquals("cover", workbook.getSheet("cover").getRow(0).getCell(0).getStringCellValue());
+                Assert.assertEquals(3, workbook.getSheet("extra").getLastRowNum());
+                // no styles created per report
+                Assert.assertEquals(3, workbook.getNumCellStyles());
+            }
+        }
+    }
+
+    @Test
+    public void templateDataRowReference() throws Exception {
+        File file = reportTemplate();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new FileInputStream(file))) {
+            workbook.getSheet("report").getRow(3).getCell(2).setCellFormula("C3*2");
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                workbook.write(out);
+            }
+        }
+        try {
+            Excels.template(file);
+            Assert.fail("single cell reference to the data row should be rejected.");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().contains("C4"));
+        }
+    }
+
+    @Test
+    public void sharedHeaderPlan() throws Exception {
+        // two auto layout rows without field map
+        XHeader header = new XHeader()
+                .add(new XRow().add("users", CellRangeAddress.valueOf("A1:C1")))
+                .add(new XRow().add("编号").add("名称").add("地址"));
+        HeaderPlan plan = header.compile();
+        Assert.assertTrue(plan == header.compile());
+        Assert.assertEquals(2, plan.getRowCount());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<File>> futures = new ArrayList<>();
+            for (int n = 0; n < 8; n++) {
+                futures.add(executor.submit(() -> {
+                    File file = tempFile("shared_header");
+                    try (ExcelWriter writer = Excels.bigExcelWriter(); Stream<DataRow> data = rows(1000)) {
+                        writer.write(XSheet.of("users", data, header)).writeTo(file.getPath());
+                    }
+                    return file;
+                }));
+            }
+            for (Future<File> future : futures) {
+                try (Workbook workbook = new XSSFWorkbook(future.get())) {
+                    Sheet sheet = workbook.getSheetAt(0);
+                    // title, header names, data fields and the data rows
+                    Assert.assertEquals(1002, sheet.getLastRowNum());
+                    Assert.assertEquals("编号", sheet.getRow(1).getCell(0).getStringCellValue());
+                    Assert.assertEquals("id", sheet.getRow(2).getCell(0).getStringCellValue());
+                    Assert.assertEquals("cyx_999", sheet.getRow(1002).getCell(1).getStringCellValue());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // the header is not modified by the writers
+        Assert.assertEquals(2, header.getRows().size());
+        Assert.assertTrue(plan == header.compile());
+        // the cached plan is invalidated by the cell added to the row
+        header.getRows().get(1).add("电话");
+        HeaderPlan changed = header.compile();
+        Assert.assertTrue(plan != changed);
+        Assert.assertEquals(4, changed.getColumnCount());
+        Assert.assertEquals("电话", changed.getCells().get(changed.getCells().size() - 1).getText());
+    }
+
+    @Test
+    public void mixedSchemaRows() throws Exception {
+        List<DataRow> rows = new ArrayList<>();
+        rows.add(DataRow.of("id", 0, "name", "cyx_0", "address", "昆明市0"));
+        // reordered, missing field and equal names of the other instances
+        rows.add(DataRow.of("name", "cyx_1", "id", 1, "address", "昆明市1"));
+        rows.add(DataRow.of("id", 2, "name", "cyx_2"));
+        rows.add(DataRow.of(new String("id"), 3, new String("name"), "cyx_3", new String("address"), "昆明市3"));
+        XHeader header = new XHeader().add(new XRow().set("address", "地址").set("id", "编号").set("age", "年龄"));
+        File file = tempFile("mixed_schema");
+        try (ExcelWriter writer = Excels.writer()) {
+            XSheet sheet = XSheet.of("users", rows, header);
+            sheet.setEmptyColumn("-");
+            writer.write(sheet).writeTo(file.getPath());
+        }
+        try (Workbook workbook = new XSSFWorkbook(file)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            DataFormatter formatter = new DataFormatter();
+            List<String> lines = new ArrayList<>();
+            for (Row row : sheet) {
+                List<String> cells = new ArrayList<>();
+                row.forEach(cell -> cells.add(formatter.formatCellValue(cell)));
+                lines.add(String.join(",", cells));
+            }
+            Assert.assertEquals("[地址,编号,年龄, 昆明市0,0,-, 昆明市1,1,-, -,2,-, 昆明市3,3,-]", lines.toString());
+        }
+    }
+}